@@ -0,0 +1,89 @@
+/*
+ * Benchmarks the binary GameArchive against re-parsing the same games from PGN
+ * The benchmark games are written to a temporary archive, each invocation decodes every game once
+ * 10/17/26
+ */
+package bench;
+
+import engine.GameArchive;
+import engine.GameArchiveWriter;
+import engine.PGNGame;
+import engine.PGNReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * @author Joseph
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArchiveBenchmark {
+
+    private byte[] pgn;
+    private Path path;
+    private GameArchive archive;
+
+    @Setup
+    public void setup() throws IOException {
+        pgn = PGNBenchmark.exportCorpus(1);
+        path = Files.createTempFile("bench", ".cla");
+        try(PGNReader in = new PGNReader(new ByteArrayInputStream(pgn));
+                GameArchiveWriter out = new GameArchiveWriter(path)) {
+            PGNGame game;
+            while((game = in.next()) != null) {
+                out.add(game);
+            }
+        }
+        archive = GameArchive.open(path);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        archive.close();
+        Files.deleteIfExists(path);
+    }
+
+    /**
+     * Decodes the moves of every game from the archive
+     */
+    @Benchmark
+    public void archiveMoves(Blackhole bh) {
+        for(int i = 0; i < archive.size(); i++) {
+            bh.consume(archive.getMoves(i));
+        }
+    }
+
+    /**
+     * Reads every game from PGN text, the work the archive replaces
+     */
+    @Benchmark
+    public void parsePGN(Blackhole bh) throws IOException {
+        try(PGNReader in = new PGNReader(new ByteArrayInputStream(pgn))) {
+            PGNGame game;
+            while((game = in.next()) != null) {
+                bh.consume(game);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Entry point of the benchmarks jar, runs JMH with the gc allocation profiler enabled
+ * 10/17/26
+ */
+package bench;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    /**
+     * Accepts the standard JMH command line, -prof gc is always added
+     * @param args, JMH command line options such as a benchmark regex
+     * @throws RunnerException if a benchmark fails
+     * @throws CommandLineOptionException if the options cannot be parsed
+     * @throws IOException if the help or benchmark list cannot be printed
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if(commandLine.shouldHelp()) {
+            commandLine.showHelp();
+            return;
+        }
+        if(commandLine.shouldList()) {
+            Main.main(args);
+            return;
+        }
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Loads the realistic positions and games the benchmarks run over
+ * Positions are the perft suite positions plus every position reached in the benchmark games
+ * 10/17/26
+ */
+package bench;
+
+import engine.Moves;
+import engine.Perft;
+import engine.Position;
+import gui.GameInfo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class Corpus {
+
+    public static final String GAMES_RESOURCE = "/bench/games.txt";
+
+    private Corpus() {}
+
+    /**
+     * Replays the benchmark games headlessly
+     * @return a GameInfo for each game, positioned on its last move
+     */
+    public static GameInfo[] games() {
+        ArrayList<GameInfo> games = new ArrayList<>();
+        for(String line : readLines(GAMES_RESOURCE)) {
+            GameInfo game = new GameInfo();
+            for(String uci : line.split("\\s+")) {
+                game.makeMove(parseUCI(game.getLastPosition(), uci));
+            }
+            games.add(game);
+        }
+        return games.toArray(new GameInfo[0]);
+    }
+
+    /**
+     * Returns the perft suite positions followed by every position of the benchmark games
+     * @return the positions
+     */
+    public static Position[] positions() {
+        ArrayList<Position> positions = new ArrayList<>(Arrays.asList(suitePositions()));
+        for(GameInfo game : games()) {
+            for(int i = -1; i < game.getMoveCount(); i++) {
+                positions.add(game.getPositionByNumber(i).copy());
+            }
+        }
+        return positions.toArray(new Position[0]);
+    }
+
+    /**
+     * Returns the positions of the perft suite
+     * @return the positions
+     */
+    public static Position[] suitePositions() {
+        ArrayList<Position> positions = new ArrayList<>();
+        for(String line : readLines(Perft.SUITE_RESOURCE)) {
+            positions.add(Position.fromFEN(line.split(";")[0]));
+        }
+        return positions.toArray(new Position[0]);
+    }
+
+    /**
+     * Finds the legal move for a long algebraic move string such as e7e8q
+     * @param position, the Position the move is played in
+     * @param uci, the move string
+     * @return the packed move
+     */
+    public static int parseUCI(Position position, String uci) {
+        int from = Moves.square(uci.charAt(1) - '1', uci.charAt(0) - 'a');
+        int to = Moves.square(uci.charAt(3) - '1', uci.charAt(2) - 'a');
+        byte promotion = Position.EMPTY;
+        if(uci.length() == 5) {
+            int type = "  bnrq".indexOf(uci.charAt(4));
+            promotion = Position.pieceOf(type, position.isWhiteToMove());
+        }
+        int move = position.findMove(from, to, promotion);
+        if(move == Moves.NONE) {
+            throw new IllegalArgumentException("Illegal move " + uci + " in " + position.toFEN());
+        }
+        return move;
+    }
+
+    private static ArrayList<String> readLines(String resource) {
+        ArrayList<String> lines = new ArrayList<>();
+        InputStream stream = Corpus.class.getResourceAsStream(resource);
+        if(stream == null) {
+            throw new IllegalStateException("Missing benchmark resource " + resource);
+        }
+        try(BufferedReader in = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            while((line = in.readLine()) != null) {
+                line = line.trim();
+                if(!line.isEmpty() && !line.startsWith("#")) {
+                    lines.add(line);
+                }
+            }
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Benchmarks the static Evaluation over the benchmark corpus
+ * Compares the incrementally updated material and piece-square scores against recalculating
+ * them over the 64 squares, and the PawnTable against evaluating the pawn structure every time
+ * Each invocation runs over every corpus position
+ * 10/17/26
+ */
+package bench;
+
+import engine.Evaluation;
+import engine.PawnTable;
+import engine.Position;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * @author Joseph
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluationBenchmark {
+
+    private Position[] positions;
+    private PawnTable pawnTable;
+
+    @Setup
+    public void setup() {
+        positions = Corpus.positions();
+        pawnTable = new PawnTable();
+    }
+
+    /**
+     * The full tapered evaluation the Search runs at every leaf
+     */
+    @Benchmark
+    public void evaluate(Blackhole bh) {
+        for(Position position : positions) {
+            bh.consume(Evaluation.evaluate(position));
+        }
+    }
+
+    /**
+     * The evaluation with the pawn structure read from a PawnTable, as the Search runs it
+     * Consecutive corpus positions come from the same games so their pawns often match
+     */
+    @Benchmark
+    public void evaluateWithPawnTable(Blackhole bh) {
+        for(Position position : positions) {
+            bh.consume(Evaluation.evaluate(position, pawnTable));
+        }
+    }
+
+    @Benchmark
+    public void incrementalMaterial(Blackhole bh) {
+        for(Position position : positions) {
+            bh.consume(Evaluation.taper(position.getMiddlegameScore(), position.getEndgameScore(), position.getPhase()));
+        }
+    }
+
+    @Benchmark
+    public void computeMaterial(Blackhole bh) {
+        for(Position position : positions) {
+            long scores = Evaluation.computeMaterial(position);
+            bh.consume(Evaluation.taper(Evaluation.middlegame(scores), Evaluation.endgame(scores), position.getPhase()));
+        }
+    }
+
+    @Benchmark
+    public void evaluatePawns(Blackhole bh) {
+        for(Position position : positions) {
+            bh.consume(Evaluation.evaluatePawns(position));
+        }
+    }
+}
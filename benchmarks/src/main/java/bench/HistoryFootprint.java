@@ -0,0 +1,145 @@
+/*
+ * Measures the heap retained by a GameInfo's move history while it is navigated, headless
+ * A long game is played and then walked back and forth, taken back and replayed, and the live heap
+ * after each round must stay flat since the history only holds piece codes and squares
+ * Only the headless GameInfo is measured, the JavaFX Board, Tile and Piece nodes need a running
+ * toolkit and their retention is not checked
+ * 10/17/26
+ */
+package bench;
+
+import engine.MoveList;
+import engine.Position;
+import gui.GameInfo;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Random;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class HistoryFootprint {
+
+    public static final int DEFAULT_PLIES = 300;
+    public static final int DEFAULT_ROUNDS = 20;
+    public static final long TOLERANCE = 64 * 1024; //bytes the live heap may grow by after the first round
+    public static final int TAKE_BACKS = 10; //plies taken back and replayed each round
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private HistoryFootprint() {}
+
+    /**
+     * Plays random legal moves until a game reaches a number of plies, a move into a finished
+     * game is taken back and another one is tried
+     * @param plies, the length of the game
+     * @param random, chooses the moves
+     * @return the GameInfo, on its last move
+     */
+    public static GameInfo playGame(int plies, Random random) {
+        GameInfo game = new GameInfo();
+        MoveList list = new MoveList();
+        while(game.getMoveCount() < plies) {
+            Position position = game.getLastPosition();
+            position.generateMoves(list);
+            if(list.size() == 0) {
+                game.takeBackMove();
+            } else {
+                game.makeMove(list.get(random.nextInt(list.size())));
+            }
+        }
+        game.goFarRight();
+        return game;
+    }
+
+    /**
+     * Walks the game to its start and back to its end rendering each move's notation state,
+     * jumps to random moves and takes back and replays the last moves
+     */
+    private static long navigate(GameInfo game, Random random) {
+        long checksum = 0;
+        game.goFarLeft();
+        while(game.canGoRight()) {
+            game.goRight();
+            checksum += game.getPositionByNumber(game.getMoveNum()).getHash();
+            checksum += game.getMoveFEN().length() + game.getRecentlyMovedTileCoordinates().size();
+        }
+        while(game.canGoLeft()) {
+            game.goLeft();
+            checksum += game.getMoveFEN().length();
+        }
+        for(int i = 0; i < game.getMoveCount(); i++) {
+            game.goTo(random.nextInt(game.getMoveCount()));
+            checksum += game.getPositionByNumber(game.getMoveNum()).getHash();
+        }
+        int count = game.getMoveCount();
+        int[] replay = new int[TAKE_BACKS];
+        for(int i = TAKE_BACKS-1; i >= 0; i--) {
+            replay[i] = game.getMoves().get(game.getMoveCount()-1).getPackedMove();
+            game.takeBackMove();
+        }
+        for(int move : replay) {
+            game.makeMove(move);
+        }
+        if(game.getMoveCount() != count) {
+            throw new IllegalStateException("Replayed game has " + game.getMoveCount() + " plies, expected " + count);
+        }
+        game.goFarRight();
+        return checksum;
+    }
+
+    /**
+     * Returns the live heap, collecting garbage until the used heap stops shrinking
+     */
+    private static long liveHeap() {
+        long used = Long.MAX_VALUE;
+        for(int i = 0; i < 10; i++) {
+            System.gc();
+            long now = MEMORY.getHeapMemoryUsage().getUsed();
+            if(now >= used) {
+                return now;
+            }
+            used = now;
+        }
+        return used;
+    }
+
+    /**
+     * Prints the heap retained per ply and after each navigation round
+     * Usage: HistoryFootprint [plies] [rounds]
+     * @param args, the length of the game and the rounds of navigation
+     * @throws IllegalStateException if the live heap grows by more than TOLERANCE after the first round
+     */
+    public static void main(String[] args) {
+        int plies = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PLIES;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+        if(plies <= TAKE_BACKS || rounds < 2) {
+            throw new IllegalArgumentException("Need more than " + TAKE_BACKS + " plies and at least 2 rounds");
+        }
+        Random random = new Random(0);
+        playGame(plies, new Random(1)); //loads and warms the classes
+        long empty = liveHeap();
+        GameInfo game = playGame(plies, random);
+        long built = liveHeap();
+        System.out.printf("plies %d, history %d bytes (%.0f bytes/ply)%n", plies, built - empty, (double) (built - empty) / plies);
+
+        long checksum = 0;
+        long first = 0;
+        long most = 0;
+        for(int round = 0; round < rounds; round++) {
+            checksum += navigate(game, random);
+            long live = liveHeap();
+            if(round == 0) {
+                first = live;
+            }
+            most = Math.max(most, live - first);
+            System.out.printf("round %d live heap %d bytes (%+d)%n", round+1, live, live - first);
+        }
+        System.out.printf("most growth %d bytes, tolerance %d, checksum %d%n", most, TOLERANCE, checksum);
+        if(most > TOLERANCE) {
+            throw new IllegalStateException("Live heap grew by " + most + " bytes while navigating");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Benchmarks the rules calculations of the headless Position over the benchmark corpus
+ * Each invocation runs over every corpus position
+ * 10/17/26
+ */
+package bench;
+
+import engine.MoveList;
+import engine.Position;
+import gui.LegalMoveCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * @author Joseph
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveGenerationBenchmark {
+
+    private Position[] positions;
+    private final MoveList list = new MoveList();
+    private LegalMoveCache cache;
+
+    @Setup
+    public void setup() {
+        positions = Corpus.positions();
+        cache = new LegalMoveCache(positions.length);
+    }
+
+    /**
+     * Legal move generation, what Board::calculateMoves runs for every rendered Position
+     */
+    @Benchmark
+    public void calculateMoves(Blackhole bh) {
+        for(Position position : positions) {
+            position.generateMoves(list);
+            bh.consume(list.size());
+        }
+    }
+
+    /**
+     * Legal moves read from the GUI's cache, what navigating through an already rendered Game runs
+     * (every position is cached after the first invocation)
+     */
+    @Benchmark
+    public void cachedMoves(Blackhole bh) {
+        for(Position position : positions) {
+            bh.consume(cache.getMoves(position).length);
+        }
+    }
+
+    @Benchmark
+    public void inCheck(Blackhole bh) {
+        for(Position position : positions) {
+            bh.consume(position.inCheck());
+        }
+    }
+
+    @Benchmark
+    public void hasLegalMoves(Blackhole bh) {
+        for(Position position : positions) {
+            bh.consume(position.hasLegalMoves());
+        }
+    }
+
+    /**
+     * Pin detection for every piece of the side to move
+     */
+    @Benchmark
+    public void isPinned(Blackhole bh) {
+        for(Position position : positions) {
+            long pieces = position.getPieces(position.isWhiteToMove());
+            while(pieces != 0) {
+                bh.consume(position.isPinned(Long.numberOfTrailingZeros(pieces)));
+                pieces &= pieces - 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Benchmarks the notation calculations of the GameInfo and its Moves over the benchmark games,
+ * and parsing the FEN of every corpus position
+ * Each invocation runs over every game of the corpus
+ * 10/17/26
+ */
+package bench;
+
+import engine.Position;
+import gui.GameInfo;
+import gui.Move;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * @author Joseph
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NotationBenchmark {
+
+    private static final String RESULT = "*";
+
+    private GameInfo[] games;
+    private Position[][] before; //copies of the Position before each move of each game
+    private String[] fens; //FEN of every corpus position
+    private final Position loaded = new Position(); //reused by setFEN
+
+    @Setup
+    public void setup() {
+        games = Corpus.games();
+        before = new Position[games.length][];
+        for(int i = 0; i < games.length; i++) {
+            before[i] = new Position[games[i].getMoveCount()];
+            for(int j = 0; j < before[i].length; j++) {
+                before[i][j] = games[i].getPositionByNumber(j-1).copy();
+            }
+        }
+        Position[] positions = Corpus.positions();
+        fens = new String[positions.length];
+        for(int i = 0; i < positions.length; i++) {
+            fens[i] = positions[i].toFEN();
+        }
+    }
+
+    /**
+     * Piece prefix (with disambiguation) of every non castling move
+     */
+    @Benchmark
+    public void calcPiecePrefix(Blackhole bh) {
+        for(int i = 0; i < games.length; i++) {
+            for(int j = 0; j < before[i].length; j++) {
+                Move move = games[i].getMoves().get(j);
+                if(!move.isCastle()) {
+                    bh.consume(move.calcPiecePrefix(before[i][j], move.getOldPos(), move.getNewPos()));
+                }
+            }
+        }
+    }
+
+    /**
+     * FEN of every position of each game, as copied to the clipboard while navigating
+     */
+    @Benchmark
+    public void getMoveFEN(Blackhole bh) {
+        for(GameInfo game : games) {
+            for(int i = -1; i < game.getMoveCount(); i++) {
+                game.goTo(i);
+                bh.consume(game.getMoveFEN());
+            }
+        }
+    }
+
+    /**
+     * Parses the FEN of every corpus position into a new Position
+     */
+    @Benchmark
+    public void fromFEN(Blackhole bh) {
+        for(String fen : fens) {
+            bh.consume(Position.fromFEN(fen));
+        }
+    }
+
+    /**
+     * Parses the FEN of every corpus position into one reused Position, as a puzzle trainer loading many FENs would
+     */
+    @Benchmark
+    public void setFEN(Blackhole bh) {
+        for(String fen : fens) {
+            loaded.setFEN(fen);
+            bh.consume(loaded.getHash());
+        }
+    }
+
+    @Benchmark
+    public void getGamePGN(Blackhole bh) {
+        for(GameInfo game : games) {
+            bh.consume(game.getGamePGN(RESULT));
+        }
+    }
+}
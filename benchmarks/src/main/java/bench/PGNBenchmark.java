@@ -0,0 +1,95 @@
+/*
+ * Benchmarks reading PGN text with the streaming PGNReader and the parallel PGNImport
+ * The benchmark games are exported with GameInfo.getGamePGN and repeated into a few megabytes of input
+ * Each invocation reads the whole input
+ * 10/17/26
+ */
+package bench;
+
+import engine.PGNGame;
+import engine.PGNImport;
+import engine.PGNReader;
+import gui.GameInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * @author Joseph
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PGNBenchmark {
+
+    public static final int INPUT_SIZE = 4 << 20; //bytes of PGN read per invocation
+
+    private byte[] input;
+
+    @Setup
+    public void setup() {
+        input = exportCorpus(INPUT_SIZE);
+    }
+
+    /**
+     * Exports the benchmark games as PGN, repeated until the text is at least size bytes
+     * @param size, the minimum number of bytes
+     * @return the PGN text
+     */
+    public static byte[] exportCorpus(int size) {
+        StringBuilder pgn = new StringBuilder();
+        for(GameInfo game : Corpus.games()) {
+            pgn.append(game.getGamePGN("*")).append("\n");
+        }
+        byte[] games = pgn.toString().getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size + games.length);
+        while(out.size() < size) {
+            out.write(games, 0, games.length);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads every game, resolving each SAN move against the game's Position
+     */
+    @Benchmark
+    public void read(Blackhole bh) throws IOException {
+        try(PGNReader reader = new PGNReader(new ByteArrayInputStream(input))) {
+            PGNGame game;
+            while((game = reader.next()) != null) {
+                bh.consume(game);
+            }
+        }
+    }
+
+    /**
+     * Reads every game with one decoding thread per processor, in the same order as read
+     */
+    @Benchmark
+    public void parallelImport(Blackhole bh) throws IOException {
+        try(PGNImport in = new PGNImport(new ByteArrayInputStream(input), Runtime.getRuntime().availableProcessors())) {
+            PGNGame game;
+            while((game = in.next()) != null) {
+                bh.consume(game);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Checks that games saved by the GUI read back through PGNReader, headless
+ * Random games are noted the way a Game notes its moves, exported with each result and
+ * read back, the moves, start FEN and result must survive
+ * 10/17/26
+ */
+package bench;
+
+import engine.MoveList;
+import engine.Moves;
+import engine.PGNGame;
+import engine.PGNReader;
+import engine.Position;
+import gui.GameInfo;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class PGNRoundTrip {
+
+    public static final int DEFAULT_GAMES = 200;
+    public static final String[] RESULTS = {"1-0", "0-1", "1/2-1/2", "*"}; //as written by Game::savePGNAsFile
+    public static final String[] START_FENS = {
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", //promotions and castling
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", //en passant
+        "rnbqkbnr/pppp1ppp/8/4p3/6P1/5P2/PPPPP2P/RNBQKBNR b KQkq - 0 2"}; //black moves first
+
+    private PGNRoundTrip() {}
+
+    /**
+     * Plays random legal moves, noting each one as Game::movePacked and Game::preMove do,
+     * until the game ends or reaches a number of plies
+     * @param start, the Position the game starts from
+     * @param plies, the most plies to play
+     * @param random, chooses the moves
+     * @return the GameInfo
+     */
+    public static GameInfo playGame(Position start, int plies, Random random) {
+        GameInfo game = new GameInfo(start);
+        MoveList list = new MoveList();
+        game.getLastPosition().generateMoves(list);
+        while(game.getMoveCount() < plies && list.size() > 0) {
+            boolean white = game.getLastPosition().isWhiteToMove();
+            int move = list.get(random.nextInt(list.size()));
+            game.makeMove(move);
+            if(Moves.isEnPassant(move)) {
+                game.setRecentEnPassant();
+            } else if(Moves.isCapture(move)) {
+                game.setRecentCapture();
+            }
+            if(Moves.isPromotion(move)) {
+                game.setRecentPromotion(Moves.promotionPiece(move, white));
+            }
+            Position position = game.getLastPosition();
+            position.generateMoves(list);
+            if(position.inCheck()) {
+                if(list.size() == 0) {
+                    game.setRecentCheckMate();
+                } else {
+                    game.setRecentCheck();
+                }
+            } else if(list.size() == 0) {
+                game.setRecentStaleMate();
+            }
+        }
+        return game;
+    }
+
+    /**
+     * Exports games with each result as one PGN text and reads them back
+     * Usage: PGNRoundTrip [games]
+     * @param args, the number of random games from the standard starting position
+     * @throws IOException never, the PGN is read from memory
+     * @throws IllegalStateException if a game does not read back as it was saved
+     */
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+        Random random = new Random(0);
+        ArrayList<GameInfo> games = new ArrayList<>();
+        for(int i = 0; i < count; i++) {
+            games.add(playGame(Position.initial(), 1 + random.nextInt(300), random));
+        }
+        for(String fen : START_FENS) {
+            for(int i = 0; i < 20; i++) {
+                games.add(playGame(Position.fromFEN(fen), 1 + random.nextInt(100), random));
+            }
+        }
+
+        StringBuilder pgn = new StringBuilder();
+        for(int i = 0; i < games.size(); i++) {
+            pgn.append(games.get(i).getGamePGN(RESULTS[i % RESULTS.length])).append("\n");
+        }
+        long plies = 0;
+        try(PGNReader reader = new PGNReader(new ByteArrayInputStream(pgn.toString().getBytes(StandardCharsets.UTF_8)))) {
+            for(int i = 0; i < games.size(); i++) {
+                GameInfo saved = games.get(i);
+                PGNGame read = reader.next();
+                if(read == null) {
+                    throw new IllegalStateException("Game " + i + " did not read back, " + reader.getSkipped() + " skipped\n"
+                            + saved.getGamePGN(RESULTS[i % RESULTS.length]));
+                }
+                String startFEN = saved.isStandardStart() ? null : saved.getStartFEN();
+                boolean same = read.getResult().equals(RESULTS[i % RESULTS.length])
+                        && (startFEN == null ? read.getStartFEN() == null : startFEN.equals(read.getStartFEN()))
+                        && read.getPlyCount() == saved.getMoveCount();
+                for(int ply = 0; same && ply < saved.getMoveCount(); ply++) {
+                    same = read.getMoves()[ply] == saved.getMoves().get(ply).getPackedMove();
+                }
+                if(!same) {
+                    throw new IllegalStateException("Game " + i + " read back differently\n" + saved.getGamePGN(RESULTS[i % RESULTS.length]));
+                }
+                plies += read.getPlyCount();
+            }
+            if(reader.next() != null || reader.getSkipped() != 0) {
+                throw new IllegalStateException("Extra or skipped games, " + reader.getSkipped() + " skipped");
+            }
+        }
+        System.out.printf("%d games, %d plies read back as saved%n", games.size(), plies);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Benchmarks the alpha-beta Search to a fixed depth over the perft suite positions
+ * Run with -p threads=1,2,4 to measure the time to depth of the Lazy SMP search
+ * Each invocation searches every position
+ * 10/17/26
+ */
+package bench;
+
+import engine.Position;
+import engine.ParallelSearch;
+import engine.SearchInfo;
+import engine.TranspositionTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * @author Joseph
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+    @Param({"4"})
+    public int depth;
+
+    @Param({"1"})
+    public int threads;
+
+    private Position[] positions;
+    private ParallelSearch search;
+
+    @Setup
+    public void setup() {
+        positions = Corpus.suitePositions();
+        search = new ParallelSearch(new TranspositionTable(), threads);
+    }
+
+    /**
+     * Starts every invocation from an empty transposition table so invocations search the same tree
+     */
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        search.getTable().clear();
+    }
+
+    @Benchmark
+    public long fixedDepth() {
+        long nodes = 0;
+        for(Position position : positions) {
+            SearchInfo info = search.search(position, depth, 0, null);
+            nodes += info.getNodes();
+        }
+        return nodes;
+    }
+}
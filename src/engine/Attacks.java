@@ -0,0 +1,270 @@
+/*
+ * Precomputed attack tables of every piece, filled once when the class is loaded
+ * Knight, king and pawn attacks are a single lookup per square
+ * The squares between and the line through two aligned squares are also tabled for pins and checks
+ * Bishop and rook attacks are looked up with magic bitboards: the blockers on a slider's rays
+ * are multiplied by a magic number whose top bits index the attacks of that blocker set
+ * The magics were found by a random search and are fixed so the tables fill quickly at startup
+ * 10/17/26
+ */
+package engine;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class Attacks {
+
+    private static final int[][] KNIGHT_OFFSETS = {{1,2},{2,1},{-1,2},{-2,1},{1,-2},{2,-1},{-1,-2},{-2,-1}};
+    private static final int[][] KING_OFFSETS = {{1,1},{1,0},{1,-1},{0,1},{0,-1},{-1,1},{-1,0},{-1,-1}};
+    private static final int[][] WHITE_PAWN_OFFSETS = {{1,-1},{1,1}};
+    private static final int[][] BLACK_PAWN_OFFSETS = {{-1,-1},{-1,1}};
+    private static final int[][] DIAGONALS = {{1,1},{-1,1},{1,-1},{-1,-1}};
+    private static final int[][] HORIZONTALS = {{1,0},{-1,0},{0,1},{0,-1}};
+
+    private static final long[] BISHOP_MAGICS = {
+        0x0008101908090451L, 0x2004040802082800L, 0x048401020209201DL, 0x0404050203800040L,
+        0x0008484050000400L, 0x0041100825011504L, 0x10020806021002ADL, 0x0001141401041000L,
+        0x8002500292040408L, 0x00400A0202020200L, 0x0002100082014008L, 0x2041844040800060L,
+        0x10040C0461C20000L, 0x0020010128401808L, 0x0002008201202005L, 0x24900180C4022009L,
+        0x4065004004040404L, 0x0010094409020424L, 0x0C48008508022180L, 0x2020221A02004001L,
+        0x0005000090400042L, 0x0010A02A02100250L, 0x000040010402A008L, 0x049040088200D004L,
+        0x20024201A0080200L, 0x00022A0009100400L, 0x0001100003004604L, 0x2440480000820040L,
+        0x2000840008802010L, 0x0001020249080110L, 0x4008010000A08840L, 0x0214008220221140L,
+        0x010C122010410400L, 0x0080882001982200L, 0x0000108800300044L, 0x0000020080080080L,
+        0x0460020400828082L, 0x02200805C8048200L, 0x0882040051140210L, 0x0845140101456108L,
+        0x0008040404002000L, 0x80308A1010009210L, 0x0001009802080408L, 0xC800006011088800L,
+        0xA800111202010420L, 0x1809200804442480L, 0x0208028400402400L, 0x00090401020C08C1L,
+        0x0006010403408802L, 0x0000440401084300L, 0x0C08010088908000L, 0x5000441042022020L,
+        0x0080CA10120A0000L, 0x0082200581020001L, 0x0018520408020004L, 0x2002120212020010L,
+        0x0080440094032000L, 0x0000402288081801L, 0x0014040202C20840L, 0x10062500842A0800L,
+        0x0022282041504908L, 0x11800C0C20042440L, 0x1400044802284200L, 0x6484480204040010L
+    };
+    private static final long[] ROOK_MAGICS = {
+        0x008000108020400DL, 0x80400C2000100040L, 0x2D00128920004100L, 0x2200042042001108L,
+        0x01000C1100220800L, 0x0400820400601008L, 0x8880028002000100L, 0x1200002085004204L,
+        0x0502802040008000L, 0x0040401000412000L, 0x1802002116004080L, 0x8222002030420008L,
+        0x2191005065006800L, 0x006E005408060050L, 0x1004000412500801L, 0x2089002840890006L,
+        0x0084238010804000L, 0x0810044020044000L, 0x0490006004002800L, 0x0400828008021001L,
+        0x000400804C800800L, 0x0002808004000200L, 0x0010040010011208L, 0x009002002A408304L,
+        0x8000C00880002884L, 0x1042200040005000L, 0x1000300080200088L, 0x0708008080100058L,
+        0x2091010500100800L, 0xA001040080800600L, 0x301082C400011008L, 0x0000044200040291L,
+        0x0900400680800028L, 0x0000201000400041L, 0x0006008042002090L, 0x0401080081801000L,
+        0x2108008008800400L, 0x0001000401003218L, 0x0000211204000810L, 0x0000008042000904L,
+        0x2125400028908000L, 0x8040022008808042L, 0x9042002140820010L, 0x3210A01200420018L,
+        0x2090080004008080L, 0x8942008004008006L, 0x642850A201040028L, 0x250461018042000CL,
+        0x9400800820C50100L, 0x0011002242008200L, 0x0000500020058080L, 0x0000290020100300L,
+        0x000A180280040080L, 0x8000020080240080L, 0x060A000801649200L, 0x0000046084050200L,
+        0x4102004083023422L, 0x0001008020400411L, 0x480300420990A001L, 0x4180040810002101L,
+        0x401200D020286402L, 0x02A2001430010852L, 0x80002850120A8304L, 0x0020803400850042L
+    };
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[] WHITE_PAWN_ATTACKS = new long[64];
+    private static final long[] BLACK_PAWN_ATTACKS = new long[64];
+
+    private static final long[][] BETWEEN = new long[64][64]; //squares strictly between two aligned squares
+    private static final long[][] LINES = new long[64][64]; //the whole line through two aligned squares
+
+    private static final long[] BISHOP_MASKS = new long[64]; //squares whose occupancy changes the attacks
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final int[] BISHOP_OFFSETS = new int[64]; //start of each square's attacks in BISHOP_ATTACKS
+    private static final long[] BISHOP_ATTACKS;
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] ROOK_OFFSETS = new int[64];
+    private static final long[] ROOK_ATTACKS;
+
+    static {
+        for(int square = 0; square < 64; square++) {
+            KNIGHT_ATTACKS[square] = stepAttacks(square, KNIGHT_OFFSETS);
+            KING_ATTACKS[square] = stepAttacks(square, KING_OFFSETS);
+            WHITE_PAWN_ATTACKS[square] = stepAttacks(square, WHITE_PAWN_OFFSETS);
+            BLACK_PAWN_ATTACKS[square] = stepAttacks(square, BLACK_PAWN_OFFSETS);
+        }
+        initLines(DIAGONALS);
+        initLines(HORIZONTALS);
+        BISHOP_ATTACKS = initMagics(DIAGONALS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS);
+        ROOK_ATTACKS = initMagics(HORIZONTALS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS);
+    }
+
+    private Attacks() {}
+
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * Returns the squares a pawn on a square attacks
+     * @param square, the square of the pawn
+     * @param white, color of the pawn
+     * @return the attacked squares as a bitboard
+     */
+    public static long pawnAttacks(int square, boolean white) {
+        return white ? WHITE_PAWN_ATTACKS[square] : BLACK_PAWN_ATTACKS[square];
+    }
+
+    /**
+     * Returns the squares strictly between two squares on the same rank, file or diagonal
+     * @param from, the first square
+     * @param to, the second square
+     * @return the squares between as a bitboard, 0 if the squares are not aligned
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * Returns the rank, file or diagonal through two squares from edge to edge
+     * @param from, the first square
+     * @param to, the second square
+     * @return the line as a bitboard, 0 if the squares are not aligned
+     */
+    public static long line(int from, int to) {
+        return LINES[from][to];
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_ATTACKS[BISHOP_OFFSETS[square] + index];
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return ROOK_ATTACKS[ROOK_OFFSETS[square] + index];
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return bishopAttacks(square, occupied) | rookAttacks(square, occupied);
+    }
+
+    /**
+     * Fills BETWEEN and LINES for every pair of squares aligned along a list of directions
+     * @param directions, {row,col} directions, each paired with its opposite
+     */
+    private static void initLines(int[][] directions) {
+        for(int from = 0; from < 64; from++) {
+            for(int[] direction : directions) {
+                int[][] backwards = {{-direction[0], -direction[1]}};
+                long ray = slidingAttacks(from, new int[][] {direction}, 0);
+                long line = ray | slidingAttacks(from, backwards, 0) | (1L << from);
+                for(long squares = ray; squares != 0; squares &= squares - 1) {
+                    int to = Long.numberOfTrailingZeros(squares);
+                    LINES[from][to] = line;
+                    BETWEEN[from][to] = ray & slidingAttacks(to, backwards, 0); //in front of from and behind to
+                }
+            }
+        }
+    }
+
+    /**
+     * Fills the attack table of one kind of slider
+     * @param directions, {row,col} directions of the slider
+     * @param masks, written with the relevant blockers of each square
+     * @param magics, the magic of each square
+     * @param shifts, written with the shift of each square
+     * @param offsets, written with the start of each square's attacks in the returned table
+     * @return the attack table of every square
+     */
+    private static long[] initMagics(int[][] directions, long[] masks, long[] magics, int[] shifts, int[] offsets) {
+        int size = 0;
+        for(int square = 0; square < 64; square++) {
+            masks[square] = relevantBlockers(square, directions);
+            shifts[square] = 64 - Long.bitCount(masks[square]);
+            offsets[square] = size;
+            size += 1 << Long.bitCount(masks[square]);
+        }
+        long[] table = new long[size];
+        for(int square = 0; square < 64; square++) {
+            int count = 1 << Long.bitCount(masks[square]);
+            boolean[] filled = new boolean[count];
+            long subset = 0;
+            for(int i = 0; i < count; i++) { //enumerate every subset of the mask
+                long attacks = slidingAttacks(square, directions, subset);
+                int index = (int) ((subset * magics[square]) >>> shifts[square]);
+                if(filled[index] && table[offsets[square] + index] != attacks) {
+                    throw new IllegalStateException("Bad magic for square " + square);
+                }
+                filled[index] = true;
+                table[offsets[square] + index] = attacks;
+                subset = (subset - masks[square]) & masks[square];
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Returns the squares reachable from a square by single steps of a list of offsets
+     * @param square, the square to step from
+     * @param offsets, {row,col} offsets
+     * @return the reachable squares as a bitboard
+     */
+    private static long stepAttacks(int square, int[][] offsets) {
+        int row = Moves.row(square);
+        int col = Moves.col(square);
+        long attacks = 0;
+        for(int[] offset : offsets) {
+            int r = row + offset[0];
+            int c = col + offset[1];
+            if(r >= 0 && r < 8 && c >= 0 && c < 8) {
+                attacks |= 1L << Moves.square(r, c);
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Returns the squares on a slider's rays whose occupancy can change its attacks, the last
+     * square of each ray is left out since it is attacked whether it is occupied or not
+     * @param square, the square of the slider
+     * @param directions, {row,col} directions of the slider
+     * @return the squares as a bitboard
+     */
+    private static long relevantBlockers(int square, int[][] directions) {
+        long blockers = 0;
+        for(int[] direction : directions) {
+            int r = Moves.row(square) + direction[0];
+            int c = Moves.col(square) + direction[1];
+            while(r + direction[0] >= 0 && r + direction[0] < 8 && c + direction[1] >= 0 && c + direction[1] < 8) {
+                blockers |= 1L << Moves.square(r, c);
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return blockers;
+    }
+
+    /**
+     * Returns the squares attacked by a sliding piece by walking its rays, each ray stops at
+     * (and includes) the first occupied square, only used to fill the tables
+     * @param square, the square the slider is on
+     * @param directions, {row,col} directions
+     * @param occupied, the occupied squares
+     * @return the attacked squares as a bitboard
+     */
+    private static long slidingAttacks(int square, int[][] directions, long occupied) {
+        int row = Moves.row(square);
+        int col = Moves.col(square);
+        long attacks = 0;
+        for(int[] direction : directions) {
+            int r = row + direction[0];
+            int c = col + direction[1];
+            while(r >= 0 && r < 8 && c >= 0 && c < 8) {
+                long bit = 1L << Moves.square(r, c);
+                attacks |= bit;
+                if((occupied & bit) != 0) {
+                    break;
+                }
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return attacks;
+    }
+}
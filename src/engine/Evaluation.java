@@ -0,0 +1,464 @@
+/*
+ * Static evaluation of a Position used by the Search
+ * Tapered between middlegame and endgame scores by the material left on the board
+ * Scores are in centipawns from the point of view of the side to move
+ * 10/17/26
+ */
+package engine;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class Evaluation {
+
+    //piece values by type on the same scale as Piece::getValue, in centipawns, used to order captures
+    //the king is worth nothing since it can never be captured
+    public static final int[] PIECE_VALUES = {0, 100, 300, 300, 400, 900, 0};
+
+    public static final int MAX_PHASE = 24; //phase with every piece on the board
+
+    //material by type (pawn, bishop, knight, rook, queen, king) for the middlegame and endgame
+    private static final int[] MIDDLEGAME_VALUES = {0, 100, 330, 320, 500, 900, 0};
+    private static final int[] ENDGAME_VALUES = {0, 120, 340, 300, 530, 950, 0};
+    private static final int[] PHASE_VALUES = {0, 0, 1, 1, 2, 4, 0};
+
+    /*
+     * Piece-square tables from white's point of view, written as the board is seen by white:
+     * the first row is the 8th rank and the last row is the 1st rank
+     * black uses the same tables mirrored vertically
+     */
+    private static final int[] PAWN_MIDDLEGAME = {
+         0,  0,  0,  0,  0,  0,  0,  0,
+        50, 50, 50, 50, 50, 50, 50, 50,
+        10, 10, 20, 30, 30, 20, 10, 10,
+         5,  5, 10, 25, 25, 10,  5,  5,
+         0,  0,  0, 20, 20,  0,  0,  0,
+         5, -5,-10,  0,  0,-10, -5,  5,
+         5, 10, 10,-20,-20, 10, 10,  5,
+         0,  0,  0,  0,  0,  0,  0,  0
+    };
+    private static final int[] PAWN_ENDGAME = {
+         0,  0,  0,  0,  0,  0,  0,  0,
+        80, 80, 80, 80, 80, 80, 80, 80,
+        50, 50, 50, 50, 50, 50, 50, 50,
+        30, 30, 30, 30, 30, 30, 30, 30,
+        15, 15, 15, 15, 15, 15, 15, 15,
+         5,  5,  5,  5,  5,  5,  5,  5,
+         0,  0,  0,  0,  0,  0,  0,  0,
+         0,  0,  0,  0,  0,  0,  0,  0
+    };
+    private static final int[] KNIGHT_TABLE = {
+        -50,-40,-30,-30,-30,-30,-40,-50,
+        -40,-20,  0,  0,  0,  0,-20,-40,
+        -30,  0, 10, 15, 15, 10,  0,-30,
+        -30,  5, 15, 20, 20, 15,  5,-30,
+        -30,  0, 15, 20, 20, 15,  0,-30,
+        -30,  5, 10, 15, 15, 10,  5,-30,
+        -40,-20,  0,  5,  5,  0,-20,-40,
+        -50,-40,-30,-30,-30,-30,-40,-50
+    };
+    private static final int[] BISHOP_TABLE = {
+        -20,-10,-10,-10,-10,-10,-10,-20,
+        -10,  0,  0,  0,  0,  0,  0,-10,
+        -10,  0,  5, 10, 10,  5,  0,-10,
+        -10,  5,  5, 10, 10,  5,  5,-10,
+        -10,  0, 10, 10, 10, 10,  0,-10,
+        -10, 10, 10, 10, 10, 10, 10,-10,
+        -10,  5,  0,  0,  0,  0,  5,-10,
+        -20,-10,-10,-10,-10,-10,-10,-20
+    };
+    private static final int[] ROOK_TABLE = {
+          0,  0,  0,  0,  0,  0,  0,  0,
+          5, 10, 10, 10, 10, 10, 10,  5,
+         -5,  0,  0,  0,  0,  0,  0, -5,
+         -5,  0,  0,  0,  0,  0,  0, -5,
+         -5,  0,  0,  0,  0,  0,  0, -5,
+         -5,  0,  0,  0,  0,  0,  0, -5,
+         -5,  0,  0,  0,  0,  0,  0, -5,
+          0,  0,  0,  5,  5,  0,  0,  0
+    };
+    private static final int[] QUEEN_TABLE = {
+        -20,-10,-10, -5, -5,-10,-10,-20,
+        -10,  0,  0,  0,  0,  0,  0,-10,
+        -10,  0,  5,  5,  5,  5,  0,-10,
+         -5,  0,  5,  5,  5,  5,  0, -5,
+          0,  0,  5,  5,  5,  5,  0, -5,
+        -10,  5,  5,  5,  5,  5,  0,-10,
+        -10,  0,  5,  0,  0,  0,  0,-10,
+        -20,-10,-10, -5, -5,-10,-10,-20
+    };
+    private static final int[] KING_MIDDLEGAME = {
+        -30,-40,-40,-50,-50,-40,-40,-30,
+        -30,-40,-40,-50,-50,-40,-40,-30,
+        -30,-40,-40,-50,-50,-40,-40,-30,
+        -30,-40,-40,-50,-50,-40,-40,-30,
+        -20,-30,-30,-40,-40,-30,-30,-20,
+        -10,-20,-20,-20,-20,-20,-20,-10,
+         20, 20,  0,  0,  0,  0, 20, 20,
+         20, 30, 10,  0,  0, 10, 30, 20
+    };
+    private static final int[] KING_ENDGAME = {
+        -50,-40,-30,-20,-20,-30,-40,-50,
+        -30,-20,-10,  0,  0,-10,-20,-30,
+        -30,-10, 20, 30, 30, 20,-10,-30,
+        -30,-10, 30, 40, 40, 30,-10,-30,
+        -30,-10, 30, 40, 40, 30,-10,-30,
+        -30,-10, 20, 30, 30, 20,-10,-30,
+        -30,-30,  0,  0,  0,  0,-30,-30,
+        -50,-30,-30,-30,-30,-30,-30,-50
+    };
+
+    //tables by type, pawn, bishop, knight, rook, queen, king
+    private static final int[][] MIDDLEGAME_TABLES = {null, PAWN_MIDDLEGAME, BISHOP_TABLE, KNIGHT_TABLE,
+        ROOK_TABLE, QUEEN_TABLE, KING_MIDDLEGAME};
+    private static final int[][] ENDGAME_TABLES = {null, PAWN_ENDGAME, BISHOP_TABLE, KNIGHT_TABLE,
+        ROOK_TABLE, QUEEN_TABLE, KING_ENDGAME};
+
+    //material plus piece-square score of every piece code on every square, positive for white and
+    //negative for black, summed incrementally by Position as pieces are put and removed
+    static final int[][] MIDDLEGAME_SQUARES = new int[13][64];
+    static final int[][] ENDGAME_SQUARES = new int[13][64];
+    static final int[] PHASE = new int[13];
+
+    //mobility bonus per attacked square beyond a baseline, by type
+    private static final int[] MOBILITY_MIDDLEGAME = {0, 0, 5, 4, 2, 1, 0};
+    private static final int[] MOBILITY_ENDGAME = {0, 0, 5, 4, 4, 2, 0};
+    private static final int[] MOBILITY_BASELINE = {0, 0, 6, 4, 7, 13, 0};
+
+    //pawn structure, passed pawn bonuses are indexed by the rank relative to the pawn's side
+    private static final int DOUBLED_MIDDLEGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDDLEGAME = -10;
+    private static final int ISOLATED_ENDGAME = -15;
+    private static final int[] PASSED_MIDDLEGAME = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_ENDGAME = {0, 10, 20, 35, 55, 80, 110, 0};
+    private static final int[] FREE_PASSED_ENDGAME = {0, 0, 5, 10, 20, 35, 60, 0}; //the square in front is empty
+    private static final int KING_DISTANCE_ENDGAME = 3; //per rank, per square the kings are from the stop square
+
+    //king safety, only counted in the middlegame
+    private static final int SHIELD_BONUS = 10; //per friendly pawn in front of a castled king
+    private static final int[] ATTACK_UNITS = {0, 0, 2, 2, 3, 5, 0}; //per king zone attacker by type
+    private static final int MAX_KING_DANGER = 300;
+
+    private static final long[] FILES = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    private static final long[] WHITE_PASSED = new long[64]; //squares that must be free of black pawns
+    private static final long[] BLACK_PASSED = new long[64];
+
+    static {
+        for(int type = Position.PAWN; type <= Position.KING; type++) {
+            byte white = Position.pieceOf(type, true);
+            byte black = Position.pieceOf(type, false);
+            PHASE[white] = PHASE_VALUES[type];
+            PHASE[black] = PHASE_VALUES[type];
+            for(int square = 0; square < 64; square++) {
+                int index = (7 - Moves.row(square)) * 8 + Moves.col(square); //the table index of a white piece
+                int mirrored = square ^ 56; //the same square seen from black's side
+                MIDDLEGAME_SQUARES[white][square] = MIDDLEGAME_VALUES[type] + MIDDLEGAME_TABLES[type][index];
+                ENDGAME_SQUARES[white][square] = ENDGAME_VALUES[type] + ENDGAME_TABLES[type][index];
+                MIDDLEGAME_SQUARES[black][mirrored] = -MIDDLEGAME_SQUARES[white][square];
+                ENDGAME_SQUARES[black][mirrored] = -ENDGAME_SQUARES[white][square];
+            }
+        }
+        for(int col = 0; col < 8; col++) {
+            FILES[col] = 0x0101010101010101L << col;
+        }
+        for(int col = 0; col < 8; col++) {
+            ADJACENT_FILES[col] = (col > 0 ? FILES[col-1] : 0) | (col < 7 ? FILES[col+1] : 0);
+        }
+        for(int square = 0; square < 64; square++) {
+            int row = Moves.row(square);
+            int col = Moves.col(square);
+            long span = FILES[col] | ADJACENT_FILES[col];
+            long ahead = row < 7 ? -1L << ((row + 1) * 8) : 0; //every rank above the pawn
+            long behind = row > 0 ? -1L >>> ((8 - row) * 8) : 0; //every rank below the pawn
+            WHITE_PASSED[square] = span & ahead;
+            BLACK_PASSED[square] = span & behind;
+        }
+    }
+
+    private Evaluation() {}
+
+    /**
+     * Returns the value of a piece in centipawns
+     * @param piece, the piece code (either color)
+     * @return the value, 0 for an empty square or a king
+     */
+    public static int valueOf(byte piece) {
+        return PIECE_VALUES[Position.typeOf(piece)];
+    }
+
+    /**
+     * Evaluates a Position, the material and piece-square terms are read from the incrementally
+     * updated scores of the Position and the remaining terms are calculated from the bitboards
+     * @param position, the Position to evaluate
+     * @return the score from the point of view of the side to move
+     */
+    public static int evaluate(Position position) {
+        long white = position.getBitboard(Position.WHITE_PAWN);
+        long black = position.getBitboard(Position.BLACK_PAWN);
+        long whitePassed = passedPawns(white, black, true);
+        long blackPassed = passedPawns(black, white, false);
+        return evaluate(position, evaluatePawns(white, black, whitePassed, blackPassed), whitePassed, blackPassed);
+    }
+
+    /**
+     * Evaluates a Position, reading the pawn structure terms from a PawnTable
+     * @param position, the Position to evaluate
+     * @param pawnTable, the table caching the pawn structure of evaluated positions
+     * @return the score from the point of view of the side to move
+     */
+    public static int evaluate(Position position, PawnTable pawnTable) {
+        int index = pawnTable.probe(position);
+        return evaluate(position, pawnTable.getScores(index), pawnTable.getPassed(index, true),
+                pawnTable.getPassed(index, false));
+    }
+
+    private static int evaluate(Position position, long pawns, long whitePassed, long blackPassed) {
+        int middlegame = position.getMiddlegameScore();
+        int endgame = position.getEndgameScore();
+
+        middlegame += middlegame(pawns);
+        endgame += endgame(pawns) + evaluatePassedPawns(position, whitePassed, true)
+                - evaluatePassedPawns(position, blackPassed, false);
+
+        long mobility = evaluateMobility(position, true) - evaluateMobility(position, false);
+        middlegame += middlegame(mobility);
+        endgame += endgame(mobility);
+
+        middlegame += evaluateKingSafety(position, true) - evaluateKingSafety(position, false);
+
+        int score = taper(middlegame, endgame, position.getPhase());
+        return position.isWhiteToMove() ? score : -score;
+    }
+
+    /**
+     * Evaluates a Position from white's point of view, the score shown to the user
+     * @param position, the Position to evaluate
+     * @return the score for white in centipawns
+     */
+    public static int evaluateWhite(Position position) {
+        int score = evaluate(position);
+        return position.isWhiteToMove() ? score : -score;
+    }
+
+    /**
+     * Blends a middlegame and endgame score by the phase of the game
+     * @param middlegame, the middlegame score
+     * @param endgame, the endgame score
+     * @param phase, the phase, MAX_PHASE for the opening
+     * @return the tapered score
+     */
+    public static int taper(int middlegame, int endgame, int phase) {
+        phase = Math.min(phase, MAX_PHASE);
+        return (middlegame * phase + endgame * (MAX_PHASE - phase)) / MAX_PHASE;
+    }
+
+    /**
+     * Calculates the material and piece-square score of a Position over every square, the same
+     * score Position keeps up to date incrementally
+     * @param position, the Position to score
+     * @return the middlegame and endgame scores for white packed by pack
+     */
+    public static long computeMaterial(Position position) {
+        int middlegame = 0;
+        int endgame = 0;
+        for(int square = 0; square < 64; square++) {
+            byte piece = position.pieceAt(square);
+            middlegame += MIDDLEGAME_SQUARES[piece][square];
+            endgame += ENDGAME_SQUARES[piece][square];
+        }
+        return pack(middlegame, endgame);
+    }
+
+    /**
+     * Packs a middlegame and endgame score into one long
+     * @param middlegame, the middlegame score
+     * @param endgame, the endgame score
+     * @return the packed scores
+     */
+    public static long pack(int middlegame, int endgame) {
+        return ((long) endgame << 32) + middlegame;
+    }
+
+    public static int middlegame(long scores) {
+        return (int) scores;
+    }
+
+    public static int endgame(long scores) {
+        return (int) ((scores + 0x80000000L) >> 32);
+    }
+
+    /**
+     * Evaluates the pawn structure, doubled, isolated and passed pawns of both sides
+     * The score only depends on the pawns so it is cached by the PawnTable
+     * @param position, the Position to evaluate
+     * @return the packed scores for white
+     */
+    public static long evaluatePawns(Position position) {
+        long white = position.getBitboard(Position.WHITE_PAWN);
+        long black = position.getBitboard(Position.BLACK_PAWN);
+        return evaluatePawns(white, black, passedPawns(white, black, true), passedPawns(black, white, false));
+    }
+
+    static long evaluatePawns(long white, long black, long whitePassed, long blackPassed) {
+        return evaluatePawns(white, whitePassed, true) - evaluatePawns(black, blackPassed, false);
+    }
+
+    /**
+     * Finds the passed pawns of one side, pawns with no enemy pawn in front of them on their own
+     * or an adjacent file and no friendly pawn in front of them on their own file
+     * @param own, the pawns of the side
+     * @param enemy, the pawns of the other side
+     * @param white, the side
+     * @return the passed pawns as a bitboard
+     */
+    static long passedPawns(long own, long enemy, boolean white) {
+        long[] passedMasks = white ? WHITE_PASSED : BLACK_PASSED;
+        long passed = 0;
+        for(long pawns = own; pawns != 0; pawns &= pawns - 1) {
+            int square = Long.numberOfTrailingZeros(pawns);
+            if((passedMasks[square] & enemy) == 0 && (passedMasks[square] & FILES[Moves.col(square)] & own) == 0) {
+                passed |= 1L << square;
+            }
+        }
+        return passed;
+    }
+
+    private static long evaluatePawns(long own, long passed, boolean white) {
+        int middlegame = 0;
+        int endgame = 0;
+        for(int col = 0; col < 8; col++) {
+            int count = Long.bitCount(own & FILES[col]);
+            if(count > 1) {
+                middlegame += DOUBLED_MIDDLEGAME * (count - 1);
+                endgame += DOUBLED_ENDGAME * (count - 1);
+            }
+            if(count > 0 && (own & ADJACENT_FILES[col]) == 0) {
+                middlegame += ISOLATED_MIDDLEGAME * count;
+                endgame += ISOLATED_ENDGAME * count;
+            }
+        }
+        for(long pawns = passed; pawns != 0; pawns &= pawns - 1) {
+            int square = Long.numberOfTrailingZeros(pawns);
+            int rank = white ? Moves.row(square) : 7 - Moves.row(square);
+            middlegame += PASSED_MIDDLEGAME[rank];
+            endgame += PASSED_ENDGAME[rank];
+        }
+        return pack(middlegame, endgame);
+    }
+
+    /**
+     * Evaluates the passed pawns of one side against the other pieces, a passed pawn is stronger
+     * when the square in front of it is empty and when the enemy king is further from that square
+     * than the friendly king, only counted in the endgame
+     * @param position, the Position to evaluate
+     * @param passed, the passed pawns of the side
+     * @param white, the side
+     * @return the endgame score for the side
+     */
+    private static int evaluatePassedPawns(Position position, long passed, boolean white) {
+        int score = 0;
+        int ownKing = position.kingSquare(white);
+        int enemyKing = position.kingSquare(!white);
+        for(; passed != 0; passed &= passed - 1) {
+            int square = Long.numberOfTrailingZeros(passed);
+            int rank = white ? Moves.row(square) : 7 - Moves.row(square);
+            int stop = square + (white ? 8 : -8); //passed pawns are never on the last rank
+            if(position.pieceAt(stop) == Position.EMPTY) {
+                score += FREE_PASSED_ENDGAME[rank];
+            }
+            score += KING_DISTANCE_ENDGAME * rank * (distance(enemyKing, stop) - distance(ownKing, stop));
+        }
+        return score;
+    }
+
+    private static int distance(int from, int to) {
+        return Math.max(Math.abs(Moves.row(from) - Moves.row(to)), Math.abs(Moves.col(from) - Moves.col(to)));
+    }
+
+    /**
+     * Evaluates the mobility of the minor and major pieces of one side, counting the attacked
+     * squares not occupied by friendly pieces or attacked by enemy pawns
+     * @param position, the Position to evaluate
+     * @param white, the side to evaluate
+     * @return the packed scores for the side
+     */
+    private static long evaluateMobility(Position position, boolean white) {
+        long occupied = position.getOccupancy();
+        long enemyPawns = position.getBitboard(Position.pieceOf(Position.PAWN, !white));
+        long pawnAttacks = 0;
+        for(long pawns = enemyPawns; pawns != 0; pawns &= pawns - 1) {
+            pawnAttacks |= Attacks.pawnAttacks(Long.numberOfTrailingZeros(pawns), !white);
+        }
+        long available = ~position.getPieces(white) & ~pawnAttacks;
+
+        int middlegame = 0;
+        int endgame = 0;
+        for(int type = Position.BISHOP; type <= Position.QUEEN; type++) {
+            for(long pieces = position.getBitboard(Position.pieceOf(type, white)); pieces != 0; pieces &= pieces - 1) {
+                int square = Long.numberOfTrailingZeros(pieces);
+                int count = Long.bitCount(attacks(type, square, occupied) & available) - MOBILITY_BASELINE[type];
+                middlegame += MOBILITY_MIDDLEGAME[type] * count;
+                endgame += MOBILITY_ENDGAME[type] * count;
+            }
+        }
+        return pack(middlegame, endgame);
+    }
+
+    /**
+     * Evaluates the safety of one side's king by its pawn shield and the enemy pieces attacking
+     * the squares around it, only counted in the middlegame
+     * @param position, the Position to evaluate
+     * @param white, the side of the king
+     * @return the middlegame score for the side
+     */
+    private static int evaluateKingSafety(Position position, boolean white) {
+        int king = position.kingSquare(white);
+        int row = Moves.row(king);
+        int col = Moves.col(king);
+        int score = 0;
+
+        //a king on its back rank away from the center is sheltered by the pawns in front of it
+        if(row == (white ? 0 : 7) && col != 3 && col != 4) {
+            long front = FILES[col] | ADJACENT_FILES[col];
+            long shieldRanks = white ? 0xFFFF00L : 0xFFFF0000000000L; //the two ranks in front of the king
+            long shield = position.getBitboard(Position.pieceOf(Position.PAWN, white)) & front & shieldRanks;
+            score += SHIELD_BONUS * Math.min(Long.bitCount(shield), 3);
+        }
+
+        long zone = Attacks.kingAttacks(king) | (1L << king);
+        long occupied = position.getOccupancy();
+        int attackers = 0;
+        int units = 0;
+        for(int type = Position.BISHOP; type <= Position.QUEEN; type++) {
+            for(long pieces = position.getBitboard(Position.pieceOf(type, !white)); pieces != 0; pieces &= pieces - 1) {
+                long hits = attacks(type, Long.numberOfTrailingZeros(pieces), occupied) & zone;
+                if(hits != 0) {
+                    attackers++;
+                    units += ATTACK_UNITS[type] * Long.bitCount(hits);
+                }
+            }
+        }
+        if(attackers >= 2) { //a single attacker is rarely dangerous
+            score -= Math.min(units * units / 2, MAX_KING_DANGER);
+        }
+        return score;
+    }
+
+    private static long attacks(int type, int square, long occupied) {
+        switch(type) {
+            case Position.BISHOP:
+                return Attacks.bishopAttacks(square, occupied);
+            case Position.KNIGHT:
+                return Attacks.knightAttacks(square);
+            case Position.ROOK:
+                return Attacks.rookAttacks(square, occupied);
+            case Position.QUEEN:
+                return Attacks.queenAttacks(square, occupied);
+            default:
+                return 0;
+        }
+    }
+}
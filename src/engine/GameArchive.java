@@ -0,0 +1,285 @@
+/*
+ * Memory-mapped reader of the compact binary game archives written by GameArchiveWriter
+ * Opening only maps the file and reads its footer, any game is then decoded by index without reading the others
+ * 10/17/26
+ */
+package engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Random;
+
+/**
+ * File layout, numbers big-endian, varints unsigned LEB128:
+ *   header: magic, version (int each)
+ *   records: per game a flags byte (result code, HAS_FEN), the start FEN if flagged, a varint tag count
+ *            and per tag its name (a varint, TAG_NAMES index + 1 or 0 followed by the name) and value, strings
+ *            are varint length prefixed UTF-8, then a varint ply count and one byte per ply
+ *            holding the move's index in Position.generateMoves
+ *   index: the offset of each record (long each)
+ *   footer: offset of the index (long), game count, magic (int each)
+ *
+ * @author Joseph
+ */
+public final class GameArchive implements Closeable {
+
+    public static final int MAGIC = 0x434C4741; //CLGA
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 8;
+    public static final int FOOTER_SIZE = 16;
+    public static final int MAX_RECORD = 1 << 20; //segments overlap by this much so no record is split between two
+    public static final String[] RESULTS = {"*", "1-0", "0-1", "1/2-1/2"}; //indexed by result code
+    public static final int HAS_FEN = 4; //flag bit above the result code
+    public static final String[] TAG_NAMES = {"Event", "Site", "Date", "Round", "White", "Black", "Result", //stored as their index + 1
+        "WhiteElo", "BlackElo", "ECO", "Opening", "Variation", "TimeControl", "Termination", "SetUp", "Annotator",
+        "PlyCount", "EventDate", "WhiteTitle", "BlackTitle", "UTCDate", "UTCTime", "Variant", "Time", "Mode"};
+
+    private static final long SEGMENT_SIZE = 1L << 30; //a MappedByteBuffer holds at most 2 GB
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long indexOffset;
+    private final int count;
+
+    private GameArchive(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        if(size < HEADER_SIZE + FOOTER_SIZE) {
+            throw new IOException("Not a game archive, too short");
+        }
+        segments = new MappedByteBuffer[(int) ((size - 1) / SEGMENT_SIZE) + 1];
+        for(int i = 0; i < segments.length; i++) {
+            long start = i * SEGMENT_SIZE;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE + MAX_RECORD, size - start));
+        }
+        if(readInt(0) != MAGIC || readInt(size - 4) != MAGIC) {
+            throw new IOException("Not a game archive, bad magic number");
+        }
+        if(readInt(4) != VERSION) {
+            throw new IOException("Unsupported game archive version " + readInt(4));
+        }
+        indexOffset = readLong(size - FOOTER_SIZE);
+        count = readInt(size - 8);
+        if(count < 0 || indexOffset < HEADER_SIZE || indexOffset + count * 8L != size - FOOTER_SIZE) {
+            throw new IOException("Corrupt game archive footer");
+        }
+    }
+
+    /**
+     * Opens a game archive by mapping it into memory
+     * @param path, the archive file
+     * @return the GameArchive
+     * @throws IOException if the file cannot be mapped or is not a game archive
+     */
+    public static GameArchive open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new GameArchive(channel);
+        } catch(IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Decodes a game
+     * @param index, the game's index, in the order the games were written
+     * @return the game
+     */
+    public PGNGame get(int index) {
+        long offset = recordOffset(index);
+        Cursor cursor = new Cursor(offset);
+        int flags = cursor.readByte();
+        String fen = (flags & HAS_FEN) != 0 ? cursor.readString() : null;
+        int tagCount = cursor.readVarint();
+        LinkedHashMap<String, String> tags = new LinkedHashMap<>();
+        for(int i = 0; i < tagCount; i++) {
+            int name = cursor.readVarint();
+            tags.put(name == 0 ? cursor.readString() : TAG_NAMES[name - 1], cursor.readString());
+        }
+        if(fen != null) {
+            tags.put("FEN", fen);
+        }
+        int[] moves = decodeMoves(cursor, fen);
+        return new PGNGame(tags, fen, moves, RESULTS[flags & 3]);
+    }
+
+    /**
+     * Decodes only the moves of a game, skipping its tags
+     * @param index, the game's index
+     * @return the packed moves
+     */
+    public int[] getMoves(int index) {
+        Cursor cursor = new Cursor(recordOffset(index));
+        int flags = cursor.readByte();
+        String fen = (flags & HAS_FEN) != 0 ? cursor.readString() : null;
+        cursor.skipTags();
+        return decodeMoves(cursor, fen);
+    }
+
+    /**
+     * Returns the number of plies of a game without decoding its moves
+     * @param index, the game's index
+     * @return the ply count
+     */
+    public int getPlyCount(int index) {
+        Cursor cursor = new Cursor(recordOffset(index));
+        int flags = cursor.readByte();
+        if((flags & HAS_FEN) != 0) {
+            cursor.skipString();
+        }
+        cursor.skipTags();
+        return cursor.readVarint();
+    }
+
+    public String getResult(int index) {
+        return RESULTS[byteAt(recordOffset(index)) & 3];
+    }
+
+    private int[] decodeMoves(Cursor cursor, String fen) {
+        Position position = fen == null ? Position.initial() : Position.fromFEN(fen);
+        MoveList list = new MoveList();
+        int[] moves = new int[cursor.readVarint()];
+        for(int i = 0; i < moves.length; i++) {
+            position.generateMoves(list);
+            int move = cursor.readByte();
+            if(move >= list.size()) {
+                throw new IllegalStateException("Corrupt game record, move index " + move + " of " + list.size());
+            }
+            moves[i] = list.get(move);
+            position.makeMove(moves[i]);
+        }
+        return moves;
+    }
+
+    private long recordOffset(int index) {
+        if(index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Game " + index + " of " + count);
+        }
+        return readLong(indexOffset + index * 8L);
+    }
+
+    /**
+     * Reads a byte, a value read at an offset lies within the segment the offset starts in thanks to the overlap
+     */
+    private int byteAt(long offset) {
+        return segments[(int) (offset / SEGMENT_SIZE)].get((int) (offset % SEGMENT_SIZE)) & 0xFF;
+    }
+
+    private int readInt(long offset) {
+        return segments[(int) (offset / SEGMENT_SIZE)].getInt((int) (offset % SEGMENT_SIZE));
+    }
+
+    private long readLong(long offset) {
+        return segments[(int) (offset / SEGMENT_SIZE)].getLong((int) (offset % SEGMENT_SIZE));
+    }
+
+    /**
+     * Reads a game record from its start, confined to the segment the record starts in
+     */
+    private final class Cursor {
+        private final MappedByteBuffer segment;
+        private int position;
+
+        Cursor(long offset) {
+            segment = segments[(int) (offset / SEGMENT_SIZE)];
+            position = (int) (offset % SEGMENT_SIZE);
+        }
+
+        int readByte() {
+            return segment.get(position++) & 0xFF;
+        }
+
+        int readVarint() {
+            int value = 0;
+            for(int shift = 0; ; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if(b < 0x80) {
+                    return value;
+                }
+            }
+        }
+
+        String readString() {
+            byte[] bytes = new byte[readVarint()];
+            for(int i = 0; i < bytes.length; i++) {
+                bytes[i] = segment.get(position++);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        void skipTags() {
+            int tagCount = readVarint();
+            for(int i = 0; i < tagCount; i++) {
+                if(readVarint() == 0) {
+                    skipString();
+                }
+                skipString();
+            }
+        }
+
+        void skipString() {
+            int length = readVarint();
+            position += length;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close(); //the mappings stay valid until they are garbage collected
+    }
+
+    /**
+     * Packs a PGN file into an archive, or prints the size and decoding speed of an archive
+     * Usage: GameArchive pack file.pgn file.cla | GameArchive info file.cla
+     * @param args, the command and files
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length == 3 && args[0].equals("pack")) {
+            long start = System.nanoTime();
+            long plies = 0;
+            try(PGNImport in = PGNImport.open(Paths.get(args[1]), Runtime.getRuntime().availableProcessors());
+                    GameArchiveWriter out = new GameArchiveWriter(Paths.get(args[2]))) {
+                PGNGame game;
+                while((game = in.next()) != null) {
+                    out.add(game);
+                    plies += game.getPlyCount();
+                }
+                System.out.printf("games %d plies %d skipped %d, %.1f MB PGN to %.1f MB (%.1f%%, %.2f bytes/ply) in %.2f s%n",
+                        out.getCount(), plies, in.getSkipped(), in.getBytes() / 1e6, out.getBytes() / 1e6,
+                        100.0 * out.getBytes() / Math.max(in.getBytes(), 1), (double) out.getBytes() / Math.max(plies, 1),
+                        (System.nanoTime() - start) / 1e9);
+            }
+        } else if(args.length == 2 && args[0].equals("info")) {
+            long start = System.nanoTime();
+            try(GameArchive archive = open(Paths.get(args[1]))) {
+                double openMillis = (System.nanoTime() - start) / 1e6;
+                int samples = Math.min(archive.size(), 10000);
+                Random random = new Random(0);
+                long plies = 0;
+                start = System.nanoTime();
+                for(int i = 0; i < samples; i++) {
+                    plies += archive.getMoves(random.nextInt(archive.size())).length;
+                }
+                double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+                System.out.printf("games %d, opened in %.2f ms, %d random games decoded at %.0f games/s (%.0f plies/s)%n",
+                        archive.size(), openMillis, samples, samples / seconds, plies / seconds);
+            }
+        } else {
+            System.out.println("Usage: GameArchive pack file.pgn file.cla | GameArchive info file.cla");
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Writes games to a compact binary archive read back by GameArchive
+ * Each ply is stored as one byte, its index in the legal move list generated for the position it is played in
+ * 10/17/26
+ */
+package engine;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class GameArchiveWriter implements Closeable {
+
+    private static final HashMap<String, Integer> TAG_CODES = new HashMap<>(); //GameArchive.TAG_NAMES index + 1
+
+    static {
+        for(int i = 0; i < GameArchive.TAG_NAMES.length; i++) {
+            TAG_CODES.put(GameArchive.TAG_NAMES[i], i + 1);
+        }
+    }
+
+    private final DataOutputStream out;
+    private long offset; //bytes written so far
+    private long[] index = new long[1024]; //offset of each game record
+    private int count;
+
+    //reused for every game
+    private final Position position = new Position();
+    private final MoveList list = new MoveList();
+    private byte[] record = new byte[256];
+    private int length;
+
+    public GameArchiveWriter(Path path) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+        out.writeInt(GameArchive.MAGIC);
+        out.writeInt(GameArchive.VERSION);
+        offset = GameArchive.HEADER_SIZE;
+    }
+
+    /**
+     * Appends a game read from PGN
+     * @param game, the game
+     * @throws IOException if the archive cannot be written
+     */
+    public void add(PGNGame game) throws IOException {
+        add(game.getTags(), game.getStartFEN(), game.getMoves(), game.getResult());
+    }
+
+    /**
+     * Appends a game
+     * @param tags, the tag pairs, a FEN tag is not stored twice
+     * @param startFEN, the FEN the game starts from, null for the standard starting position
+     * @param moves, the packed moves, each legal in the position it is played in
+     * @param result, 1-0, 0-1, 1/2-1/2 or *
+     * @throws IOException if the archive cannot be written
+     * @throws IllegalArgumentException if a move is illegal or the record is larger than GameArchive.MAX_RECORD
+     */
+    public void add(Map<String, String> tags, String startFEN, int[] moves, String result) throws IOException {
+        length = 0;
+        int resultCode = Arrays.asList(GameArchive.RESULTS).indexOf(result);
+        if(resultCode < 0) {
+            throw new IllegalArgumentException("Bad result " + result);
+        }
+        writeByte(resultCode | (startFEN != null ? GameArchive.HAS_FEN : 0));
+        if(startFEN != null) {
+            writeString(startFEN);
+            position.setFEN(startFEN);
+        } else {
+            position.setFEN(Perft.START_FEN);
+        }
+        int tagCount = tags.size() - (startFEN != null && tags.containsKey("FEN") ? 1 : 0);
+        writeVarint(tagCount);
+        for(Map.Entry<String, String> tag : tags.entrySet()) {
+            if(startFEN == null || !tag.getKey().equals("FEN")) {
+                Integer name = TAG_CODES.get(tag.getKey());
+                if(name != null) {
+                    writeVarint(name);
+                } else {
+                    writeVarint(0);
+                    writeString(tag.getKey());
+                }
+                writeString(tag.getValue());
+            }
+        }
+        writeVarint(moves.length);
+        for(int move : moves) {
+            position.generateMoves(list);
+            int i = 0;
+            while(i < list.size() && list.get(i) != move) {
+                i++;
+            }
+            if(i == list.size()) {
+                throw new IllegalArgumentException("Illegal move " + Moves.toUCI(move) + " in " + position.toFEN());
+            }
+            writeByte(i); //fewer than 256 legal moves in any position
+            position.makeMove(move);
+        }
+        if(length > GameArchive.MAX_RECORD) {
+            throw new IllegalArgumentException("Game record of " + length + " bytes is too large");
+        }
+
+        if(count == index.length) {
+            index = Arrays.copyOf(index, count * 2);
+        }
+        index[count++] = offset;
+        out.write(record, 0, length);
+        offset += length;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the bytes written so far, the index and footer written by close are not included
+     * @return the number of bytes
+     */
+    public long getBytes() {
+        return offset;
+    }
+
+    /**
+     * Writes the index and footer and closes the archive
+     * @throws IOException if the archive cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            long indexOffset = offset;
+            for(int i = 0; i < count; i++) {
+                out.writeLong(index[i]);
+            }
+            out.writeLong(indexOffset);
+            out.writeInt(count);
+            out.writeInt(GameArchive.MAGIC);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeByte(int b) {
+        if(length == record.length) {
+            record = Arrays.copyOf(record, length * 2);
+        }
+        record[length++] = (byte) b;
+    }
+
+    private void writeVarint(int value) {
+        while((value & ~0x7F) != 0) {
+            writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte(value);
+    }
+
+    private void writeString(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        for(byte b : bytes) {
+            writeByte(b);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * A fixed capacity list of packed integer moves
+ * 10/17/26
+ */
+package engine;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class MoveList {
+
+    public static final int CAPACITY = 256; //no legal chess position has more than 218 moves
+
+    private final int[] moves = new int[CAPACITY];
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Shrinks the list to its first moves
+     * @param newSize, the number of moves to keep
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    /**
+     * Returns whether or not the list contains a move
+     * @param move, the move to look for
+     * @return true if the move is in the list
+     */
+    public boolean contains(int move) {
+        for(int i = 0; i < size; i++) {
+            if(moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
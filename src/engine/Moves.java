@@ -0,0 +1,138 @@
+/*
+ * Static helpers for the packed integer move encoding used by the headless Position
+ * 10/17/26
+ */
+package engine;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class Moves {
+
+    /*
+     * Move layout (low bit first):
+     * bits 0-5   - from square (row*8 + col)
+     * bits 6-11  - to square
+     * bits 12-15 - flag
+     */
+
+    public static final int NONE = 0; //never a legal move, from and to are the same square
+
+    public static final int QUIET = 0; //move flags
+    public static final int DOUBLE_PAWN_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 8; //promotion flags are 8 + piece offset, +4 for a capture
+    public static final int KNIGHT_PROMOTION = 8;
+    public static final int BISHOP_PROMOTION = 9;
+    public static final int ROOK_PROMOTION = 10;
+    public static final int QUEEN_PROMOTION = 11;
+    public static final int KNIGHT_PROMOTION_CAPTURE = 12;
+    public static final int BISHOP_PROMOTION_CAPTURE = 13;
+    public static final int ROOK_PROMOTION_CAPTURE = 14;
+    public static final int QUEEN_PROMOTION_CAPTURE = 15;
+
+    public static final String[] NUMBER_TO_LETTER_TABLE = {"a","b","c","d","e","f","g","h"};
+    private static final byte[] PROMOTION_TO_WHITE_PIECE = {Position.WHITE_KNIGHT, Position.WHITE_BISHOP,
+        Position.WHITE_ROOK, Position.WHITE_QUEEN};
+    private static final String[] PROMOTION_TO_UCI = {"n","b","r","q"};
+
+    private Moves() {}
+
+    public static int create(int from, int to, int flag) {
+        return from | (to << 6) | (flag << 12);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int flag(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static boolean isCapture(int move) {
+        int flag = flag(move);
+        return flag == CAPTURE || flag == EN_PASSANT || flag >= KNIGHT_PROMOTION_CAPTURE;
+    }
+
+    public static boolean isPromotion(int move) {
+        return flag(move) >= PROMOTION;
+    }
+
+    public static boolean isCastle(int move) {
+        int flag = flag(move);
+        return flag == KING_CASTLE || flag == QUEEN_CASTLE;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return flag(move) == EN_PASSANT;
+    }
+
+    /**
+     * Returns the piece a promotion move promotes to
+     * @param move, the promotion move
+     * @param white, the side making the move
+     * @return piece code of the promoted piece
+     */
+    public static byte promotionPiece(int move, boolean white) {
+        byte piece = PROMOTION_TO_WHITE_PIECE[flag(move) & 3];
+        return white ? piece : (byte) (piece + Position.BLACK_PAWN - Position.WHITE_PAWN);
+    }
+
+    /**
+     * Returns the promotion flag (without capture) used to promote to a given piece
+     * @param piece, piece code of the piece to promote to (either color)
+     * @return the promotion flag or QUIET if the piece cannot be promoted to
+     */
+    public static int promotionFlag(byte piece) {
+        switch(Position.typeOf(piece)) {
+            case Position.KNIGHT: return KNIGHT_PROMOTION;
+            case Position.BISHOP: return BISHOP_PROMOTION;
+            case Position.ROOK: return ROOK_PROMOTION;
+            case Position.QUEEN: return QUEEN_PROMOTION;
+            default: return QUIET;
+        }
+    }
+
+    public static int row(int square) {
+        return square >> 3;
+    }
+
+    public static int col(int square) {
+        return square & 7;
+    }
+
+    public static int square(int row, int col) {
+        return (row << 3) | col;
+    }
+
+    /**
+     * Returns the coordinate notation for a square such as e4
+     * @param square, the square
+     * @return the notation
+     */
+    public static String squareName(int square) {
+        return NUMBER_TO_LETTER_TABLE[col(square)] + (row(square) + 1);
+    }
+
+    /**
+     * Returns the long algebraic (UCI) notation for a move such as e7e8q
+     * @param move, the move
+     * @return notation as a string
+     */
+    public static String toUCI(int move) {
+        String str = squareName(from(move)) + squareName(to(move));
+        if(isPromotion(move)) {
+            str = str + PROMOTION_TO_UCI[flag(move) & 3];
+        }
+        return str;
+    }
+}
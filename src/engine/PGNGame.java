@@ -0,0 +1,68 @@
+/*
+ * One game read from a PGN file, its tag pairs and its moves as packed integers
+ * 10/17/26
+ */
+package engine;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class PGNGame {
+
+    private final Map<String, String> tags; //in the order they appear in the file
+    private final String startFEN; //null for the standard starting position
+    private final int[] moves;
+    private final String result;
+
+    public PGNGame(Map<String, String> tags, String startFEN, int[] moves, String result) {
+        this.tags = Collections.unmodifiableMap(tags);
+        this.startFEN = startFEN;
+        this.moves = moves;
+        this.result = result;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    /**
+     * Returns the value of a tag pair such as White or Event
+     * @param name, the tag name
+     * @return the value, or null if the game has no such tag
+     */
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    public String getStartFEN() {
+        return startFEN;
+    }
+
+    /**
+     * Constructs the Position the game starts from
+     * @return a new Position
+     */
+    public Position getStartPosition() {
+        return startFEN == null ? Position.initial() : Position.fromFEN(startFEN);
+    }
+
+    public int[] getMoves() {
+        return moves;
+    }
+
+    public int getPlyCount() {
+        return moves.length;
+    }
+
+    /**
+     * Returns the game termination marker
+     * @return 1-0, 0-1, 1/2-1/2 or * for an unfinished game
+     */
+    public String getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Imports a PGN database on several threads
+ * The input is cut into chunks of whole games which are decoded by a PGNReader each on a fork-join pool,
+ * games are handed back in input order and only a bounded number of chunks are in flight at once
+ * 10/17/26
+ */
+package engine;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class PGNImport implements Closeable {
+
+    public static final int CHUNK_SIZE = 1 << 20; //bytes of games decoded per task, rounded up to the next game
+    public static final int CHUNKS_PER_THREAD = 4; //chunks in flight per thread before splitting waits
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(PGNReader.BUFFER_SIZE);
+    private final ForkJoinPool pool;
+    private final int maxInFlight;
+    private final ArrayDeque<ForkJoinTask<Chunk>> inFlight = new ArrayDeque<>(); //oldest chunk first
+
+    //splitting state, carried from one chunk to the next
+    private byte[] chunk = new byte[CHUNK_SIZE + PGNReader.BUFFER_SIZE];
+    private boolean exhausted;
+    private boolean lineStart = true;
+    private boolean movetext; //movetext has been seen since the last cut
+    private boolean comment; //inside a {comment}
+    private boolean lineComment; //inside a ;comment or % line
+
+    private ArrayList<PGNGame> games = new ArrayList<>(); //games of the chunk being handed out
+    private int index;
+
+    private long gameCount;
+    private long skipped;
+    private long plyCount;
+    private long bytes;
+    private final long startTime = System.nanoTime();
+
+    /**
+     * The games decoded from one chunk
+     */
+    private static final class Chunk {
+        final ArrayList<PGNGame> games = new ArrayList<>();
+        long skipped;
+    }
+
+    public PGNImport(ReadableByteChannel channel, int threads) {
+        if(threads < 1) {
+            throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+        }
+        this.channel = channel;
+        pool = new ForkJoinPool(threads);
+        maxInFlight = threads * CHUNKS_PER_THREAD;
+        buffer.flip(); //starts empty
+    }
+
+    public PGNImport(InputStream in, int threads) {
+        this(Channels.newChannel(in), threads);
+    }
+
+    /**
+     * Opens a PGN file for importing
+     * @param path, the file
+     * @param threads, the number of decoding threads
+     * @return a PGNImport over the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static PGNImport open(Path path, int threads) throws IOException {
+        return new PGNImport(FileChannel.open(path, StandardOpenOption.READ), threads);
+    }
+
+    /**
+     * Returns the next game in input order
+     * Splitting runs on the calling thread and stops while the most chunks are in flight,
+     * so memory is bounded by the chunks waiting to be handed out
+     * @return the game, or null at the end of the input
+     * @throws IOException if the input cannot be read or a chunk fails to decode
+     */
+    public PGNGame next() throws IOException {
+        while(index == games.size()) {
+            while(!exhausted && inFlight.size() < maxInFlight) {
+                byte[] text = split();
+                if(text.length > 0) {
+                    inFlight.addLast(pool.submit(() -> decode(text)));
+                }
+            }
+            if(inFlight.isEmpty()) {
+                return null;
+            }
+            Chunk decoded = join(inFlight.removeFirst());
+            games = decoded.games;
+            index = 0;
+            skipped += decoded.skipped;
+        }
+        PGNGame game = games.get(index);
+        games.set(index++, null); //handed out, not kept alive by the chunk
+        gameCount++;
+        plyCount += game.getPlyCount();
+        return game;
+    }
+
+    private static Chunk decode(byte[] text) throws IOException {
+        Chunk chunk = new Chunk();
+        try(PGNReader reader = new PGNReader(new ByteArrayInputStream(text))) {
+            PGNGame game;
+            while((game = reader.next()) != null) {
+                chunk.games.add(game);
+            }
+            chunk.skipped = reader.getSkipped();
+        }
+        return chunk;
+    }
+
+    private static Chunk join(ForkJoinTask<Chunk> task) throws IOException {
+        try {
+            return task.get();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while importing", e);
+        } catch(ExecutionException e) {
+            throw new IOException("Failed to decode PGN", e.getCause());
+        }
+    }
+
+    /**
+     * Reads the next chunk of whole games
+     * A chunk is cut at the first tag line following movetext once it holds CHUNK_SIZE bytes,
+     * brackets inside comments are not mistaken for tags
+     * @return the bytes of the chunk, empty at the end of the input
+     */
+    private byte[] split() throws IOException {
+        byte[] in = buffer.array();
+        int length = 0;
+        while(true) {
+            if(!buffer.hasRemaining()) {
+                buffer.clear();
+                int n;
+                do {
+                    n = channel.read(buffer);
+                } while(n == 0);
+                buffer.flip();
+                if(n < 0) {
+                    exhausted = true;
+                    break;
+                }
+                bytes += n;
+            }
+            int i = buffer.position();
+            int limit = buffer.limit();
+            boolean cut = false;
+            for(; i < limit; i++) {
+                byte c = in[i];
+                if(c == '\n') {
+                    lineComment = false;
+                    lineStart = true;
+                } else if(comment) {
+                    comment = c != '}';
+                } else if(lineComment) {
+                    continue;
+                } else if(c == '{') {
+                    comment = true;
+                    lineStart = false;
+                } else if(c == ';') {
+                    lineComment = true;
+                } else if(lineStart && c > ' ') {
+                    lineStart = false;
+                    if(c == '[') {
+                        cut = movetext && length + i - buffer.position() >= CHUNK_SIZE;
+                        movetext = false;
+                        if(cut) {
+                            break; //the '[' starts the next chunk
+                        }
+                    } else if(c == '%') {
+                        lineComment = true;
+                    } else {
+                        movetext = true;
+                    }
+                }
+            }
+            int n = i - buffer.position();
+            if(length + n > chunk.length) {
+                chunk = Arrays.copyOf(chunk, Math.max(chunk.length * 2, length + n));
+            }
+            System.arraycopy(in, buffer.position(), chunk, length, n);
+            length += n;
+            buffer.position(i);
+            if(cut) {
+                break;
+            }
+        }
+        return Arrays.copyOf(chunk, length);
+    }
+
+    public long getGames() {
+        return gameCount;
+    }
+
+    /**
+     * Returns the number of malformed games skipped in the chunks handed out so far
+     * @return the number of skipped games
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public long getPlies() {
+        return plyCount;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public int getThreads() {
+        return pool.getParallelism();
+    }
+
+    public double getGamesPerSecond() {
+        return gameCount / getSeconds();
+    }
+
+    public double getBytesPerSecond() {
+        return bytes / getSeconds();
+    }
+
+    /**
+     * Returns the seconds since the PGNImport was constructed
+     * @return the elapsed seconds
+     */
+    public double getSeconds() {
+        return Math.max(System.nanoTime() - startTime, 1) / 1e9;
+    }
+
+    @Override
+    public void close() throws IOException {
+        pool.shutdownNow();
+        channel.close();
+    }
+
+    /**
+     * Imports every game of a PGN file and prints the throughput
+     * Usage: PGNImport [-threads n] file.pgn, the threads default to every processor
+     * @param args, the options and the file
+     * @throws IOException if the file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int i = 0;
+        if(args.length > 1 && args[0].equals("-threads")) {
+            threads = Integer.parseInt(args[1]);
+            i = 2;
+        }
+        if(i >= args.length) {
+            System.out.println("Usage: PGNImport [-threads n] file.pgn");
+            return;
+        }
+        try(PGNImport in = open(Paths.get(args[i]), threads)) {
+            while(in.next() != null) {
+                //only counted
+            }
+            System.out.printf("threads %d games %d plies %d skipped %d %.1f MB %.2f s %.0f games/s %.1f MB/s%n",
+                    in.getThreads(), in.getGames(), in.getPlies(), in.getSkipped(), in.getBytes() / 1e6,
+                    in.getSeconds(), in.getGamesPerSecond(), in.getBytesPerSecond() / 1e6);
+        }
+    }
+}
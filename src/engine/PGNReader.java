@@ -0,0 +1,370 @@
+/*
+ * Streams games out of a PGN file one at a time so that databases of any size can be read in bounded memory
+ * Bytes are pulled through one reused buffer and every SAN move is resolved against a Position as it is read
+ * 10/17/26
+ */
+package engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class PGNReader implements Closeable {
+
+    public static final int BUFFER_SIZE = 1 << 16;
+    public static final int MAX_TOKEN = 1024; //longer tags or moves mark the game malformed instead of growing the buffers
+
+    private static final int EOF = -1;
+    private static final int NONE = -2; //nothing pushed back
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private int pushed = NONE;
+
+    //reused for every game
+    private final StringBuilder token = new StringBuilder();
+    private final byte[] text = new byte[MAX_TOKEN];
+    private final MoveList list = new MoveList();
+    private int[] plies = new int[256];
+
+    private boolean malformed;
+    private long games;
+    private long skipped;
+    private long plyCount;
+    private long bytes;
+    private final long startTime = System.nanoTime();
+
+    public PGNReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.flip(); //starts empty
+    }
+
+    public PGNReader(InputStream in) {
+        this(Channels.newChannel(in));
+    }
+
+    /**
+     * Opens a PGN file for reading
+     * @param path, the file
+     * @return a PGNReader over the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static PGNReader open(Path path) throws IOException {
+        return new PGNReader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * Reads the next game
+     * Games with an illegal or unreadable move or a bad FEN tag are skipped and counted, see getSkipped
+     * A game cut off by the end of the input or by the tags of the next game ends with result *
+     * @return the game, or null at the end of the input
+     * @throws IOException if the input cannot be read
+     */
+    public PGNGame next() throws IOException {
+        while(true) {
+            int c = skipWhitespace();
+            if(c == EOF) {
+                return null;
+            }
+            malformed = false;
+            LinkedHashMap<String, String> tags = new LinkedHashMap<>();
+            while(c == '[') {
+                readTag(tags);
+                c = skipWhitespace();
+            }
+
+            String fen = tags.get("FEN");
+            Position position = null;
+            try {
+                position = fen == null ? Position.initial() : Position.fromFEN(fen);
+            } catch(IllegalArgumentException e) {
+                malformed = true;
+            }
+
+            int count = 0;
+            String result = null; //null until a termination marker is read
+            while(c != EOF) {
+                if(c == '[') {
+                    pushed = c; //the next game's tags
+                    break;
+                } else if(c == '{') {
+                    skipUntil('}');
+                } else if(c == ';' || c == '%') {
+                    skipUntil('\n');
+                } else if(c == '(') {
+                    skipVariation();
+                } else if(c == ')' || c == '}') {
+                    malformed = true;
+                } else {
+                    readToken(c);
+                    String end = result(token);
+                    if(end != null) {
+                        result = end;
+                        break;
+                    }
+                    int start = skipMoveNumber(token);
+                    if(!malformed && start < token.length() && token.charAt(0) != '$' && !"e.p.".contentEquals(token)) {
+                        token.delete(0, start);
+                        int move = SAN.parse(position, token, list);
+                        if(move == Moves.NONE) {
+                            malformed = true;
+                        } else {
+                            position.makeMove(move);
+                            if(count == plies.length) {
+                                plies = Arrays.copyOf(plies, count * 2);
+                            }
+                            plies[count++] = move;
+                        }
+                    }
+                }
+                c = skipWhitespace();
+            }
+
+            if(malformed) {
+                skipped++;
+                continue;
+            }
+            if(result == null) {
+                if(tags.isEmpty() && count == 0) {
+                    continue; //only comments between games
+                }
+                result = "*";
+            }
+            games++;
+            plyCount += count;
+            return new PGNGame(tags, fen, Arrays.copyOf(plies, count), result);
+        }
+    }
+
+    /**
+     * Reads a tag pair such as [White "Carlsen, Magnus"], the opening bracket already read
+     */
+    private void readTag(LinkedHashMap<String, String> tags) throws IOException {
+        int c = skipWhitespace();
+        token.setLength(0);
+        while(c > ' ' && c != '"' && c != ']') {
+            append(c);
+            c = read();
+        }
+        String name = token.toString();
+        while(c == ' ' || c == '\t') {
+            c = read();
+        }
+        if(c != '"' || name.isEmpty()) {
+            malformed = true;
+            if(c != ']' && c != '\n') {
+                skipUntil(']');
+            }
+            return;
+        }
+        int length = 0;
+        for(c = read(); c != '"' && c != EOF && c != '\n'; c = read()) {
+            if(c == '\\') {
+                c = read(); //escaped quote or backslash
+            }
+            if(length == text.length) {
+                malformed = true;
+            } else {
+                text[length++] = (byte) c;
+            }
+        }
+        if(c != '"') {
+            malformed = true;
+            return;
+        }
+        skipUntil(']');
+        tags.put(name, new String(text, 0, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a movetext token into the token buffer, stopping before any delimiter
+     */
+    private void readToken(int c) throws IOException {
+        token.setLength(0);
+        while(c > ' ' && c != '{' && c != '}' && c != '(' && c != ')' && c != ';' && c != '[') {
+            append(c);
+            c = read();
+        }
+        if(c != EOF) {
+            pushed = c;
+        }
+    }
+
+    private void append(int c) {
+        if(token.length() == MAX_TOKEN) {
+            malformed = true;
+        } else {
+            token.append((char) c);
+        }
+    }
+
+    /**
+     * Returns the game termination marker if the token is one
+     */
+    private static String result(StringBuilder token) {
+        switch(token.length()) {
+            case 1:
+                return token.charAt(0) == '*' ? "*" : null;
+            case 3:
+                if(token.charAt(0) == '1' && token.charAt(1) == '-' && token.charAt(2) == '0') {
+                    return "1-0";
+                }
+                return token.charAt(0) == '0' && token.charAt(1) == '-' && token.charAt(2) == '1' ? "0-1" : null;
+            case 7:
+                return "1/2-1/2".contentEquals(token) ? "1/2-1/2" : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the index after a leading move number such as 12. or 12...
+     */
+    private static int skipMoveNumber(StringBuilder token) {
+        int i = 0;
+        while(i < token.length() && token.charAt(i) >= '0' && token.charAt(i) <= '9') {
+            i++;
+        }
+        if(i < token.length() && token.charAt(i) != '.') {
+            return 0; //not a move number, O-O written with zeros is left alone
+        }
+        while(i < token.length() && token.charAt(i) == '.') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Skips a recursive annotation variation, the opening parenthesis already read
+     */
+    private void skipVariation() throws IOException {
+        int depth = 1;
+        while(depth > 0) {
+            int c = read();
+            if(c == EOF) {
+                malformed = true;
+                return;
+            } else if(c == '(') {
+                depth++;
+            } else if(c == ')') {
+                depth--;
+            } else if(c == '{') {
+                skipUntil('}');
+            } else if(c == ';') {
+                skipUntil('\n');
+            }
+        }
+    }
+
+    private void skipUntil(int end) throws IOException {
+        int c = read();
+        while(c != end && c != EOF) {
+            c = read();
+        }
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c = read();
+        while(c != EOF && c <= ' ') {
+            c = read();
+        }
+        return c;
+    }
+
+    private int read() throws IOException {
+        if(pushed != NONE) {
+            int c = pushed;
+            pushed = NONE;
+            return c;
+        }
+        if(!buffer.hasRemaining()) {
+            buffer.clear();
+            int n;
+            do {
+                n = channel.read(buffer);
+            } while(n == 0);
+            buffer.flip();
+            if(n < 0) {
+                return EOF;
+            }
+            bytes += n;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Returns the number of malformed games that were skipped
+     * @return the number of skipped games
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public long getPlies() {
+        return plyCount;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public double getGamesPerSecond() {
+        return games / getSeconds();
+    }
+
+    public double getBytesPerSecond() {
+        return bytes / getSeconds();
+    }
+
+    /**
+     * Returns the seconds since the PGNReader was constructed
+     * @return the elapsed seconds
+     */
+    public double getSeconds() {
+        return Math.max(System.nanoTime() - startTime, 1) / 1e9;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads every game of a PGN file and prints the throughput
+     * Usage: PGNReader file.pgn
+     * @param args, the file
+     * @throws IOException if the file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length < 1) {
+            System.out.println("Usage: PGNReader file.pgn");
+            return;
+        }
+        try(PGNReader reader = open(Paths.get(args[0]))) {
+            while(reader.next() != null) {
+                //only counted
+            }
+            System.out.printf("games %d plies %d skipped %d %.1f MB %.2f s %.0f games/s %.1f MB/s%n",
+                    reader.getGames(), reader.getPlies(), reader.getSkipped(), reader.getBytes() / 1e6,
+                    reader.getSeconds(), reader.getGamesPerSecond(), reader.getBytesPerSecond() / 1e6);
+        }
+    }
+}
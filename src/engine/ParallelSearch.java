@@ -0,0 +1,172 @@
+/*
+ * Lazy SMP search: every thread searches the same root and the threads share their work
+ * through the transposition table, the main thread decides when to stop and which move to play
+ * 10/17/26
+ */
+package engine;
+
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class ParallelSearch {
+
+    private final TranspositionTable table;
+    private final Search[] searches; //the main Search followed by the helpers
+    private volatile boolean stopped; //set by ParallelSearch::stop, never cleared
+
+    /**
+     * Constructs a ParallelSearch, its Searches start with their stop flags clear
+     * @param table, the transposition table shared by every thread
+     * @param threads, the number of threads including the calling thread
+     */
+    public ParallelSearch(TranspositionTable table, int threads) {
+        if(threads < 1) {
+            throw new IllegalArgumentException("A search needs at least one thread");
+        }
+        this.table = table;
+        searches = new Search[threads];
+        for(int i = 0; i < threads; i++) {
+            searches[i] = new Search(table, i);
+        }
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Returns the pawn table of the main Search, only safe to read from the thread calling search
+     * @return the pawn table
+     */
+    public PawnTable getPawnTable() {
+        return searches[0].getPawnTable();
+    }
+
+    public int getThreads() {
+        return searches.length;
+    }
+
+    /**
+     * Sets the hashes of the game positions played before the root for every thread
+     * @param history, the hashes in the order they were played, not including the root
+     */
+    public void setHistory(long[] history) {
+        for(Search search : searches) {
+            search.setHistory(history);
+        }
+    }
+
+    /**
+     * Stops every thread of a running search as soon as possible, may be called from any thread
+     * A stop requested before search is called is not lost, the search then returns at once
+     */
+    public void stop() {
+        stopped = true;
+        for(Search search : searches) {
+            search.stop();
+        }
+    }
+
+    /**
+     * Searches a Position with the main Search on the calling thread and the helpers on
+     * their own threads until the main Search reaches the depth or time limit
+     * @param root, the Position to search (not modified)
+     * @param maxDepth, the deepest iteration to search
+     * @param timeMillis, the time limit in milliseconds, 0 for no limit
+     * @param listener, receives the result of each iteration completed by the main Search
+     * with the nodes of every thread, may be null
+     * @return the result of the deepest iteration completed by the main Search, without a move
+     * if the ParallelSearch was stopped before it started
+     */
+    public SearchInfo search(Position root, int maxDepth, long timeMillis, Consumer<SearchInfo> listener) {
+        if(maxDepth < 1 || maxDepth > Search.MAX_DEPTH) {
+            throw new IllegalArgumentException("Search depth must be between 1 and " + Search.MAX_DEPTH);
+        }
+        if(stopped) {
+            return new SearchInfo(0, 0, 0, 0, new int[0]);
+        }
+        table.newSearch();
+        Thread[] helpers = new Thread[searches.length - 1];
+        for(int i = 0; i < helpers.length; i++) {
+            Search helper = searches[i + 1];
+            helpers[i] = new Thread(() -> helper.iterate(root, maxDepth, 0, null), "search-helper-" + (i + 1));
+            helpers[i].setDaemon(true);
+            helpers[i].start();
+        }
+        SearchInfo result = searches[0].iterate(root, maxDepth, timeMillis,
+                listener == null ? null : (info) -> listener.accept(withAllNodes(info)));
+        for(int i = 1; i < searches.length; i++) {
+            searches[i].stop();
+        }
+        boolean interrupted = false;
+        for(Thread helper : helpers) {
+            while(true) {
+                try {
+                    helper.join();
+                    break;
+                } catch(InterruptedException e) {
+                    interrupted = true; //the helpers are already stopping, wait for them anyway
+                }
+            }
+        }
+        if(interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if(!stopped) {
+            for(int i = 1; i < searches.length; i++) {
+                searches[i].clearStop(); //stopped above, not by ParallelSearch::stop
+            }
+        }
+        return withAllNodes(result);
+    }
+
+    /**
+     * Replaces the node count of a result of the main Search with the nodes of every thread
+     * @param info, the result of the main Search
+     * @return the result with the total node count
+     */
+    private SearchInfo withAllNodes(SearchInfo info) {
+        long nodes = info.getNodes();
+        for(int i = 1; i < searches.length; i++) {
+            nodes += searches[i].getNodes();
+        }
+        return new SearchInfo(info.getDepth(), info.getScore(), nodes, info.getNanos(), info.getPV());
+    }
+
+    /**
+     * Searches a Position to a fixed depth with 1, 2, 4... threads up to a maximum, each with an
+     * empty table, and prints the time to depth, nodes per second and speedup over one thread
+     * @param position, the Position to search
+     * @param depth, the depth to search to
+     * @param hashMB, the size of the table in megabytes
+     * @param maxThreads, the most threads to try
+     */
+    public static void printScaling(Position position, int depth, int hashMB, int maxThreads) {
+        System.out.println(position.toFEN() + " to depth " + depth);
+        new ParallelSearch(new TranspositionTable(hashMB), 1).search(position, depth, 0, null); //warm up the JIT first
+        double baseTime = 0;
+        long baseSpeed = 0;
+        int threads = 1;
+        while(true) {
+            ParallelSearch search = new ParallelSearch(new TranspositionTable(hashMB), threads);
+            SearchInfo info = search.search(position, depth, 0, null);
+            double seconds = info.getNanos() / 1e9;
+            if(threads == 1) {
+                baseTime = seconds;
+                baseSpeed = info.getNodesPerSecond();
+            }
+            System.out.println(String.format(Locale.ROOT,
+                    "threads %3d  time %8.3fs  nodes %,14d  nps %,12d  time speedup %5.2f  nps speedup %5.2f  bestmove %s",
+                    threads, seconds, info.getNodes(), info.getNodesPerSecond(), baseTime / seconds,
+                    (double) info.getNodesPerSecond() / Math.max(baseSpeed, 1), Moves.toUCI(info.getBestMove())));
+            if(threads >= maxThreads) {
+                break;
+            }
+            threads = Math.min(threads * 2, maxThreads);
+        }
+    }
+}
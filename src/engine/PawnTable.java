@@ -0,0 +1,116 @@
+/*
+ * Hash table of pawn structure evaluations keyed by the pawn key of a Position
+ * Pawns move rarely so most evaluations find the pawn terms of their Position already calculated
+ * Each Search owns a table so entries are never written by two threads
+ * 10/17/26
+ */
+package engine;
+
+import java.util.Arrays;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class PawnTable {
+
+    public static final int DEFAULT_ENTRIES = 16384;
+
+    /*
+     * An empty slot holds key 0 and zero scores and masks, which is exactly the entry of a
+     * Position without pawns, so slots never need a separate valid flag
+     */
+    private final long[] keys;
+    private final long[] scores; //pawn structure scores packed by Evaluation::pack
+    private final long[] whitePassed; //passed pawns of each side
+    private final long[] blackPassed;
+    private final int mask;
+    private long probes;
+    private long hits;
+
+    /**
+     * Constructs a table with a number of entries, rounded down to a power of two
+     * @param entries, the number of entries
+     */
+    public PawnTable(int entries) {
+        if(entries < 1) {
+            throw new IllegalArgumentException("Pawn table must have at least 1 entry");
+        }
+        int capacity = Integer.highestOneBit(entries);
+        keys = new long[capacity];
+        scores = new long[capacity];
+        whitePassed = new long[capacity];
+        blackPassed = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    public PawnTable() {
+        this(DEFAULT_ENTRIES);
+    }
+
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    /**
+     * Finds the entry for the pawns of a Position, evaluating the pawns into the entry on a miss
+     * @param position, the Position
+     * @return the index of the entry, read with getScores and getPassed
+     */
+    public int probe(Position position) {
+        probes++;
+        long key = position.getPawnHash();
+        int index = (int) key & mask;
+        if(keys[index] == key) {
+            hits++;
+            return index;
+        }
+        long white = position.getBitboard(Position.WHITE_PAWN);
+        long black = position.getBitboard(Position.BLACK_PAWN);
+        keys[index] = key;
+        whitePassed[index] = Evaluation.passedPawns(white, black, true);
+        blackPassed[index] = Evaluation.passedPawns(black, white, false);
+        scores[index] = Evaluation.evaluatePawns(white, black, whitePassed[index], blackPassed[index]);
+        return index;
+    }
+
+    public long getScores(int index) {
+        return scores[index];
+    }
+
+    public long getPassed(int index, boolean white) {
+        return white ? whitePassed[index] : blackPassed[index];
+    }
+
+    /**
+     * Removes every entry and resets the statistics
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(scores, 0);
+        Arrays.fill(whitePassed, 0);
+        Arrays.fill(blackPassed, 0);
+        resetStats();
+    }
+
+    public void resetStats() {
+        probes = 0;
+        hits = 0;
+    }
+
+    public long getProbes() {
+        return probes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the percentage of probes that found an entry since the statistics were reset
+     * @return the hit rate between 0 and 100
+     */
+    public double getHitRate() {
+        return probes > 0 ? 100.0 * hits / probes : 0;
+    }
+}
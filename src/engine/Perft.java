@@ -0,0 +1,226 @@
+/*
+ * Headless perft driver used to measure the speed and verify the correctness of move generation
+ * Counts the leaf nodes of the legal move tree to a fixed depth
+ * 10/17/26
+ */
+package engine;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class Perft {
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    public static final String SUITE_RESOURCE = "/resources/perft.epd";
+
+    private static final int MAX_DEPTH = 64;
+
+    private final MoveList[] lists = new MoveList[MAX_DEPTH]; //one preallocated list per ply
+
+    public Perft() {
+        for(int i = 0; i < MAX_DEPTH; i++) {
+            lists[i] = new MoveList();
+        }
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree of a Position
+     * @param position, the root Position
+     * @param depth, the depth in plies to search
+     * @return the number of leaf nodes
+     */
+    public long perft(Position position, int depth) {
+        if(depth < 0 || depth >= MAX_DEPTH) {
+            throw new IllegalArgumentException("Perft depth must be between 0 and " + (MAX_DEPTH - 1));
+        }
+        return count(position, depth);
+    }
+
+    private long count(Position position, int depth) {
+        if(depth == 0) {
+            return 1;
+        }
+        MoveList list = lists[depth];
+        position.generateMoves(list);
+        if(depth == 1) {
+            return list.size(); //bulk count the last ply
+        }
+        long nodes = 0;
+        for(int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            int undo = position.makeMove(move);
+            nodes += count(position, depth - 1);
+            position.unmakeMove(move, undo);
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts the leaf nodes below each legal root move and prints them, used to find the
+     * move a generator disagrees with a reference on
+     * @param position, the root Position
+     * @param depth, the depth in plies to search (at least 1)
+     * @return the total number of leaf nodes
+     */
+    public long divide(Position position, int depth) {
+        if(depth < 1 || depth >= MAX_DEPTH) {
+            throw new IllegalArgumentException("Divide depth must be between 1 and " + (MAX_DEPTH - 1));
+        }
+        MoveList roots = new MoveList();
+        position.generateMoves(roots);
+        long total = 0;
+        for(int i = 0; i < roots.size(); i++) {
+            int move = roots.get(i);
+            int undo = position.makeMove(move);
+            long nodes = count(position, depth - 1);
+            position.unmakeMove(move, undo);
+            System.out.println(Moves.toUCI(move) + ": " + nodes);
+            total += nodes;
+        }
+        System.out.println();
+        System.out.println("Moves: " + roots.size());
+        return total;
+    }
+
+    /**
+     * Runs perft on a Position and prints the node count, time and nodes per second
+     * @param position, the root Position
+     * @param depth, the depth in plies to search
+     * @param divide, whether or not to print the count below each root move
+     * @return the number of leaf nodes
+     */
+    public long run(Position position, int depth, boolean divide) {
+        long start = System.nanoTime();
+        long nodes = divide ? divide(position, depth) : perft(position, depth);
+        long elapsed = System.nanoTime() - start;
+        System.out.println("Nodes: " + nodes);
+        System.out.println(formatSpeed(nodes, elapsed));
+        return nodes;
+    }
+
+    /**
+     * Runs each position of a perft suite and compares the node counts to the expected counts
+     * Each suite line is an EPD record: a FEN followed by ";D<depth> <nodes>" entries,
+     * blank lines and lines starting with # are skipped
+     * @param reader, the suite to read
+     * @param maxDepth, entries deeper than this are skipped
+     * @return the number of failed entries
+     * @throws IOException if the suite cannot be read
+     */
+    public int runSuite(Reader reader, int maxDepth) throws IOException {
+        int failures = 0;
+        int entries = 0;
+        long totalNodes = 0;
+        long totalTime = 0;
+        BufferedReader in = new BufferedReader(reader);
+        String line;
+        while((line = in.readLine()) != null) {
+            line = line.trim();
+            if(line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(";");
+            Position position = Position.fromFEN(fields[0]);
+            System.out.println(fields[0].trim());
+            for(int i = 1; i < fields.length; i++) {
+                String[] entry = fields[i].trim().split("\\s+");
+                if(entry.length != 2 || !entry[0].startsWith("D")) {
+                    throw new IllegalArgumentException("Bad perft suite entry: " + fields[i]);
+                }
+                int depth = Integer.parseInt(entry[0].substring(1));
+                long expected = Long.parseLong(entry[1]);
+                if(depth > maxDepth) {
+                    continue;
+                }
+                long start = System.nanoTime();
+                long nodes = perft(position, depth);
+                long elapsed = System.nanoTime() - start;
+                boolean passed = nodes == expected;
+                System.out.println("  D" + depth + " " + nodes + (passed ? " ok" : " FAILED expected " + expected)
+                        + " (" + formatSpeed(nodes, elapsed) + ")");
+                if(!passed) {
+                    failures++;
+                }
+                entries++;
+                totalNodes += nodes;
+                totalTime += elapsed;
+            }
+        }
+        System.out.println();
+        System.out.println((entries - failures) + "/" + entries + " passed, " + formatSpeed(totalNodes, totalTime));
+        return failures;
+    }
+
+    private static String formatSpeed(long nodes, long nanos) {
+        double seconds = nanos / 1e9;
+        long nps = seconds > 0 ? (long) (nodes / seconds) : 0;
+        return String.format(Locale.ROOT, "%.3fs, %,d nodes/sec", seconds, nps);
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage:");
+        System.out.println("  perft <depth> [fen]          count leaf nodes");
+        System.out.println("  divide <depth> [fen]         count leaf nodes below each root move");
+        System.out.println("  suite [maxDepth] [file]      run a perft suite, defaults to the checked in suite");
+    }
+
+    /**
+     * Command line entry point
+     * @param args, the command followed by its arguments, the fen may be given unquoted
+     * @throws IOException if a suite cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length < 1) {
+            printUsage();
+            return;
+        }
+        Perft perft = new Perft();
+        switch(args[0]) {
+            case "perft":
+            case "divide": {
+                if(args.length < 2) {
+                    printUsage();
+                    return;
+                }
+                int depth = Integer.parseInt(args[1]);
+                String fen = args.length > 2 ? String.join(" ", Arrays.copyOfRange(args, 2, args.length)) : START_FEN;
+                perft.run(Position.fromFEN(fen), depth, args[0].equals("divide"));
+                break;
+            }
+            case "suite": {
+                int maxDepth = args.length > 1 ? Integer.parseInt(args[1]) : MAX_DEPTH - 1;
+                int failures;
+                if(args.length > 2) {
+                    try(Reader reader = new FileReader(args[2])) {
+                        failures = perft.runSuite(reader, maxDepth);
+                    }
+                } else {
+                    InputStream stream = Perft.class.getResourceAsStream(SUITE_RESOURCE);
+                    if(stream == null) {
+                        throw new IOException("Missing perft suite " + SUITE_RESOURCE);
+                    }
+                    try(Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+                        failures = perft.runSuite(reader, maxDepth);
+                    }
+                }
+                if(failures > 0) {
+                    System.exit(1);
+                }
+                break;
+            }
+            default:
+                printUsage();
+        }
+    }
+}
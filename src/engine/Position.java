@@ -0,0 +1,973 @@
+/*
+ * A headless chess position stored as bitboards
+ * Performs all of the rules calculations independent of the GUI
+ * 10/17/26
+ */
+package engine;
+
+import java.util.Arrays;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class Position {
+
+    public static final byte EMPTY = 0; //piece codes, identical to the ByteBoard codes used by the GUI
+    public static final byte WHITE_PAWN = 1;
+    public static final byte WHITE_BISHOP = 2;
+    public static final byte WHITE_KNIGHT = 3;
+    public static final byte WHITE_ROOK = 4;
+    public static final byte WHITE_QUEEN = 5;
+    public static final byte WHITE_KING = 6;
+    public static final byte BLACK_PAWN = 7;
+    public static final byte BLACK_BISHOP = 8;
+    public static final byte BLACK_KNIGHT = 9;
+    public static final byte BLACK_ROOK = 10;
+    public static final byte BLACK_QUEEN = 11;
+    public static final byte BLACK_KING = 12;
+
+    public static final int PAWN = 1; //piece types, equal to the white piece codes
+    public static final int BISHOP = 2;
+    public static final int KNIGHT = 3;
+    public static final int ROOK = 4;
+    public static final int QUEEN = 5;
+    public static final int KING = 6;
+
+    public static final int WHITE_KING_SIDE = 1; //castling rights bits
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+    public static final int ALL_CASTLING = 15;
+
+    public static final int NO_SQUARE = -1;
+
+    private static final String FEN_PIECES = ".PBNRQKpbnrqk"; //FEN character at each piece code
+
+    private static final int[] CASTLING_MASK = new int[64]; //rights kept when a move touches a square
+    private static final int[] CASTLING_ROOKS = {7, 0, 63, 56}; //starting rook square of each castling right bit
+
+    static {
+        for(int i = 0; i < 64; i++) {
+            CASTLING_MASK[i] = ALL_CASTLING;
+        }
+        CASTLING_MASK[0] = ALL_CASTLING & ~WHITE_QUEEN_SIDE;
+        CASTLING_MASK[7] = ALL_CASTLING & ~WHITE_KING_SIDE;
+        CASTLING_MASK[4] = ALL_CASTLING & ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+        CASTLING_MASK[56] = ALL_CASTLING & ~BLACK_QUEEN_SIDE;
+        CASTLING_MASK[63] = ALL_CASTLING & ~BLACK_KING_SIDE;
+        CASTLING_MASK[60] = ALL_CASTLING & ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+    }
+
+    private final long[] bitboards = new long[13]; //one bitboard per piece code, index 0 is unused
+    private final byte[] squares = new byte[64]; //piece code on each square, square = row*8 + col
+    private long whitePieces;
+    private long blackPieces;
+    private boolean whiteToMove = true;
+    private int castlingRights = 0;
+    private int enPassantSquare = NO_SQUARE; //only set when an enemy pawn could capture en passant
+    private int halfmoveClock = 0; //plies since the last capture or pawn move
+    private int fullmoveNumber = 1;
+    private long hash; //Zobrist key, kept up to date by every change to the Position
+    private long pawnHash; //Zobrist key of the pawns alone
+    private int middlegameScore; //material and piece-square terms for white minus black, kept up to date like the hash
+    private int endgameScore;
+    private int phase; //game phase from the pieces left on the board, see Evaluation::PHASE
+
+    /**
+     * Constructs an empty Position with white to move and no castling rights
+     */
+    public Position() {}
+
+    /**
+     * Constructs a copy of a Position
+     * @param other, the Position to copy
+     */
+    public Position(Position other) {
+        System.arraycopy(other.bitboards, 0, bitboards, 0, bitboards.length);
+        System.arraycopy(other.squares, 0, squares, 0, squares.length);
+        whitePieces = other.whitePieces;
+        blackPieces = other.blackPieces;
+        whiteToMove = other.whiteToMove;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        hash = other.hash;
+        pawnHash = other.pawnHash;
+        middlegameScore = other.middlegameScore;
+        endgameScore = other.endgameScore;
+        phase = other.phase;
+    }
+
+    /**
+     * Constructs the standard starting Position
+     * @return the starting Position
+     */
+    public static Position initial() {
+        Position position = new Position();
+        byte[] backRank = {WHITE_ROOK, WHITE_KNIGHT, WHITE_BISHOP, WHITE_QUEEN,
+            WHITE_KING, WHITE_BISHOP, WHITE_KNIGHT, WHITE_ROOK};
+        for(int col = 0; col < 8; col++) {
+            position.put(Moves.square(0, col), backRank[col]);
+            position.put(Moves.square(1, col), WHITE_PAWN);
+            position.put(Moves.square(6, col), BLACK_PAWN);
+            position.put(Moves.square(7, col), (byte) (backRank[col] + BLACK_PAWN - WHITE_PAWN));
+        }
+        position.castlingRights = ALL_CASTLING;
+        position.hash = position.computeHash();
+        return position;
+    }
+
+    /**
+     * Constructs a Position from a FEN string, see setFEN
+     * @param fen, the FEN string
+     * @return the Position
+     * @throws IllegalArgumentException if the FEN is malformed or the position is illegal
+     */
+    public static Position fromFEN(CharSequence fen) {
+        Position position = new Position();
+        position.setFEN(fen);
+        return position;
+    }
+
+    /**
+     * Sets the Position from a FEN string, replacing everything it held
+     * The string is scanned in place so a reused Position can load FENs without allocating.
+     * Fields are separated by whitespace, the halfmove and fullmove fields are optional and default to 0 and 1.
+     * Parsing is strict: every rank must add up to 8 squares, pawns may not stand on the first or last rank,
+     * each castling right needs its king and rook on their starting squares, an en passant square needs the
+     * pawn that just passed it, and the side that just moved may not be in check.
+     * An en passant square no pawn can capture on is dropped, as after make, so equal positions hash equally.
+     * If parsing fails the Position is left empty
+     * @param fen, the FEN string
+     * @throws IllegalArgumentException if the FEN is malformed or the position is illegal
+     */
+    public void setFEN(CharSequence fen) {
+        clear();
+        try {
+            parseFEN(fen);
+        } catch(IllegalArgumentException e) {
+            clear();
+            throw e;
+        }
+    }
+
+    private void parseFEN(CharSequence fen) {
+        int end = fen.length();
+        int i = skipSpaces(fen, 0);
+
+        int row = 7;
+        int col = 0;
+        boolean digit = false; //two digits in a row are not allowed
+        for(; i < end && fen.charAt(i) > ' '; i++) {
+            char c = fen.charAt(i);
+            if(c == '/') {
+                if(col != 8 || row == 0) {
+                    throw badFEN("Bad rank", fen);
+                }
+                row--;
+                col = 0;
+                digit = false;
+            } else if(c >= '1' && c <= '8' && !digit) {
+                col += c - '0';
+                digit = true;
+            } else {
+                int piece = FEN_PIECES.indexOf(c);
+                if(piece <= 0 || col > 7) {
+                    throw badFEN("Bad piece placement", fen);
+                }
+                if(typeOf((byte) piece) == PAWN && (row == 0 || row == 7)) {
+                    throw badFEN("Pawn on the first or last rank", fen);
+                }
+                put(Moves.square(row, col++), (byte) piece);
+                digit = false;
+            }
+            if(col > 8) {
+                throw badFEN("Bad rank", fen);
+            }
+        }
+        if(row != 0 || col != 8) {
+            throw badFEN("Must have 8 ranks", fen);
+        }
+        if(Long.bitCount(bitboards[WHITE_KING]) != 1 || Long.bitCount(bitboards[BLACK_KING]) != 1) {
+            throw badFEN("Must have one king per side", fen);
+        }
+
+        i = skipSpaces(fen, i);
+        if(fieldEnd(fen, i) != i + 1 || (fen.charAt(i) != 'w' && fen.charAt(i) != 'b')) {
+            throw badFEN("Bad side to move", fen);
+        }
+        whiteToMove = fen.charAt(i++) == 'w';
+
+        i = skipSpaces(fen, i);
+        int fieldEnd = fieldEnd(fen, i);
+        if(fieldEnd == i) {
+            throw badFEN("Missing castling rights", fen);
+        }
+        if(fieldEnd != i + 1 || fen.charAt(i) != '-') {
+            int last = -1; //rights must be in KQkq order without repeats
+            for(; i < fieldEnd; i++) {
+                int right = "KQkq".indexOf(fen.charAt(i));
+                if(right <= last) {
+                    throw badFEN("Bad castling rights", fen);
+                }
+                boolean white = right < 2;
+                if(squares[white ? 4 : 60] != (white ? WHITE_KING : BLACK_KING)
+                        || squares[CASTLING_ROOKS[right]] != (white ? WHITE_ROOK : BLACK_ROOK)) {
+                    throw badFEN("Castling rights without the king and rook on their squares", fen);
+                }
+                castlingRights |= 1 << right;
+                last = right;
+            }
+        }
+        i = fieldEnd;
+
+        i = skipSpaces(fen, i);
+        fieldEnd = fieldEnd(fen, i);
+        if(fieldEnd == i + 2) {
+            int epCol = fen.charAt(i) - 'a';
+            int epRow = fen.charAt(i + 1) - '1';
+            if(epCol < 0 || epCol > 7 || epRow != (whiteToMove ? 5 : 2)) {
+                throw badFEN("Bad en passant square", fen);
+            }
+            int square = Moves.square(epRow, epCol);
+            int forward = whiteToMove ? -8 : 8; //towards the pawn that passed the square
+            if(squares[square] != EMPTY || squares[square - forward] != EMPTY
+                    || squares[square + forward] != (whiteToMove ? BLACK_PAWN : WHITE_PAWN)) {
+                throw badFEN("En passant square without a passing pawn", fen);
+            }
+            if(canCaptureEnPassant(square, whiteToMove)) {
+                enPassantSquare = square;
+            }
+        } else if(fieldEnd != i + 1 || fen.charAt(i) != '-') {
+            throw badFEN("Bad en passant square", fen);
+        }
+        i = skipSpaces(fen, fieldEnd);
+
+        if(i < end) {
+            fieldEnd = fieldEnd(fen, i);
+            halfmoveClock = parseCounter(fen, i, fieldEnd, 0);
+            i = skipSpaces(fen, fieldEnd);
+            if(i < end) {
+                fieldEnd = fieldEnd(fen, i);
+                fullmoveNumber = parseCounter(fen, i, fieldEnd, 1);
+                i = skipSpaces(fen, fieldEnd);
+            }
+        }
+        if(i < end) {
+            throw badFEN("Must have 4 to 6 fields", fen);
+        }
+        if(isSquareAttacked(kingSquare(!whiteToMove), whiteToMove)) {
+            throw badFEN("Side not to move is in check", fen);
+        }
+        hash ^= Zobrist.CASTLING[castlingRights] ^ Zobrist.enPassantKey(enPassantSquare); //pieces were hashed by put
+        if(!whiteToMove) {
+            hash ^= Zobrist.SIDE;
+        }
+    }
+
+    /**
+     * Empties the board and resets the state to white to move without castling rights
+     */
+    private void clear() {
+        Arrays.fill(bitboards, 0);
+        Arrays.fill(squares, EMPTY);
+        whitePieces = 0;
+        blackPieces = 0;
+        whiteToMove = true;
+        castlingRights = 0;
+        enPassantSquare = NO_SQUARE;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        hash = 0;
+        pawnHash = 0;
+        middlegameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+    }
+
+    private static int skipSpaces(CharSequence fen, int i) {
+        while(i < fen.length() && fen.charAt(i) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int fieldEnd(CharSequence fen, int i) {
+        while(i < fen.length() && fen.charAt(i) > ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int parseCounter(CharSequence fen, int start, int end, int min) {
+        if(end == start || end - start > 9) {
+            throw badFEN("Bad move counter", fen);
+        }
+        int value = 0;
+        for(int i = start; i < end; i++) {
+            char c = fen.charAt(i);
+            if(c < '0' || c > '9') {
+                throw badFEN("Bad move counter", fen);
+            }
+            value = value*10 + c - '0';
+        }
+        if(value < min) {
+            throw badFEN("Bad move counter", fen);
+        }
+        return value;
+    }
+
+    private static IllegalArgumentException badFEN(String reason, CharSequence fen) {
+        return new IllegalArgumentException(reason + " in FEN: " + fen);
+    }
+
+    /**
+     * Converts the Position to a FEN string
+     * @return the FEN string
+     */
+    public String toFEN() {
+        StringBuilder fen = new StringBuilder();
+        for(int row = 7; row >= 0; row--) {
+            int spaceCount = 0;
+            for(int col = 0; col < 8; col++) {
+                byte piece = squares[Moves.square(row, col)];
+                if(piece == EMPTY) {
+                    spaceCount++;
+                } else {
+                    if(spaceCount > 0) {
+                        fen.append(spaceCount);
+                        spaceCount = 0;
+                    }
+                    fen.append(FEN_PIECES.charAt(piece));
+                }
+            }
+            if(spaceCount > 0) {
+                fen.append(spaceCount);
+            }
+            if(row > 0) {
+                fen.append('/');
+            }
+        }
+        fen.append(whiteToMove ? " w " : " b ");
+        if(castlingRights == 0) {
+            fen.append('-');
+        }
+        for(int i = 0; i < 4; i++) {
+            if((castlingRights & (1 << i)) != 0) {
+                fen.append("KQkq".charAt(i));
+            }
+        }
+        fen.append(' ').append(enPassantSquare == NO_SQUARE ? "-" : Moves.squareName(enPassantSquare));
+        fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return fen.toString();
+    }
+
+    public Position copy() {
+        return new Position(this);
+    }
+
+    public static boolean isWhite(byte piece) {
+        return piece >= WHITE_PAWN && piece <= WHITE_KING;
+    }
+
+    /**
+     * Returns the type of a piece code regardless of its color
+     * @param piece, the piece code
+     * @return the piece type (PAWN to KING), or EMPTY
+     */
+    public static int typeOf(byte piece) {
+        return piece > WHITE_KING ? piece - (BLACK_PAWN - WHITE_PAWN) : piece;
+    }
+
+    /**
+     * Returns the piece code for a piece type and color
+     * @param type, the piece type (PAWN to KING)
+     * @param white, the color of the piece
+     * @return the piece code
+     */
+    public static byte pieceOf(int type, boolean white) {
+        return (byte) (white ? type : type + (BLACK_PAWN - WHITE_PAWN));
+    }
+
+    public byte pieceAt(int square) {
+        return squares[square];
+    }
+
+    public byte pieceAt(int row, int col) {
+        return squares[Moves.square(row, col)];
+    }
+
+    public long getBitboard(byte piece) {
+        return bitboards[piece];
+    }
+
+    public long getPieces(boolean white) {
+        return white ? whitePieces : blackPieces;
+    }
+
+    public long getOccupancy() {
+        return whitePieces | blackPieces;
+    }
+
+    public boolean isWhiteToMove() {
+        return whiteToMove;
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Calculates the Zobrist key of the Position from scratch
+     * (the key is otherwise updated incrementally by make/unmake)
+     * @return the Zobrist key
+     */
+    public long computeHash() {
+        long key = 0;
+        for(int square = 0; square < 64; square++) {
+            if(squares[square] != EMPTY) {
+                key ^= Zobrist.PIECES[squares[square]][square];
+            }
+        }
+        key ^= Zobrist.CASTLING[castlingRights] ^ Zobrist.enPassantKey(enPassantSquare);
+        return whiteToMove ? key : key ^ Zobrist.SIDE;
+    }
+
+    /**
+     * Returns the Zobrist key of the pawns of both sides, the key used by the PawnTable
+     * @return the pawn key, 0 if there are no pawns
+     */
+    public long getPawnHash() {
+        return pawnHash;
+    }
+
+    /**
+     * Calculates the pawn key of the Position from scratch
+     * @return the pawn key
+     */
+    public long computePawnHash() {
+        long key = 0;
+        for(int square = 0; square < 64; square++) {
+            key ^= Zobrist.PAWNS[squares[square]][square];
+        }
+        return key;
+    }
+
+    /**
+     * Returns the middlegame material and piece-square score, updated incrementally by make/unmake
+     * @return the score for white minus black in centipawns
+     */
+    public int getMiddlegameScore() {
+        return middlegameScore;
+    }
+
+    /**
+     * Returns the endgame material and piece-square score, updated incrementally by make/unmake
+     * @return the score for white minus black in centipawns
+     */
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    /**
+     * Returns the game phase, Evaluation.MAX_PHASE with every piece on the board down to 0
+     * with only kings and pawns (more than MAX_PHASE after promotions)
+     * @return the phase
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    public int kingSquare(boolean white) {
+        return Long.numberOfTrailingZeros(bitboards[white ? WHITE_KING : BLACK_KING]);
+    }
+
+    /**
+     * Converts the Position to a ByteBoard, a 2D array of piece codes indexed by [row][col]
+     * @return the ByteBoard
+     */
+    public byte[][] toByteBoard() {
+        byte[][] board = new byte[8][8];
+        for(int i = 0; i < 8; i++) {
+            System.arraycopy(squares, i*8, board[i], 0, 8);
+        }
+        return board;
+    }
+
+    private void put(int square, byte piece) {
+        long bit = 1L << square;
+        hash ^= Zobrist.PIECES[piece][square];
+        pawnHash ^= Zobrist.PAWNS[piece][square];
+        middlegameScore += Evaluation.MIDDLEGAME_SQUARES[piece][square];
+        endgameScore += Evaluation.ENDGAME_SQUARES[piece][square];
+        phase += Evaluation.PHASE[piece];
+        squares[square] = piece;
+        bitboards[piece] |= bit;
+        if(isWhite(piece)) {
+            whitePieces |= bit;
+        } else {
+            blackPieces |= bit;
+        }
+    }
+
+    private void remove(int square) {
+        long bit = 1L << square;
+        byte piece = squares[square];
+        hash ^= Zobrist.PIECES[piece][square];
+        pawnHash ^= Zobrist.PAWNS[piece][square];
+        middlegameScore -= Evaluation.MIDDLEGAME_SQUARES[piece][square];
+        endgameScore -= Evaluation.ENDGAME_SQUARES[piece][square];
+        phase -= Evaluation.PHASE[piece];
+        bitboards[piece] &= ~bit;
+        squares[square] = EMPTY;
+        whitePieces &= ~bit;
+        blackPieces &= ~bit;
+    }
+
+    /**
+     * Calculates whether or not a square is attacked by any piece of a given side
+     * @param square, the square to check
+     * @param byWhite, the side of the attacking pieces
+     * @return true if the square is attacked
+     */
+    public boolean isSquareAttacked(int square, boolean byWhite) {
+        return attackersTo(square, byWhite, whitePieces | blackPieces) != 0;
+    }
+
+    /**
+     * Calculates the pieces of a given side attacking a square
+     * @param square, the square to check
+     * @param byWhite, the side of the attacking pieces
+     * @param occupied, the occupied squares the sliders are blocked by
+     * @return the attacking pieces as a bitboard
+     */
+    private long attackersTo(int square, boolean byWhite, long occupied) {
+        int offset = byWhite ? 0 : BLACK_PAWN - WHITE_PAWN;
+        long queens = bitboards[QUEEN + offset];
+        return (Attacks.pawnAttacks(square, !byWhite) & bitboards[PAWN + offset])
+                | (Attacks.knightAttacks(square) & bitboards[KNIGHT + offset])
+                | (Attacks.kingAttacks(square) & bitboards[KING + offset])
+                | (Attacks.bishopAttacks(square, occupied) & (bitboards[BISHOP + offset] | queens))
+                | (Attacks.rookAttacks(square, occupied) & (bitboards[ROOK + offset] | queens));
+    }
+
+    /**
+     * Returns whether or not the piece on a square is pinned to its own king, that is
+     * removing it from the board would expose its king to an enemy slider
+     * @param square, the square of the piece
+     * @return true if the piece is pinned
+     */
+    public boolean isPinned(int square) {
+        byte piece = squares[square];
+        if(piece == EMPTY || typeOf(piece) == KING) {
+            return false;
+        }
+        boolean white = isWhite(piece);
+        return (pinnedPieces(white, kingSquare(white)) & (1L << square)) != 0;
+    }
+
+    /**
+     * Calculates every piece of a side pinned to its king at once, a pinned piece may only move
+     * along Attacks::line through its king and itself
+     * @param white, the side of the king
+     * @param king, the square of the king
+     * @return the pinned pieces as a bitboard
+     */
+    private long pinnedPieces(boolean white, int king) {
+        int offset = white ? BLACK_PAWN - WHITE_PAWN : 0;
+        long own = white ? whitePieces : blackPieces;
+        long enemy = white ? blackPieces : whitePieces;
+        long queens = bitboards[QUEEN + offset];
+        //enemy sliders that would attack the king if none of its own pieces were on the board
+        long snipers = (Attacks.bishopAttacks(king, enemy) & (bitboards[BISHOP + offset] | queens))
+                | (Attacks.rookAttacks(king, enemy) & (bitboards[ROOK + offset] | queens));
+        long pinned = 0;
+        while(snipers != 0) {
+            long blockers = Attacks.between(king, Long.numberOfTrailingZeros(snipers)) & own;
+            if((blockers & (blockers - 1)) == 0) { //exactly one piece, the ray stops at the first enemy piece
+                pinned |= blockers;
+            }
+            snipers &= snipers - 1;
+        }
+        return pinned;
+    }
+
+    /**
+     * Returns whether or not a pawn of a side stands next to a double pushed pawn and could
+     * capture it en passant
+     * @param square, the square passed over by the double push
+     * @param byWhite, the side that would capture
+     * @return true if a capturing pawn exists
+     */
+    private boolean canCaptureEnPassant(int square, boolean byWhite) {
+        return (Attacks.pawnAttacks(square, !byWhite) & bitboards[byWhite ? WHITE_PAWN : BLACK_PAWN]) != 0;
+    }
+
+    /**
+     * Returns whether or not the side to move is in check
+     * @return true if the king of the side to move is attacked
+     */
+    public boolean inCheck() {
+        return isSquareAttacked(kingSquare(whiteToMove), !whiteToMove);
+    }
+
+    /**
+     * Calculates the legal moves for the side to move and writes them to a MoveList
+     * @param list, the list to be written to (cleared before writing)
+     */
+    public void generateMoves(MoveList list) {
+        list.clear();
+        generateLegalMoves(list, false);
+    }
+
+    /**
+     * Calculates the legal captures and promotions for the side to move, used by the
+     * quiescence search
+     * @param list, the list to be written to (cleared before writing)
+     */
+    public void generateCaptures(MoveList list) {
+        list.clear();
+        generateLegalMoves(list, true);
+    }
+
+    /**
+     * Returns whether or not the side to move has any legal moves
+     * @return true if a legal move exists
+     */
+    public boolean hasLegalMoves() {
+        MoveList list = new MoveList();
+        generateMoves(list);
+        return !list.isEmpty();
+    }
+
+    /**
+     * Finds the legal move between two squares
+     * @param from, square moved from
+     * @param to, square moved to
+     * @param promotion, piece code promoted to, or EMPTY for a move that is not a promotion
+     * @return the move, or Moves.NONE if no such legal move exists
+     */
+    public int findMove(int from, int to, byte promotion) {
+        MoveList list = new MoveList();
+        generateMoves(list);
+        for(int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            if(Moves.from(move) == from && Moves.to(move) == to) {
+                if(!Moves.isPromotion(move) && promotion == EMPTY) {
+                    return move;
+                }
+                if(Moves.isPromotion(move) && Moves.promotionPiece(move, whiteToMove) == promotion) {
+                    return move;
+                }
+            }
+        }
+        return Moves.NONE;
+    }
+
+    /**
+     * Calculates the legal moves for the side to move
+     * The checking pieces and the pinned pieces are found once, then the targets of each
+     * piece are masked to the squares that block or capture a check and to the line of a pin,
+     * only king moves and en passant captures test for attacks per move
+     * @param list, the list to be written to
+     * @param capturesOnly, true for only captures and promotions
+     */
+    private void generateLegalMoves(MoveList list, boolean capturesOnly) {
+        boolean white = whiteToMove;
+        int offset = white ? 0 : BLACK_PAWN - WHITE_PAWN;
+        long own = white ? whitePieces : blackPieces;
+        long enemy = white ? blackPieces : whitePieces;
+        long occupied = own | enemy;
+        int king = kingSquare(white);
+        long checkers = attackersTo(king, !white, occupied);
+
+        if((checkers & (checkers - 1)) == 0) { //in double check only the king can move
+            long evasions = checkers == 0 ? -1L : checkers | Attacks.between(king, Long.numberOfTrailingZeros(checkers));
+            long targets = evasions & ~own & (capturesOnly ? enemy : -1L);
+            long pinned = pinnedPieces(white, king);
+
+            generatePawnMoves(list, white, enemy, occupied, evasions, pinned, king, capturesOnly);
+
+            long knights = bitboards[KNIGHT + offset] & ~pinned; //a pinned knight can never move
+            while(knights != 0) {
+                int from = Long.numberOfTrailingZeros(knights);
+                knights &= knights - 1;
+                addMoves(list, from, Attacks.knightAttacks(from) & targets, enemy);
+            }
+            long diagonalSliders = bitboards[BISHOP + offset] | bitboards[QUEEN + offset];
+            while(diagonalSliders != 0) {
+                int from = Long.numberOfTrailingZeros(diagonalSliders);
+                diagonalSliders &= diagonalSliders - 1;
+                addMoves(list, from, Attacks.bishopAttacks(from, occupied) & targets & pinRay(from, king, pinned), enemy);
+            }
+            long horizontalSliders = bitboards[ROOK + offset] | bitboards[QUEEN + offset];
+            while(horizontalSliders != 0) {
+                int from = Long.numberOfTrailingZeros(horizontalSliders);
+                horizontalSliders &= horizontalSliders - 1;
+                addMoves(list, from, Attacks.rookAttacks(from, occupied) & targets & pinRay(from, king, pinned), enemy);
+            }
+        }
+
+        long kingTargets = Attacks.kingAttacks(king) & ~own & (capturesOnly ? enemy : -1L);
+        long withoutKing = occupied & ~(1L << king); //the king does not block a slider's ray onto the squares behind it
+        while(kingTargets != 0) {
+            int to = Long.numberOfTrailingZeros(kingTargets);
+            kingTargets &= kingTargets - 1;
+            if(attackersTo(to, !white, withoutKing) == 0) {
+                list.add(Moves.create(king, to, (enemy & (1L << to)) != 0 ? Moves.CAPTURE : Moves.QUIET));
+            }
+        }
+
+        if(checkers == 0 && !capturesOnly) {
+            generateCastlingMoves(list, white, occupied);
+        }
+    }
+
+    /**
+     * Returns the squares a piece may move to without exposing its king
+     * @param from, the square of the piece
+     * @param king, the square of the king
+     * @param pinned, the pinned pieces
+     * @return the line through the king and the piece if it is pinned, otherwise every square
+     */
+    private static long pinRay(int from, int king, long pinned) {
+        return (pinned & (1L << from)) != 0 ? Attacks.line(king, from) : -1L;
+    }
+
+    /**
+     * Adds a move from a square to each target square
+     * @param list, the list to be written to
+     * @param from, the square moved from
+     * @param targets, the squares moved to
+     * @param enemy, the squares of the opposing pieces
+     */
+    private static void addMoves(MoveList list, int from, long targets, long enemy) {
+        while(targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            long bit = targets & -targets;
+            targets &= targets - 1;
+            list.add(Moves.create(from, to, (enemy & bit) != 0 ? Moves.CAPTURE : Moves.QUIET));
+        }
+    }
+
+    /**
+     * Adds the legal pawn moves
+     * @param list, the list to be written to
+     * @param white, the side to move
+     * @param enemy, the squares of the opposing pieces
+     * @param occupied, the occupied squares
+     * @param evasions, the squares that capture or block a check, every square if not in check
+     * @param pinned, the pinned pieces of the side to move
+     * @param king, the square of the king
+     * @param capturesOnly, true for only captures and promotions
+     */
+    private void generatePawnMoves(MoveList list, boolean white, long enemy, long occupied, long evasions,
+            long pinned, int king, boolean capturesOnly) {
+        long pawns = bitboards[white ? WHITE_PAWN : BLACK_PAWN];
+        int forward = white ? 8 : -8;
+        int startRow = white ? 1 : 6;
+        int promotionRow = white ? 7 : 0;
+        while(pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            long allowed = evasions & pinRay(from, king, pinned);
+            int to = from + forward;
+            if((occupied & (1L << to)) == 0) {
+                if((allowed & (1L << to)) != 0 && (!capturesOnly || Moves.row(to) == promotionRow)) {
+                    addPawnMove(list, from, to, false, promotionRow);
+                }
+                int doubleTo = to + forward;
+                if(!capturesOnly && Moves.row(from) == startRow && (occupied & (1L << doubleTo)) == 0
+                        && (allowed & (1L << doubleTo)) != 0) {
+                    list.add(Moves.create(from, doubleTo, Moves.DOUBLE_PAWN_PUSH));
+                }
+            }
+            long attacks = Attacks.pawnAttacks(from, white);
+            long captures = attacks & enemy & allowed;
+            while(captures != 0) {
+                addPawnMove(list, from, Long.numberOfTrailingZeros(captures), true, promotionRow);
+                captures &= captures - 1;
+            }
+            if(enPassantSquare != NO_SQUARE && (attacks & (1L << enPassantSquare)) != 0
+                    && isLegalEnPassant(from, white, evasions, occupied, king)) {
+                list.add(Moves.create(from, enPassantSquare, Moves.EN_PASSANT));
+            }
+        }
+    }
+
+    /**
+     * Returns whether or not an en passant capture leaves the king safe, the capture empties
+     * two squares at once so the pin masks do not cover it and the sliders are checked directly
+     * @param from, the square of the capturing pawn
+     * @param white, the side to move
+     * @param evasions, the squares that capture or block a check, every square if not in check
+     * @param occupied, the occupied squares
+     * @param king, the square of the king
+     * @return true if the capture is legal
+     */
+    private boolean isLegalEnPassant(int from, boolean white, long evasions, long occupied, int king) {
+        int captured = enPassantSquare + (white ? -8 : 8);
+        if((evasions & ((1L << captured) | (1L << enPassantSquare))) == 0) {
+            return false;
+        }
+        long after = (occupied & ~(1L << from) & ~(1L << captured)) | (1L << enPassantSquare);
+        int offset = white ? BLACK_PAWN - WHITE_PAWN : 0;
+        long queens = bitboards[QUEEN + offset];
+        return (Attacks.bishopAttacks(king, after) & (bitboards[BISHOP + offset] | queens)) == 0
+                && (Attacks.rookAttacks(king, after) & (bitboards[ROOK + offset] | queens)) == 0;
+    }
+
+    private static void addPawnMove(MoveList list, int from, int to, boolean capture, int promotionRow) {
+        if(Moves.row(to) == promotionRow) {
+            int base = capture ? Moves.KNIGHT_PROMOTION_CAPTURE : Moves.KNIGHT_PROMOTION;
+            for(int i = 3; i >= 0; i--) {
+                list.add(Moves.create(from, to, base + i)); //queen first
+            }
+        } else {
+            list.add(Moves.create(from, to, capture ? Moves.CAPTURE : Moves.QUIET));
+        }
+    }
+
+    private void generateCastlingMoves(MoveList list, boolean white, long occupied) {
+        int kingSide = white ? WHITE_KING_SIDE : BLACK_KING_SIDE;
+        int queenSide = white ? WHITE_QUEEN_SIDE : BLACK_QUEEN_SIDE;
+        if((castlingRights & (kingSide | queenSide)) == 0) {
+            return;
+        }
+        int king = white ? 4 : 60;
+        if(isSquareAttacked(king, !white)) {
+            return;
+        }
+        if((castlingRights & kingSide) != 0
+                && (occupied & ((1L << (king+1)) | (1L << (king+2)))) == 0
+                && !isSquareAttacked(king+1, !white) && !isSquareAttacked(king+2, !white)) {
+            list.add(Moves.create(king, king+2, Moves.KING_CASTLE));
+        }
+        if((castlingRights & queenSide) != 0
+                && (occupied & ((1L << (king-1)) | (1L << (king-2)) | (1L << (king-3)))) == 0
+                && !isSquareAttacked(king-1, !white) && !isSquareAttacked(king-2, !white)) {
+            list.add(Moves.create(king, king-2, Moves.QUEEN_CASTLE));
+        }
+    }
+
+    /*
+     * Undo layout (low bit first), the state a move destroys:
+     * bits 0-3   - piece code captured, EMPTY for none
+     * bits 4-7   - castling rights before the move
+     * bits 8-14  - en passant square before the move + 1, 0 for none
+     * bits 15-24 - halfmove clock before the move
+     */
+
+    /**
+     * Performs a move on the Position
+     * The move is expected to be legal in this Position
+     * @param move, the packed move
+     * @return the undo information needed by Position::unmakeMove to take the move back
+     */
+    public int makeMove(int move) {
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int flag = Moves.flag(move);
+        byte piece = squares[from];
+        boolean white = whiteToMove;
+        byte captured = EMPTY;
+        int undo = (castlingRights << 4) | ((enPassantSquare + 1) << 8) | (Math.min(halfmoveClock, 0x3FF) << 15);
+
+        if(flag == Moves.EN_PASSANT) {
+            remove(to + (white ? -8 : 8));
+        } else if(squares[to] != EMPTY) {
+            captured = squares[to];
+            remove(to);
+        }
+        remove(from);
+        put(to, Moves.isPromotion(move) ? Moves.promotionPiece(move, white) : piece);
+
+        if(flag == Moves.KING_CASTLE) {
+            byte rook = squares[from+3];
+            remove(from+3);
+            put(from+1, rook);
+        } else if(flag == Moves.QUEEN_CASTLE) {
+            byte rook = squares[from-4];
+            remove(from-4);
+            put(from-1, rook);
+        }
+
+        hash ^= Zobrist.CASTLING[castlingRights] ^ Zobrist.enPassantKey(enPassantSquare);
+        castlingRights &= CASTLING_MASK[from] & CASTLING_MASK[to];
+        enPassantSquare = NO_SQUARE;
+        if(flag == Moves.DOUBLE_PAWN_PUSH && canCaptureEnPassant((from + to) / 2, !white)) {
+            enPassantSquare = (from + to) / 2;
+        }
+        hash ^= Zobrist.CASTLING[castlingRights] ^ Zobrist.enPassantKey(enPassantSquare) ^ Zobrist.SIDE;
+        if(typeOf(piece) == PAWN || captured != EMPTY || flag == Moves.EN_PASSANT) {
+            halfmoveClock = 0;
+        } else {
+            halfmoveClock++;
+        }
+        if(!white) {
+            fullmoveNumber++;
+        }
+        whiteToMove = !white;
+        return undo | captured;
+    }
+
+    /**
+     * Takes back the last move made on the Position
+     * @param move, the packed move to take back
+     * @param undo, the undo information Position::makeMove returned for the move
+     */
+    public void unmakeMove(int move, int undo) {
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int flag = Moves.flag(move);
+        boolean white = !whiteToMove;
+        byte piece = Moves.isPromotion(move) ? pieceOf(PAWN, white) : squares[to];
+        byte captured = (byte) (undo & 0xF);
+
+        remove(to);
+        put(from, piece);
+        if(flag == Moves.EN_PASSANT) {
+            put(to + (white ? -8 : 8), pieceOf(PAWN, !white));
+        } else if(captured != EMPTY) {
+            put(to, captured);
+        }
+
+        if(flag == Moves.KING_CASTLE) {
+            byte rook = squares[from+1];
+            remove(from+1);
+            put(from+3, rook);
+        } else if(flag == Moves.QUEEN_CASTLE) {
+            byte rook = squares[from-1];
+            remove(from-1);
+            put(from-4, rook);
+        }
+
+        hash ^= Zobrist.CASTLING[castlingRights] ^ Zobrist.enPassantKey(enPassantSquare);
+        castlingRights = (undo >>> 4) & 0xF;
+        enPassantSquare = ((undo >>> 8) & 0x7F) - 1;
+        hash ^= Zobrist.CASTLING[castlingRights] ^ Zobrist.enPassantKey(enPassantSquare) ^ Zobrist.SIDE;
+        halfmoveClock = (undo >>> 15) & 0x3FF;
+        if(!white) {
+            fullmoveNumber--;
+        }
+        whiteToMove = white;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Parses standard algebraic notation (SAN) such as Nbd7, exd6, e8=Q+ or O-O against a Position
+ * 10/17/26
+ */
+package engine;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class SAN {
+
+    private static final String PIECE_LETTERS = " PBNRQK"; //SAN letter at each piece type
+
+    private SAN() {}
+
+    /**
+     * Finds the legal move written in SAN
+     * @param position, the Position the move is played in
+     * @param san, the move text
+     * @return the packed move, or Moves.NONE if the text is not exactly one legal move
+     */
+    public static int parse(Position position, CharSequence san) {
+        return parse(position, san, new MoveList());
+    }
+
+    /**
+     * Finds the legal move written in SAN without allocating
+     * Check and annotation suffixes (+ # ! ? $ e.p.) are ignored, a pawn promotion may be written
+     * with or without the '=' and castling with either letter O or digit 0
+     * @param position, the Position the move is played in
+     * @param san, the move text
+     * @param list, a MoveList the legal moves are generated into
+     * @return the packed move, or Moves.NONE if the text is not exactly one legal move
+     */
+    public static int parse(Position position, CharSequence san, MoveList list) {
+        int end = san.length();
+        while(end > 0) {
+            if(isSuffix(san.charAt(end - 1))) {
+                end--;
+            } else if(end > 4 && san.charAt(end - 1) == '.' && san.charAt(end - 2) == 'p'
+                    && san.charAt(end - 3) == '.' && san.charAt(end - 4) == 'e') {
+                end -= 4; //e.p. as written by the GUI's notation
+            } else {
+                break;
+            }
+        }
+        if(end < 2) {
+            return Moves.NONE;
+        }
+        position.generateMoves(list);
+
+        if(san.charAt(0) == 'O' || san.charAt(0) == '0') {
+            int flag;
+            if(isCastle(san, end, 3)) {
+                flag = Moves.KING_CASTLE;
+            } else if(isCastle(san, end, 5)) {
+                flag = Moves.QUEEN_CASTLE;
+            } else {
+                return Moves.NONE;
+            }
+            for(int i = 0; i < list.size(); i++) {
+                if(Moves.flag(list.get(i)) == flag) {
+                    return list.get(i);
+                }
+            }
+            return Moves.NONE;
+        }
+
+        int start = 0;
+        int type = PIECE_LETTERS.indexOf(san.charAt(0));
+        if(type >= Position.PAWN) { //an explicit P is allowed for pawns
+            start = 1;
+        } else {
+            type = Position.PAWN;
+        }
+
+        int promotion = Position.EMPTY;
+        if(type == Position.PAWN) {
+            int letter = PIECE_LETTERS.indexOf(san.charAt(end - 1));
+            if(letter > Position.PAWN && letter < Position.KING) {
+                promotion = letter;
+                end--;
+                if(end > 0 && san.charAt(end - 1) == '=') {
+                    end--;
+                }
+            }
+        }
+        if(end - start < 2) {
+            return Moves.NONE;
+        }
+        int toCol = san.charAt(end - 2) - 'a';
+        int toRow = san.charAt(end - 1) - '1';
+        if(toCol < 0 || toCol > 7 || toRow < 0 || toRow > 7) {
+            return Moves.NONE;
+        }
+        int to = Moves.square(toRow, toCol);
+
+        int fromCol = -1; //disambiguation, -1 when not given
+        int fromRow = -1;
+        for(int i = start; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if(c >= 'a' && c <= 'h') {
+                fromCol = c - 'a';
+            } else if(c >= '1' && c <= '8') {
+                fromRow = c - '1';
+            } else if(c != 'x' && c != ':' && c != '-') {
+                return Moves.NONE;
+            }
+        }
+
+        int found = Moves.NONE;
+        for(int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            int from = Moves.from(move);
+            if(Moves.to(move) != to || Position.typeOf(position.pieceAt(from)) != type
+                    || (fromCol >= 0 && Moves.col(from) != fromCol) || (fromRow >= 0 && Moves.row(from) != fromRow)) {
+                continue;
+            }
+            if(Moves.isPromotion(move) ? Position.typeOf(Moves.promotionPiece(move, true)) != promotion
+                    : promotion != Position.EMPTY) {
+                continue;
+            }
+            if(found != Moves.NONE) {
+                return Moves.NONE; //ambiguous
+            }
+            found = move;
+        }
+        return found;
+    }
+
+    private static boolean isSuffix(char c) {
+        return c == '+' || c == '#' || c == '!' || c == '?' || c == '$'; //$ marks stalemate in the GUI's notation
+    }
+
+    /**
+     * Returns whether or not the text is O-O (length 3) or O-O-O (length 5), with either O or 0
+     */
+    private static boolean isCastle(CharSequence san, int end, int length) {
+        if(end != length) {
+            return false;
+        }
+        for(int i = 0; i < length; i++) {
+            char c = san.charAt(i);
+            if(i % 2 == 0 ? c != 'O' && c != '0' : c != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
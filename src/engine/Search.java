@@ -0,0 +1,501 @@
+/*
+ * Headless iterative deepening alpha-beta search used by the computer opponent
+ * Principal variation search with a quiescence search over captures, moves are ordered by
+ * the principal variation of the previous iteration or the transposition table move followed by MVV-LVA
+ * 10/17/26
+ */
+package engine;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class Search {
+
+    public static final int MAX_PLY = 64;
+    public static final int MAX_DEPTH = 32;
+    public static final int INFINITY = 32000;
+    public static final int MATE = 31000; //mate in n plies scores MATE - n
+    public static final int DRAW = 0;
+
+    private static final int CHECK_INTERVAL = 2047; //nodes between checks of the clock
+    private static final int PV_SCORE = 2000000; //move ordering scores
+    private static final int CAPTURE_SCORE = 1000000;
+
+    private final TranspositionTable table;
+    private final int helper; //0 for a Search of its own, the thread index in a ParallelSearch
+    private final PawnTable pawnTable = new PawnTable(); //owned by the thread running the Search
+    private final MoveList[] lists = new MoveList[MAX_PLY]; //one preallocated list per ply
+    private final int[][] orderScores = new int[MAX_PLY][MoveList.CAPACITY];
+    private final int[][] pv = new int[MAX_PLY][MAX_PLY]; //triangular principal variation table
+    private final int[] pvLength = new int[MAX_PLY];
+    private int[] previousPV = new int[0];
+    private boolean followPV;
+
+    private long[] hashes = new long[MAX_PLY + 1]; //game history followed by the searched line
+    private int historySize;
+    private int hashCount;
+
+    private Position position;
+    private long nodes;
+    private volatile long publishedNodes; //node count readable by other threads
+    private long start;
+    private long deadline;
+    private boolean aborted;
+    private volatile boolean stopped;
+
+    /**
+     * Constructs a Search sharing a transposition table, which may be shared with other
+     * Searches running at the same time
+     * @param table, the transposition table
+     */
+    public Search(TranspositionTable table) {
+        this(table, 0);
+    }
+
+    /**
+     * Constructs one of the Searches of a ParallelSearch, helpers start at a different depth
+     * and order quiet moves differently so they do not all search the same tree
+     * @param table, the shared transposition table
+     * @param helper, the index of the thread, 0 for the main thread
+     */
+    Search(TranspositionTable table, int helper) {
+        this.table = table;
+        this.helper = helper;
+        for(int i = 0; i < MAX_PLY; i++) {
+            lists[i] = new MoveList();
+        }
+    }
+
+    public Search() {
+        this(new TranspositionTable());
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    public PawnTable getPawnTable() {
+        return pawnTable;
+    }
+
+    /**
+     * Sets the hashes of the game positions played before the root, so the search can
+     * see repetitions of them
+     * @param history, the hashes in the order they were played, not including the root
+     */
+    public void setHistory(long[] history) {
+        if(history.length + MAX_PLY + 1 > hashes.length) {
+            hashes = new long[history.length + MAX_PLY + 1];
+        }
+        System.arraycopy(history, 0, hashes, 0, history.length);
+        historySize = history.length;
+    }
+
+    /**
+     * Stops a running search as soon as possible, may be called from any thread
+     * The result of the last completed iteration is returned by Search::search
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Returns the nodes searched so far, may be called from any thread while searching
+     * @return the node count, updated every few thousand nodes
+     */
+    public long getNodes() {
+        return publishedNodes;
+    }
+
+    /**
+     * Searches a Position with iterative deepening until the depth or time limit is reached
+     * @param root, the Position to search (not modified)
+     * @param maxDepth, the deepest iteration to search
+     * @param timeMillis, the time limit in milliseconds, 0 for no limit
+     * @param listener, receives the result of each completed iteration, may be null
+     * @return the result of the deepest completed iteration
+     */
+    public SearchInfo search(Position root, int maxDepth, long timeMillis, Consumer<SearchInfo> listener) {
+        if(maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Search depth must be between 1 and " + MAX_DEPTH);
+        }
+        stopped = false;
+        table.newSearch();
+        return iterate(root, maxDepth, timeMillis, listener);
+    }
+
+    /**
+     * Clears the stop flag of a helper its ParallelSearch stopped at the end of a search,
+     * so the ParallelSearch can search again
+     */
+    void clearStop() {
+        stopped = false;
+    }
+
+    /**
+     * Runs the iterative deepening loop, Search::search without starting a new search of the table
+     * @param root, the Position to search (not modified)
+     * @param maxDepth, the deepest iteration to search
+     * @param timeMillis, the time limit in milliseconds, 0 for no limit
+     * @param listener, receives the result of each completed iteration, may be null
+     * @return the result of the deepest completed iteration
+     */
+    SearchInfo iterate(Position root, int maxDepth, long timeMillis, Consumer<SearchInfo> listener) {
+        position = root.copy();
+        nodes = 0;
+        publishedNodes = 0;
+        aborted = false;
+        start = System.nanoTime();
+        deadline = timeMillis > 0 ? start + timeMillis * 1000000 : Long.MAX_VALUE;
+        hashes[historySize] = position.getHash();
+        hashCount = historySize + 1;
+        previousPV = new int[0];
+
+        MoveList roots = lists[0];
+        position.generateMoves(roots);
+        if(roots.isEmpty()) {
+            return new SearchInfo(0, position.inCheck() ? -MATE : DRAW, 0, 0, new int[0]);
+        }
+        SearchInfo best = new SearchInfo(0, 0, 0, 0, new int[] {roots.get(0)});
+        for(int depth = 1 + (helper & 1); depth <= maxDepth; depth++) {
+            followPV = true;
+            int score = negamax(depth, 0, -INFINITY, INFINITY);
+            if(aborted) {
+                break;
+            }
+            previousPV = Arrays.copyOf(pv[0], pvLength[0]);
+            best = new SearchInfo(depth, score, nodes, System.nanoTime() - start, previousPV);
+            if(listener != null) {
+                listener.accept(best);
+            }
+            if(best.isMate()) {
+                break;
+            }
+            if(deadline != Long.MAX_VALUE && System.nanoTime() - start > (deadline - start) / 2) {
+                break; //the next iteration would not finish in time
+            }
+        }
+        publishedNodes = nodes;
+        return best;
+    }
+
+    /**
+     * Searches a node with principal variation search, the first move is searched with the
+     * full window and the rest with a null window, re-searched if they turn out better
+     * @param depth, remaining depth in plies
+     * @param ply, distance from the root
+     * @param alpha, the lower bound
+     * @param beta, the upper bound
+     * @return the score from the point of view of the side to move
+     */
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if(ply > 0 && isDraw()) {
+            return DRAW;
+        }
+        boolean inCheck = position.inCheck();
+        if(inCheck) {
+            depth++; //never drop into the quiescence search while in check
+        }
+        if(depth <= 0) {
+            return quiescence(ply, alpha, beta);
+        }
+        if(ply >= MAX_PLY - 1) {
+            return Evaluation.evaluate(position, pawnTable);
+        }
+        countNode();
+        if(aborted) {
+            return 0;
+        }
+        long hash = position.getHash();
+        boolean pvNode = beta - alpha > 1;
+        long entry = table.probe(hash);
+        int hashMove = Moves.NONE;
+        if(entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if(!pvNode && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if(bound == TranspositionTable.EXACT
+                        || bound == TranspositionTable.LOWER && score >= beta
+                        || bound == TranspositionTable.UPPER && score <= alpha) {
+                    return score;
+                }
+            }
+        }
+        MoveList list = lists[ply];
+        position.generateMoves(list);
+        if(list.isEmpty()) {
+            return inCheck ? -MATE + ply : DRAW;
+        }
+        int pvMove = followPV && ply < previousPV.length ? previousPV[ply] : Moves.NONE;
+        if(pvMove == Moves.NONE || !list.contains(pvMove)) {
+            followPV = false;
+            pvMove = list.contains(hashMove) ? hashMove : Moves.NONE;
+        }
+        scoreMoves(list, ply, pvMove);
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = Moves.NONE;
+        for(int i = 0; i < list.size(); i++) {
+            int move = nextMove(list, ply, i);
+            int undo = position.makeMove(move);
+            hashes[hashCount++] = position.getHash();
+            int score;
+            if(i == 0) {
+                score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            } else {
+                score = -negamax(depth - 1, ply + 1, -alpha - 1, -alpha);
+                if(score > alpha && score < beta) {
+                    score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+                }
+            }
+            hashCount--;
+            position.unmakeMove(move, undo);
+            followPV = false;
+            if(aborted) {
+                return 0;
+            }
+            if(score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if(score > alpha) {
+                    alpha = score;
+                    updatePV(ply, move);
+                    if(alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        int bound = bestScore >= beta ? TranspositionTable.LOWER
+                : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(hash, bound == TranspositionTable.UPPER ? Moves.NONE : bestMove, toTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    /**
+     * Converts a mate score relative to the root into one relative to the position, so it
+     * stays correct when the position is reached at another ply
+     * @param score, the score relative to the root
+     * @param ply, the ply of the position
+     * @return the score to store
+     */
+    private static int toTable(int score, int ply) {
+        if(score >= MATE - MAX_PLY) {
+            return score + ply;
+        } else if(score <= -MATE + MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if(score >= MATE - MAX_PLY) {
+            return score - ply;
+        } else if(score <= -MATE + MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Searches captures and promotions until the position is quiet, so the static evaluation
+     * is never taken in the middle of an exchange
+     * @param ply, distance from the root
+     * @param alpha, the lower bound
+     * @param beta, the upper bound
+     * @return the score from the point of view of the side to move
+     */
+    private int quiescence(int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        countNode();
+        if(aborted) {
+            return 0;
+        }
+        int standPat = Evaluation.evaluate(position, pawnTable);
+        if(ply >= MAX_PLY - 1 || standPat >= beta) {
+            return standPat;
+        }
+        if(standPat > alpha) {
+            alpha = standPat;
+        }
+        MoveList list = lists[ply];
+        position.generateCaptures(list);
+        scoreMoves(list, ply, Moves.NONE);
+        for(int i = 0; i < list.size(); i++) {
+            int move = nextMove(list, ply, i);
+            int undo = position.makeMove(move);
+            int score = -quiescence(ply + 1, -beta, -alpha);
+            position.unmakeMove(move, undo);
+            if(aborted) {
+                return 0;
+            }
+            if(score > alpha) {
+                alpha = score;
+                updatePV(ply, move);
+                if(alpha >= beta) {
+                    break;
+                }
+            }
+        }
+        return alpha;
+    }
+
+    /**
+     * Returns whether or not the current position is drawn by the fifty move rule or by
+     * repeating a position of the game or of the searched line
+     * @return true if the position is a draw
+     */
+    private boolean isDraw() {
+        int clock = position.getHalfmoveClock();
+        if(clock >= 100) {
+            return true;
+        }
+        long hash = position.getHash();
+        int current = hashCount - 1;
+        int oldest = Math.max(current - clock, 0);
+        for(int i = current - 4; i >= oldest; i -= 2) {
+            if(hashes[i] == hash) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Scores each move of a list for ordering: the principal variation move first, then
+     * captures by most valuable victim and least valuable attacker, then quiet moves
+     * @param list, the moves to score
+     * @param ply, the ply of the list
+     * @param pvMove, the principal variation move or Moves.NONE
+     */
+    private void scoreMoves(MoveList list, int ply, int pvMove) {
+        int[] scores = orderScores[ply];
+        for(int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            int score = 0;
+            if(move == pvMove) {
+                score = PV_SCORE;
+            } else if(Moves.isCapture(move)) {
+                int victim = Moves.isEnPassant(move) ? Evaluation.PIECE_VALUES[Position.PAWN]
+                        : Evaluation.valueOf(position.pieceAt(Moves.to(move)));
+                int attacker = Evaluation.valueOf(position.pieceAt(Moves.from(move)));
+                score = CAPTURE_SCORE + victim * 10 - attacker;
+            } else if(helper != 0) {
+                score = ((move * 0x9E3779B1) ^ (helper * 0x7FEB352D)) >>> 28; //perturb the quiet move order
+            }
+            if(Moves.isPromotion(move) && move != pvMove) {
+                score += CAPTURE_SCORE + Evaluation.valueOf(Moves.promotionPiece(move, true));
+            }
+            scores[i] = score;
+        }
+    }
+
+    /**
+     * Swaps the highest scored remaining move into place, a selection sort done lazily since
+     * most nodes cut off after a few moves
+     * @param list, the scored moves
+     * @param ply, the ply of the list
+     * @param index, the index to fill
+     * @return the move at the index
+     */
+    private int nextMove(MoveList list, int ply, int index) {
+        int[] scores = orderScores[ply];
+        int best = index;
+        for(int i = index + 1; i < list.size(); i++) {
+            if(scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = list.get(best);
+        if(best != index) {
+            list.set(best, list.get(index));
+            list.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return move;
+    }
+
+    private void updatePV(int ply, int move) {
+        pv[ply][ply] = move;
+        int length = pvLength[ply + 1];
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, length - ply - 1);
+        pvLength[ply] = Math.max(length, ply + 1);
+    }
+
+    private void countNode() {
+        nodes++;
+        if((nodes & CHECK_INTERVAL) == 0) {
+            publishedNodes = nodes;
+            if(stopped || System.nanoTime() > deadline) {
+                aborted = true;
+            }
+        }
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: [-hash <mb>] [-threads <n>] <command>");
+        System.out.println("  search <millis> [fen]        search for a time, defaults to the start position");
+        System.out.println("  depth <depth> [fen]          search to a fixed depth");
+        System.out.println("  scaling <depth> [fen]        search to a fixed depth with 1, 2, 4... up to n threads");
+    }
+
+    /**
+     * Command line entry point, prints the result of each iteration followed by the
+     * transposition table and pawn table statistics
+     * @param args, the options then the command followed by its arguments, the fen may be given unquoted
+     */
+    public static void main(String[] args) {
+        int hashMB = TranspositionTable.DEFAULT_SIZE_MB;
+        int threads = 0; //defaults to 1 thread, or every processor for a scaling report
+        int first = 0;
+        while(first + 1 < args.length && args[first].startsWith("-")) {
+            if(args[first].equals("-hash")) {
+                hashMB = Integer.parseInt(args[first + 1]);
+            } else if(args[first].equals("-threads")) {
+                threads = Integer.parseInt(args[first + 1]);
+            } else {
+                printUsage();
+                return;
+            }
+            first += 2;
+        }
+        if(args.length - first < 2) {
+            printUsage();
+            return;
+        }
+        String fen = args.length - first > 2 ? String.join(" ", Arrays.copyOfRange(args, first + 2, args.length)) : Perft.START_FEN;
+        Position position = Position.fromFEN(fen);
+        int value = Integer.parseInt(args[first + 1]);
+        if(args[first].equals("scaling")) {
+            ParallelSearch.printScaling(position, value, hashMB, threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+            return;
+        }
+        TranspositionTable table = new TranspositionTable(hashMB);
+        ParallelSearch search = new ParallelSearch(table, Math.max(threads, 1));
+        PawnTable pawnTable = search.getPawnTable();
+        Consumer<SearchInfo> listener = (info) -> System.out.println(info + String.format(Locale.ROOT,
+                " hashfull %.1f%% hashhits %.1f%% pawnhits %.1f%%", table.getFill(), table.getHitRate(), pawnTable.getHitRate()));
+        SearchInfo result;
+        switch(args[first]) {
+            case "search":
+                result = search.search(position, MAX_DEPTH, value, listener);
+                break;
+            case "depth":
+                result = search.search(position, value, 0, listener);
+                break;
+            default:
+                printUsage();
+                return;
+        }
+        System.out.println("bestmove " + Moves.toUCI(result.getBestMove()));
+    }
+}
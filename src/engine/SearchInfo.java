@@ -0,0 +1,102 @@
+/*
+ * The result of one completed iteration of the Search
+ * 10/17/26
+ */
+package engine;
+
+import java.util.Locale;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class SearchInfo {
+
+    private final int depth;
+    private final int score; //centipawns from the point of view of the side to move
+    private final long nodes;
+    private final long nanos;
+    private final int[] pv; //principal variation, the first move is the best move
+
+    public SearchInfo(int depth, int score, long nodes, long nanos, int[] pv) {
+        this.depth = depth;
+        this.score = score;
+        this.nodes = nodes;
+        this.nanos = nanos;
+        this.pv = pv;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public int[] getPV() {
+        return pv;
+    }
+
+    /**
+     * Returns the best move found
+     * @return the packed move, or Moves.NONE if the root has no legal moves
+     */
+    public int getBestMove() {
+        return pv.length > 0 ? pv[0] : Moves.NONE;
+    }
+
+    public long getNodesPerSecond() {
+        return nanos > 0 ? (long) (nodes / (nanos / 1e9)) : 0;
+    }
+
+    /**
+     * Returns whether or not the score is a forced mate for either side
+     * @return true if the score is a mate score
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+    }
+
+    /**
+     * Returns the score as text, either in pawns such as +0.35 or as a mate such as #3 or #-2
+     * @return the score text
+     */
+    public String getScoreString() {
+        if(isMate()) {
+            int plies = Search.MATE - Math.abs(score);
+            int moves = (plies + 1) / 2;
+            return score > 0 ? "#" + moves : "#-" + moves;
+        }
+        return String.format(Locale.ROOT, "%+.2f", score / 100.0);
+    }
+
+    /**
+     * Returns the principal variation in long algebraic notation
+     * @return the moves separated by spaces
+     */
+    public String getPVString() {
+        StringBuilder str = new StringBuilder();
+        for(int move : pv) {
+            if(str.length() > 0) {
+                str.append(' ');
+            }
+            str.append(Moves.toUCI(move));
+        }
+        return str.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "depth %d score %s nodes %d nps %d time %d pv %s",
+                depth, getScoreString(), nodes, getNodesPerSecond(), nanos / 1000000, getPVString());
+    }
+}
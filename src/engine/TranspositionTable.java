@@ -0,0 +1,188 @@
+/*
+ * Fixed size hash table of search results shared by every thread searching a game
+ * Entries live in two primitive long arrays and are verified by XOR instead of locks
+ * 10/17/26
+ */
+package engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class TranspositionTable {
+
+    public static final int EXACT = 1; //bounds of a stored score
+    public static final int LOWER = 2; //the score failed high, the real score is at least this
+    public static final int UPPER = 3; //the score failed low, the real score is at most this
+    public static final int DEFAULT_SIZE_MB = 16;
+    public static final int MAX_SIZE_MB = 4096;
+
+    private static final int ENTRY_BYTES = 16; //one key and one data long
+    private static final int FILL_SAMPLE = 1000; //entries sampled to estimate the fill
+
+    /*
+     * Data Layout:
+     * bits 0-15 - packed move (moves only use 16 bits)
+     * bits 16-31 - score as a signed short
+     * bits 32-39 - depth
+     * bits 40-41 - bound
+     * bits 42-49 - generation of the search that stored the entry
+     *
+     * keys holds the hash XOR the data, so an entry torn by two threads writing at the same
+     * time no longer verifies against either hash and reads as a miss
+     */
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private final int sizeMB;
+    private volatile int generation;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Constructs a table using at most a number of megabytes, the entry count is rounded
+     * down to a power of two
+     * @param sizeMB, the size in megabytes
+     */
+    public TranspositionTable(int sizeMB) {
+        if(sizeMB < 1 || sizeMB > MAX_SIZE_MB) {
+            throw new IllegalArgumentException("Transposition table size must be between 1 and " + MAX_SIZE_MB + " MB");
+        }
+        int entries = (int) Long.highestOneBit(sizeMB * 1048576L / ENTRY_BYTES);
+        keys = new long[entries];
+        data = new long[entries];
+        mask = entries - 1;
+        this.sizeMB = sizeMB;
+    }
+
+    public TranspositionTable() {
+        this(DEFAULT_SIZE_MB);
+    }
+
+    public int getSizeMB() {
+        return sizeMB;
+    }
+
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    /**
+     * Looks up the entry of a position
+     * @param hash, the Zobrist hash of the position
+     * @return the entry data, or 0 if the table holds no entry for the position
+     */
+    public long probe(long hash) {
+        probes.increment();
+        int index = (int) hash & mask;
+        long entry = data[index];
+        if(entry != 0 && (keys[index] ^ entry) == hash) {
+            hits.increment();
+            return entry;
+        }
+        return 0;
+    }
+
+    /**
+     * Stores a search result, replacing the old entry of the slot unless the old entry
+     * belongs to this search and was searched deeper
+     * @param hash, the Zobrist hash of the position
+     * @param move, the best move or Moves.NONE
+     * @param score, the score (mate scores relative to the position)
+     * @param depth, the depth the position was searched to
+     * @param bound, EXACT, LOWER or UPPER
+     */
+    public void store(long hash, int move, int score, int depth, int bound) {
+        int index = (int) hash & mask;
+        long old = data[index];
+        if(old != 0 && generation(old) == generation && (keys[index] ^ old) != hash && depth(old) > depth) {
+            return;
+        }
+        if(move == Moves.NONE && (keys[index] ^ old) == hash) {
+            move = move(old); //keep the best move of a shallower search of the same position
+        }
+        long entry = (move & 0xFFFFL)
+                | ((score & 0xFFFFL) << 16)
+                | ((long) (depth & 0xFF) << 32)
+                | ((long) bound << 40)
+                | ((long) generation << 42);
+        data[index] = entry;
+        keys[index] = hash ^ entry;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    public static int score(long entry) {
+        return (short) (entry >>> 16);
+    }
+
+    public static int depth(long entry) {
+        return (int) ((entry >>> 32) & 0xFF);
+    }
+
+    public static int bound(long entry) {
+        return (int) ((entry >>> 40) & 3);
+    }
+
+    private static int generation(long entry) {
+        return (int) ((entry >>> 42) & 0xFF);
+    }
+
+    /**
+     * Starts a new search, entries of older searches are replaced first
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Removes every entry and resets the statistics
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+        resetStats();
+    }
+
+    public void resetStats() {
+        probes.reset();
+        hits.reset();
+    }
+
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the percentage of probes that found an entry since the statistics were reset
+     * @return the hit rate between 0 and 100
+     */
+    public double getHitRate() {
+        long total = probes.sum();
+        return total > 0 ? 100.0 * hits.sum() / total : 0;
+    }
+
+    /**
+     * Estimates the percentage of the table used by the current search from a sample of entries
+     * @return the fill between 0 and 100
+     */
+    public double getFill() {
+        int sample = Math.min(FILL_SAMPLE, data.length);
+        int used = 0;
+        for(int i = 0; i < sample; i++) {
+            if(data[i] != 0 && generation(data[i]) == generation) {
+                used++;
+            }
+        }
+        return 100.0 * used / sample;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Random keys used to hash a Position into a 64 bit Zobrist key
+ * The keys are generated from a fixed seed so hashes are stable between runs
+ * 10/17/26
+ */
+package engine;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x2545F4914F6CDD1DL;
+
+    static final long[][] PIECES = new long[13][64]; //[piece code][square], index 0 is unused
+    static final long[] CASTLING = new long[16]; //one key per castling rights combination
+    static final long[] EN_PASSANT = new long[8]; //one key per en passant file
+    static final long SIDE; //xor-ed in when black is to move
+    static final long[][] PAWNS = new long[13][64]; //the PIECES keys of the pawns, 0 for every other piece
+
+    static {
+        long state = SEED;
+        for(int piece = 1; piece < PIECES.length; piece++) {
+            for(int square = 0; square < 64; square++) {
+                state += 0x9E3779B97F4A7C15L;
+                PIECES[piece][square] = mix(state);
+            }
+        }
+        for(int i = 1; i < CASTLING.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            CASTLING[i] = mix(state); //no rights hashes to 0
+        }
+        for(int i = 0; i < EN_PASSANT.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            EN_PASSANT[i] = mix(state);
+        }
+        state += 0x9E3779B97F4A7C15L;
+        SIDE = mix(state);
+        PAWNS[Position.WHITE_PAWN] = PIECES[Position.WHITE_PAWN];
+        PAWNS[Position.BLACK_PAWN] = PIECES[Position.BLACK_PAWN];
+    }
+
+    private Zobrist() {}
+
+    /**
+     * SplitMix64 finalizer, turns a counter into a well distributed random number
+     * @param z, the counter value
+     * @return the random number
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static long enPassantKey(int square) {
+        return square == Position.NO_SQUARE ? 0 : EN_PASSANT[Moves.col(square)];
+    }
+}
@@ -1,17 +1,19 @@
 /*
  * A class to represent a Board within a chess Game
- * Manages Board logic and boardGUI
- * A core assumption is that the tiles[][] start from the legal starting position
+ * Renders a Position to the boardGUI, all rules are calculated by the Position
  * 7/3/20
  */
 package gui;
 
+import engine.Moves;
+import engine.Position;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import static gui.Game.HEIGHT;
 import static gui.Game.WIDTH;
@@ -28,8 +30,6 @@ public class Board {
         PieceType.WhiteRook, PieceType.WhiteQueen, PieceType.WhiteKing, 
         PieceType.BlackPawn, PieceType.BlackBishop, PieceType.BlackKnight,
         PieceType.BlackRook, PieceType.BlackQueen, PieceType.BlackKing};
-    public static final int UPPER_BOUND = 8;
-    public static final int LOWER_BOUND = -1;
     
     private Pane boardGUI;
     private final Tile[][] tiles = new Tile[HEIGHT][WIDTH]; //board tiles
@@ -37,32 +37,8 @@ public class Board {
     private final ArrayList<Piece> whiteNotKing = new ArrayList<>();
     private Piece blackKing; //kings
     private Piece whiteKing;
-    private final ArrayList<Tile> attackingKing = new ArrayList<>(); //tiles attacking King
-    private final ArrayList<Tile> attackWhiteListed = new ArrayList<>(); //available tiles during attack
-    private final ArrayList<Tile> kingCanMove = new ArrayList<>(); //available tiles for King
-    
-    /**
-     * Normalizes a value direction within the context of Chess to be quantifiable into
-     * the basic system of Rows and Columns. If the number is equal to 0, the 
-     * normalized value is 0. Otherwise it is the number divided by its absolute 
-     * value, which would retain the sign, specifying the direction of movement.
-     * @param num, the number to be normalized
-     * @return the normalized value
-     */
-    public static int normalize(int num) {
-        return num == 0 ? 0 : num/Math.abs(num);
-    }
-    
-    /**
-     * Returns whether or not a row and column position is within the bounds of 
-     * a chess Board
-     * @param row, the row for the position
-     * @param col, the column for the position
-     * @return true or false
-     */
-    protected static boolean withinBounds(int row, int col) {
-        return (row < UPPER_BOUND && row > LOWER_BOUND) && (col < UPPER_BOUND && col > LOWER_BOUND);
-    }
+    private final LegalMoveCache moveCache = new LegalMoveCache(); //legal moves of every rendered Position
+    private int[] legalMoves = new int[0]; //legal moves of the rendered Position
     
     /**
      * Returns the character notation for a given number 
@@ -97,16 +73,12 @@ public class Board {
         return whiteKing;
     }
 
-    public ArrayList<Tile> getAttackingKing() {
-        return attackingKing;
-    }
-
-    public ArrayList<Tile> getAttackWhiteListed() {
-        return attackWhiteListed;
+    public int[] getLegalMoves() {
+        return legalMoves;
     }
 
-    public ArrayList<Tile> getKingCanMove() {
-        return kingCanMove;
+    public LegalMoveCache getMoveCache() {
+        return moveCache;
     }
     
     public Piece getKing(boolean white) {
@@ -114,355 +86,174 @@ public class Board {
     }
     
     /**
-     * Calculates whether or not the pieces of a given Side belonging to the board 
-     * have any legal moves.
-     * @param white, whether the color of the pieces to be checked is white
-     * @return whether or not a Side has any legal moves
+     * Returns whether or not the side to move in the rendered Position has any legal moves
+     * (only valid after Board::calculateMoves)
+     * @return whether or not the side to move has any legal moves
      */
-    public boolean hasLegalMoves(boolean white) {
-        ArrayList<Piece> pieces = white ? whiteNotKing : blackNotKing;
-        boolean legal = false;
-        for(Piece piece : pieces) {
-            if(piece.hasLegalMoves()) {
-                legal = true;
-            }
+    public boolean hasLegalMoves() {
+        return legalMoves.length > 0;
+    }
+    
+    /**
+     * Looks up the legal moves of the side to move in a Position and hands each move
+     * to the Piece on the move's origin tile to be rendered
+     * The moves are only generated the first time a Position is rendered
+     * @param position, the Position the Board is rendering
+     */
+    public void calculateMoves(Position position) {
+        legalMoves = moveCache.getMoves(position);
+        if(whiteKing == null) {
+            return; //no Piece nodes, the Board is drawn by a CanvasBoard
         }
-        Piece king = white ? whiteKing : blackKing;
-        if(king.hasLegalMoves()) {
-            legal = true;
+        whiteNotKing.forEach(Piece::clearAvailable);
+        blackNotKing.forEach(Piece::clearAvailable);
+        whiteKing.clearAvailable();
+        blackKing.clearAvailable();
+        for(int move : legalMoves) {
+            int from = Moves.from(move);
+            tiles[Moves.row(from)][Moves.col(from)].getPiece().addAvailable(move);
         }
-        return legal;
     }
     
     /**
-     * Calculates the moves for all the pieces of a given Side
-     * @param white, whether the pieces to be used are white
+     * Drops the Tile and Piece nodes of the rendered Position when the Board
+     * is to be drawn by a CanvasBoard instead, the legal moves are still calculated
      */
-    public void calculateMoves(boolean white) {
-        Piece king = white ? whiteKing : blackKing;
-        attackingKing(king,attackingKing);
-        kingCanMove(king,attackingKing,kingCanMove);
-        king.calcAvailableMoves();
-        attackWhiteListed(attackingKing,king,attackWhiteListed);
-        if(white) {
-            whiteNotKing.forEach(Piece::calcAvailableMoves);
-        } else {
-            blackNotKing.forEach(Piece::calcAvailableMoves);
+    public void clear() {
+        blackNotKing.clear();
+        whiteNotKing.clear();
+        blackKing = null;
+        whiteKing = null;
+        for(Tile[] row : tiles) {
+            Arrays.fill(row, null);
         }
+        boardGUI = null;
     }
     
     /**
-     * Calculates whether or not a certain position is in Check, in another sense,
-     * whether or not a given King WOULD BE in check if it were on that position.
-     * 
-     * Calculation is performed by checking all of the possible attacking squares
-     * with a Diagonal shaped checking algorithm, a Horizontal one, and an L-shaped
-     * one. Each algorithm checks for specific attacking pieces. 
-     * If an attacking piece is found the algorithm ends
-     * 
-     * @param king, the king to check for and perform evaluations on
-     * @param row, the row of the position
-     * @param col, the column of the position
-     * @return whether or not the position is in Check
+     * Adds a Piece to its tile, the piece lists and a Board GUI
+     * @param piece, the Piece, already on its tile
+     * @param boardUI, the Board GUI
      */
-    public boolean inCheck(Piece king, int row, int col) {
-        
-        int[][] diagonals = {{1,1},{-1,1},{1,-1},{-1,-1}};
-        int[][] horizontals = {{1,0},{-1,0},{0,-1},{0,1}};
-        int[][] knightOffsets = {{1,2},{2,1},{-1,2},{-2,1},{1,-2},{2,-1},{-1,-2},{-2,-1}};
-        
-        //diagonals: queen, bishop, pawn
-        for (int[] diagonal : diagonals) {
-            int i = 1;
-            boolean canContinue = true;
-            while (canContinue) {
-                if (withinBounds(row+(i*diagonal[0]),col+(i*diagonal[1]))) {
-                    Tile tile = tiles[row+(i*diagonal[0])][col+(i*diagonal[1])];
-                    if (tile.hasPiece() && tile.getPiece() != king
-                            && (tile.getPiece().isWhite() != king.isWhite())) {
-                        Piece piece = tile.getPiece();
-                        if (piece.isBishop() || piece.isQueen()
-                                || (piece.isPawn() && king.isWhite() != piece.isWhite() && i == 1)) {
-                            return true;
-                        }
-                        canContinue = false;
-                    }
-                    if ((tile.hasPiece() && tile.getPiece() != king)) {
-                        canContinue = false;
-                    }
-                } else {
-                    canContinue = false;
-                }
-                i++;
-            }
-        }
-
-        //horizontals: rook and queen
-        for (int[] horizontal : horizontals) {
-            int i = 1;
-            boolean canContinue = true;
-            while (canContinue) {
-                if (withinBounds(row+(i*horizontal[0]),col+(i*horizontal[1]))) {
-                    Tile tile = tiles[row+(i*horizontal[0])][col+(i*horizontal[1])];
-                    if (tile.hasPiece() && tile.getPiece() != king
-                            && (tile.getPiece().isWhite() != king.isWhite())) {
-                        Piece piece = tile.getPiece();
-                        if (piece.isRook() || piece.isQueen()) {
-                            return true;
-                        }
-                        canContinue = false;
-                    }
-                    if ((tile.hasPiece() && tile.getPiece() != king)) {
-                        canContinue = false;
-                    }
-                } else {
-                    canContinue = false;
-                }
-                i++;
+    private void addPiece(Piece piece, Pane boardUI) {
+        if(piece.isWhite()) {
+            if(piece.isKing()) {
+                whiteKing = piece;
+            } else {
+                whiteNotKing.add(piece);
             }
-        }
-        
-        //L-shaped: knight
-        for(int[] offset : knightOffsets) {
-            if(withinBounds(row+offset[0],col+offset[1])) {
-                Tile tile = tiles[row+offset[0]][col+offset[1]];
-                if(tile.hasPiece()) {
-                    Piece piece = tile.getPiece();
-                    if(piece.isKnight() && tile.getPiece() != king &&  
-                            tile.getPiece().isWhite() != king.isWhite()) {
-                        return true;
-                    }
-                }
+        } else {
+            if(piece.isKing()) {
+                blackKing = piece;
+            } else {
+                blackNotKing.add(piece);
             }
         }
-        return false;
+        piece.getTile().setPiece(piece);
+        boardUI.getChildren().add(piece);
+        piece.toFront();
     }
     
     /**
-     * Calculates the tiles attacking a given King and writes the Tiles to
-     * an ArrayList
-     * 
-     * Calculation is performed by checking all of the possible attacking squares
-     * with a Diagonal shaped checking algorithm, a Horizontal one, and an L-shaped
-     * one. Each algorithm checks for specific attacking pieces.
-     * 
-     * @param king, the given King 
-     * @param attackingMoves, the list of tiles to be written to (cleared before writing)
+     * Removes a Piece, no longer on a tile, from the piece lists and the Board GUI
+     * @param piece, the Piece
      */
-    public void attackingKing(Piece king, ArrayList<Tile> attackingMoves) {
-        attackingMoves.clear();
-        int row = king.getTile().getRow();
-        int col = king.getTile().getCol();
-        int[][] diagonals = {{1,1},{-1,1},{1,-1},{-1,-1}};
-        int[][] horizontals = {{1,0},{-1,0},{0,-1},{0,1}};
-        int[][] knightOffsets = {{1,2},{2,1},{-1,2},{-2,1},{1,-2},{2,-1},{-1,-2},{-2,-1}};
-        
-        //diagonals: queen, bishop, pawn
-        for (int[] diagonal : diagonals) {
-            int i = 1;
-            boolean canContinue = true;
-            while (canContinue) {
-                if (withinBounds(row+(i*diagonal[0]),col+(i*diagonal[1]))) {
-                    Tile tile = tiles[row+(i*diagonal[0])][col+(i*diagonal[1])];
-                    if (tile.hasPiece() && (tile.getPiece().isWhite() != king.isWhite())) {
-                        Piece piece = tile.getPiece();
-                        if (piece.isBishop() || piece.isQueen()
-                                || (piece.isPawn() && king.isWhite() != piece.isWhite() && i == 1)) {
-                            attackingMoves.add(tile);
-                        }
-                        canContinue = false;
-                    }
-                    if ((tile.hasPiece() && tile.getPiece() != king)) {
-                        canContinue = false;
-                    }
-                } else {
-                    canContinue = false;
-                }
-                i++;
-            }
-        }
-
-        //horizontals: rook and queen
-        for (int[] horizontal : horizontals) {
-            int i = 1;
-            boolean canContinue = true;
-            while (canContinue) {
-                if (withinBounds(row+(i*horizontal[0]),col+(i*horizontal[1]))) {
-                    Tile tile = tiles[row+(i*horizontal[0])][col+(i*horizontal[1])];
-                    if (tile.hasPiece() && (tile.getPiece().isWhite() != king.isWhite())) {
-                        Piece piece = tile.getPiece();
-                        if (piece.isRook() || piece.isQueen()) {
-                            attackingMoves.add(tile);
-                        }
-                        canContinue = false;
-                    }
-                    if ((tile.hasPiece() && tile.getPiece() != king)) {
-                        canContinue = false;
-                    }
-                } else {
-                    canContinue = false;
-                }
-                i++;
-            }
-        }
-        
-        //L-shaped: knight
-        for(int[] offset : knightOffsets) {
-            if(withinBounds(row+offset[0],col+offset[1])) {
-                Tile tile = tiles[row+offset[0]][col+offset[1]];
-                if(tile.hasPiece()) {
-                    Piece piece = tile.getPiece();
-                    if(piece.isKnight() && tile.getPiece().isWhite() != king.isWhite()) {
-                        attackingMoves.add(tile);
-                    }
-                }
-            }
+    private void removePiece(Piece piece) {
+        if(piece == whiteKing) {
+            whiteKing = null;
+        } else if(piece == blackKing) {
+            blackKing = null;
+        } else if(piece.isWhite()) {
+            whiteNotKing.remove(piece);
+        } else {
+            blackNotKing.remove(piece);
         }
+        boardGUI.getChildren().remove(piece);
     }
     
     /**
-     * Calculates the Tiles a given King can move to given the tiles currently attacking
-     * said King and writes the tiles to an ArrayList
-     * 
-     * Calculation iterates through the available diagonal and horizontal positions
-     * and performs a basic availability evaluation, but with 2 additional rules:
-     * The King cannot move to a square that is inCheck relative to its own type
-     * (Utilizes Board::inCheck)
-     * The King cannot move to a square adjacent to another King,
-     * adjacent King evaluations read from diagonal king check
-     * and horizontal king check offset multidimensional arrays to calculate
-     * the evaluation offsets to be used at each of the horizontal and diagonal offset arrays
-     * 
-     * @param king, the given King
-     * @param attackingKing, the tiles attacking the King
-     * @param canMove, the list of tiles to be written to (cleared before writing)
+     * Updates the Board GUI to a Position by only touching the tiles whose piece differs,
+     * used to navigate a Game without rebuilding the Board GUI
+     * A piece leaving a tile moves to the nearest tile its piece code fills, pieces left over are
+     * removed and tiles left unfilled get a new piece, so a single move touches at most three pieces
+     * @param position, the Position to be rendered
+     * @param game, the game each new Piece belongs to
+     * @param animate, whether or not the moved pieces slide to their tiles
      */
-    public final void kingCanMove(Piece king, ArrayList<Tile> attackingKing, ArrayList<Tile> canMove) {
-        canMove.clear();
-        int row = king.getTile().getRow();
-        int col = king.getTile().getCol();
-        
-        int[][] diagonalOffsets = {{1,1},{1,-1},{-1,1},{-1,-1}};
-        int[][] dkc = {{2,2},{1,2},{2,1},{0,2},{2,0}}; //diagonal king check
-        int[][] horizontalOffsets = {{1,0},{0,1},{-1,0},{0,-1}};
-        int[][][] hkc = {{{2,1},{2,0},{2,-1}},{{1,2},{0,2},{-1,2}},
-            {{-2,1},{-2,0},{-2,-1}},{{1,-2},{0,-2},{-1,-2}}}; //horizontal king check
-        
-        //diagonals
-        for(int[] offset : diagonalOffsets) {
-            if(withinBounds(row+offset[0],col+offset[1])) {
-                Tile tileToMove = tiles[row+offset[0]][col+offset[1]];
-                if((!tileToMove.hasPiece() 
-                || (tileToMove.getPiece().isWhite() != king.isWhite()))
-                && !inCheck(king, row+offset[0], col+offset[1])
-                && (!withinBounds(row+(dkc[0][0]*offset[0]),col+(dkc[0][1]*offset[1]))
-                        || !tiles[row+(dkc[0][0]*offset[0])][col+(dkc[0][1]*offset[1])].hasKing())
-                && (!withinBounds(row+(dkc[1][0]*offset[0]),col+(dkc[1][1]*offset[1])) 
-                        || !tiles[row+(dkc[1][0]*offset[0])][col+(dkc[1][1]*offset[1])].hasKing())
-                && (!withinBounds(row+(dkc[2][0]*offset[0]),col+(dkc[2][1]*offset[1])) 
-                        || !tiles[row+(dkc[2][0]*offset[0])][col+(dkc[2][1]*offset[1])].hasKing())
-                && (!withinBounds(row+(dkc[3][0]*offset[0]),col+(dkc[3][1]*offset[1])) 
-                        || !tiles[row+(dkc[3][0]*offset[0])][col+(dkc[3][1]*offset[1])].hasKing())
-                && (!withinBounds(row+(dkc[4][0]*offset[0]),col+(dkc[4][1]*offset[1])) 
-                        || !tiles[row+(dkc[4][0]*offset[0])][col+(dkc[4][1]*offset[1])].hasKing())) {
-                    canMove.add(tiles[row+offset[0]][col+offset[1]]);
+    public void update(Position position, Game game, boolean animate) {
+        Piece[] leaving = new Piece[HEIGHT*WIDTH]; //pieces by the square they leave
+        int[] filling = new int[HEIGHT*WIDTH]; //squares given a different piece
+        int fillCount = 0;
+        for(int square = 0; square < leaving.length; square++) {
+            Tile tile = tiles[Moves.row(square)][Moves.col(square)];
+            byte piece = position.pieceAt(square);
+            byte rendered = tile.hasPiece() ? tile.getPiece().getInfoCode() : Position.EMPTY;
+            if(piece != rendered) {
+                if(rendered != Position.EMPTY) {
+                    leaving[square] = tile.getPiece();
+                    tile.setPiece(null);
+                }
+                if(piece != Position.EMPTY) {
+                    filling[fillCount++] = square;
                 }
             }
         }
-        
-        //horizontals
-        int i= 0;
-        for(int[] offset : horizontalOffsets) {
-            if(withinBounds(row+offset[0],col+offset[1])) {
-                Tile tileToMove = tiles[row+offset[0]][col+offset[1]];
-                if((!tileToMove.hasPiece() 
-                || (tileToMove.getPiece().isWhite() != king.isWhite()))
-                && !inCheck(king, row+offset[0], col+offset[1])
-                && (!withinBounds(row+(hkc[i][0][0]),col+(hkc[i][0][1]))
-                        || !tiles[row+(hkc[i][0][0])][col+(hkc[i][0][1])].hasKing())
-                && (!withinBounds(row+(hkc[i][1][0]),col+(hkc[i][1][1])) 
-                        || !tiles[row+(hkc[i][1][0])][col+(hkc[i][1][1])].hasKing())
-                && (!withinBounds(row+(hkc[i][2][0]),col+(hkc[i][2][1])) 
-                        || !tiles[row+(hkc[i][2][0])][col+(hkc[i][2][1])].hasKing())) {
-                    canMove.add(tiles[row+offset[0]][col+offset[1]]);
+        for(int i = 0; i < fillCount; i++) {
+            int square = filling[i];
+            Tile tile = tiles[Moves.row(square)][Moves.col(square)];
+            byte code = position.pieceAt(square);
+            int from = nearestLeaving(leaving, code, square);
+            if(from != Position.NO_SQUARE) {
+                Piece piece = leaving[from];
+                leaving[from] = null;
+                piece.setTile(tile);
+                tile.setPiece(piece);
+                if(animate) {
+                    piece.toFront();
+                    piece.moveToSlowly(tile);
+                } else {
+                    piece.moveTo(tile);
                 }
+            } else {
+                addPiece(NOTATION_TO_CONSTRUCTOR_TABLE[code].createPiece(tile, game.getApp().getPath()), boardGUI);
+            }
+        }
+        for(Piece piece : leaving) {
+            if(piece != null) {
+                removePiece(piece);
             }
-            i++;
         }
     }
     
     /**
-     * Calculates the WhiteListed tiles based on a given King and the tiles
-     * attacking it, and writes the WhiteListed tiles to an ArrayList
-     * 
-     * WhiteListed tiles are defined as Tiles that would be able to defend the
-     * King from Check without moving the King itself. When the King is in Check
-     * other pieces may only make whiteListed moves
-     * 
-     * Algorithm is terminated upon 4 conditions:
-     * The list of tiles attacking the King is empty and therefore there is no
-     * whiteList
-     * The list of tiles attacking the King is over 1 and therefore there are no
-     * WhiteListed defense positions
-     * The first attacking Piece is a Knight and therefore the only WhiteListed
-     * tile is the Knight position (a Knight cannot be blocked, only taken to prevent
-     * Check)
-     * Neither is true so the full algorithm is performed: Every tile from the 
-     * attacked King location up until the first attacking Piece location is added
-     * to the WhiteList
-     * 
-     * @param attackingKing, the tiles attacking the given King 
-     * @param king, the given King
-     * @param whiteListed, the ArrayList to be written to, representing the WhiteList
+     * Returns the square of the nearest leaving piece of a piece code
      */
-    public void attackWhiteListed(ArrayList<Tile> attackingKing, Piece king, ArrayList<Tile> whiteListed) {
-        whiteListed.clear();
-        if(attackingKing.size() != 1) {
-            return;
-        }
-        Tile attack = attackingKing.get(0);
-        if(attack.hasPiece() && attack.getPiece().isKnight()) {
-            whiteListed.add(attack);
-            return;
-        }
-        int row = king.getTile().getRow(); //start at king
-        int col = king.getTile().getCol();
-        int r = normalize(attack.getRow() - king.getTile().getRow());
-        int c = normalize(attack.getCol() - king.getTile().getCol());
-        boolean atAttacker = false; //loop until at attacker
-        while (!atAttacker) {
-            if(withinBounds(row+r,col+c)) {
-                Tile t = tiles[row+r][col+c];
-                if (t.getPiece() == attack.getPiece()) {
-                    atAttacker = true;
-                }
-                whiteListed.add(t); //add all tiles to whiteList
-                if (r > 0) { //travel in the direction of normalized trajectory
-                    r++;
-                } else if (r < 0) {
-                    r--;
-                }
-                if (c > 0) {
-                    c++;
-                } else if (c < 0) {
-                    c--;
+    private static int nearestLeaving(Piece[] leaving, byte code, int square) {
+        int nearest = Position.NO_SQUARE;
+        int nearestDistance = Integer.MAX_VALUE;
+        for(int from = 0; from < leaving.length; from++) {
+            if(leaving[from] != null && leaving[from].getInfoCode() == code) {
+                int rows = Moves.row(from) - Moves.row(square);
+                int cols = Moves.col(from) - Moves.col(square);
+                int distance = rows*rows + cols*cols;
+                if(distance < nearestDistance) {
+                    nearest = from;
+                    nearestDistance = distance;
                 }
-            } else {
-                atAttacker = true;
             }
         }
+        return nearest;
     }
     
     /**
      * Initializes the Board object with the BoardGUI viewed from White
      * perspective, and the Board ArrayLists used to store references to the Board
      * pieces
-     * @param board, the board as ByteBoard, a 2D array of bytes representing
-     * the type of piece at each tile row/col position
+     * @param position, the Position to be rendered
      * @param game, the game each Piece belongs to (determines a Piece effect on
      * Game flow and Game GUI)
      */
-    public final void initWhiteBoard(byte[][] board, Game game) {
+    public final void initWhiteBoard(Position position, Game game) {
         blackNotKing.clear();
         whiteNotKing.clear();
         Pane boardUI = new Pane();
@@ -474,24 +265,9 @@ public class Board {
                 tiles[i][j] = tile;
                 boardUI.getChildren().add(tile);
                 isLight = !isLight;
-                Piece piece = NOTATION_TO_CONSTRUCTOR_TABLE[board[i][j]].createPiece(tiles[i][j],game.getApp().getPath());
+                Piece piece = NOTATION_TO_CONSTRUCTOR_TABLE[position.pieceAt(i,j)].createPiece(tiles[i][j],game.getApp().getPath());
                 if(piece != null) {
-                    if(piece.isWhite()) {
-                        if(piece.isKing()) {
-                            whiteKing = piece;
-                        } else {
-                            whiteNotKing.add(piece);
-                        }
-                    } else {
-                        if(piece.isKing()) {
-                            blackKing = piece;
-                        } else {
-                            blackNotKing.add(piece);
-                        }
-                    }
-                    tiles[i][j].setPiece(piece);
-                    boardUI.getChildren().add(piece);
-                    piece.toFront();
+                    addPiece(piece, boardUI);
                 }
                 if(i == 0) {
                     Label notationLabel = new Label(getCharacterNotation(j));
@@ -516,12 +292,11 @@ public class Board {
      * Initializes the Board object with the BoardGUI viewed from Black
      * perspective, and the Board ArrayLists used to store references to the Board
      * pieces
-     * @param board, the board as ByteBoard, a 2D array of bytes representing
-     * the type of piece at each tile row/col position
+     * @param position, the Position to be rendered
      * @param game, the game each Piece belongs to (determines a Piece effect on
      * Game flow and Game GUI)
      */
-    public final void initBlackBoard(byte[][] board, Game game) {
+    public final void initBlackBoard(Position position, Game game) {
         blackNotKing.clear();
         whiteNotKing.clear();
         Pane boardUI = new Pane();
@@ -533,24 +308,9 @@ public class Board {
                 tiles[i][j] = tile;
                 boardUI.getChildren().add(tile);
                 IsLight = !IsLight;
-                Piece piece = NOTATION_TO_CONSTRUCTOR_TABLE[board[i][j]].createPiece(tiles[i][j],game.getApp().getPath());
+                Piece piece = NOTATION_TO_CONSTRUCTOR_TABLE[position.pieceAt(i,j)].createPiece(tiles[i][j],game.getApp().getPath());
                 if(piece != null) {
-                    if(piece.isWhite()) {
-                        if(piece.isKing()) {
-                            whiteKing = piece;
-                        } else {
-                            whiteNotKing.add(piece);
-                        }
-                    } else {
-                        if(piece.isKing()) {
-                            blackKing = piece;
-                        } else {
-                            blackNotKing.add(piece);
-                        }
-                    }
-                    tiles[i][j].setPiece(piece);
-                    boardUI.getChildren().add(piece);
-                    piece.toFront();
+                    addPiece(piece, boardUI);
                 }
                 if(i == WIDTH-1) {
                     Label notationLabel = new Label(getCharacterNotation(j));
@@ -0,0 +1,367 @@
+/*
+ * Draws the Board on a single Canvas instead of a Tile and Piece node per square and piece
+ * Squares, highlights, check rings, coordinates, pieces and move targets are redrawn from the rendered
+ * Position, only a piece being dragged is a live node
+ * 10/17/26
+ */
+package gui;
+
+import engine.Moves;
+import engine.Position;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.FillRule;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+import java.util.ArrayList;
+
+import static gui.Game.HEIGHT;
+import static gui.Game.WIDTH;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class CanvasBoard {
+
+    public static final Color DARK_FONT = Color.rgb(168,138,101); //coordinate colors of chess.css darkfont and lightfont
+    public static final Color LIGHT_FONT = Color.rgb(233,217,183);
+    public static final double LABEL_PADDING = 3;
+
+    private final Game controller; //controller to redirect flow to
+    private final Pane boardGUI = new Pane();
+    private final Canvas canvas;
+    private final GraphicsContext graphics;
+    private final ImageView dragged = new ImageView(); //the only piece node, shown while a piece is dragged
+    private final double tileSize;
+    private final Font labelFont;
+
+    private final byte[] pieces = new byte[HEIGHT*WIDTH]; //piece codes of the rendered Position by square
+    private boolean whiteView = true; //point of view the Board is drawn from
+    private int selected = Position.NO_SQUARE; //square of the selected piece
+    private boolean reselected; //the selected piece was pressed again, a click on it closes it
+    private int dragFrom = Position.NO_SQUARE; //square of the dragged piece, not drawn on the Canvas
+    private int check = Position.NO_SQUARE; //square of the king in check
+    private long highlighted; //bits of the squares of the most recent move
+
+    public Pane getBoardGUI() {
+        return boardGUI;
+    }
+
+    public int getSelected() {
+        return selected;
+    }
+
+    /**
+     * Constructs a CanvasBoard for a Game
+     * @param controller, the Game controller moves made on the Board redirect flow to
+     */
+    public CanvasBoard(Game controller) {
+        this.controller = controller;
+        tileSize = 100*controller.getApp().getScale();
+        labelFont = Font.font("Roboto", FontWeight.BOLD, 17*controller.getApp().getScale());
+        canvas = new Canvas(tileSize*WIDTH, tileSize*HEIGHT);
+        graphics = canvas.getGraphicsContext2D();
+        dragged.setFitWidth(tileSize);
+        dragged.setFitHeight(tileSize);
+        dragged.setMouseTransparent(true);
+        boardGUI.getChildren().add(canvas);
+        boardGUI.setId("board");
+        boardGUI.setStyle("-fx-cursor: hand;");
+        canvas.setOnMousePressed(this::onPressed);
+        canvas.setOnMouseDragged(this::onDragged);
+        canvas.setOnMouseReleased(this::onReleased);
+    }
+
+    /**
+     * Draws a Position, clearing the selection, highlights and check
+     * @param position, the Position to be rendered
+     * @param white, whether the Board is viewed from White's perspective
+     */
+    public void render(Position position, boolean white) {
+        for(int square = 0; square < pieces.length; square++) {
+            pieces[square] = position.pieceAt(square);
+        }
+        whiteView = white;
+        selected = Position.NO_SQUARE;
+        check = Position.NO_SQUARE;
+        highlighted = 0;
+        endDrag();
+        draw();
+    }
+
+    /**
+     * Marks the king in check, drawn with the next highlights
+     * @param square, the king's square
+     */
+    public void setCheck(int square) {
+        check = square;
+    }
+
+    /**
+     * Highlights the tiles of the most recent move and redraws the Board
+     * @param coordinates, the {row, col} of each tile
+     */
+    public void setHighlighted(ArrayList<int[]> coordinates) {
+        highlighted = 0;
+        for(int[] coordinate : coordinates) {
+            highlighted |= 1L << Moves.square(coordinate[0], coordinate[1]);
+        }
+        draw();
+    }
+
+    /**
+     * Clears the selected piece and its move targets
+     */
+    public void clearSelection() {
+        if(selected != Position.NO_SQUARE || dragFrom != Position.NO_SQUARE) {
+            selected = Position.NO_SQUARE;
+            endDrag();
+            draw();
+        }
+    }
+
+    private double squareX(int square) {
+        return (whiteView ? Moves.col(square) : WIDTH-1 - Moves.col(square)) * tileSize;
+    }
+
+    private double squareY(int square) {
+        return (whiteView ? HEIGHT-1 - Moves.row(square) : Moves.row(square)) * tileSize;
+    }
+
+    /**
+     * Returns the square under a point of the Canvas
+     */
+    private int squareAt(double x, double y) {
+        int col = (int) Math.floor(x / tileSize);
+        int row = (int) Math.floor(y / tileSize);
+        if(col < 0 || col >= WIDTH || row < 0 || row >= HEIGHT) {
+            return Position.NO_SQUARE;
+        }
+        return whiteView ? Moves.square(HEIGHT-1 - row, col) : Moves.square(row, WIDTH-1 - col);
+    }
+
+    private Image getImage(byte piece) {
+        return SpriteCache.get(piece, controller.getApp().getPath(), tileSize);
+    }
+
+    /**
+     * Returns whether or not the selected piece's moves are shown, they are for the side to move
+     * unless the Game cannot render them
+     */
+    private boolean showsTargets() {
+        return selected != Position.NO_SQUARE && Position.isWhite(pieces[selected]) == controller.isWhiteTurn()
+                && controller.canRender() && (!controller.isMoveReady() || !controller.isFinished());
+    }
+
+    /**
+     * Returns whether or not the selected piece's moves can be played
+     */
+    private boolean canPlay() {
+        return showsTargets() && controller.isMoveReady() && !controller.isFinished();
+    }
+
+    /**
+     * Returns the first legal move of the selected piece to a square
+     * @param to, the square moved to
+     * @return the packed move, a promotion move is the first of its four, or Moves.NONE
+     */
+    private int targetMove(int to) {
+        if(selected == Position.NO_SQUARE) {
+            return Moves.NONE;
+        }
+        for(int move : controller.getLegalMoves()) {
+            if(Moves.from(move) == selected && Moves.to(move) == to) {
+                return move;
+            }
+        }
+        return Moves.NONE;
+    }
+
+    /**
+     * Redraws every square of the Board
+     */
+    public void draw() {
+        int theme = controller.getApp().getColorTheme();
+        graphics.setFillRule(FillRule.EVEN_ODD);
+        graphics.setFont(labelFont);
+        for(int square = 0; square < pieces.length; square++) {
+            double x = squareX(square);
+            double y = squareY(square);
+            boolean light = (Moves.row(square) + Moves.col(square)) % 2 != 0;
+            if(square == selected) {
+                graphics.setFill(light ? Tile.LIGHT_SELECTED_COLORS[theme] : Tile.DARK_SELECTED_COLORS[theme]);
+            } else {
+                graphics.setFill(light ? Tile.LIGHT_COLORS[theme] : Tile.DARK_COLORS[theme]);
+            }
+            graphics.fillRect(x, y, tileSize, tileSize);
+            if((highlighted & (1L << square)) != 0) {
+                graphics.setFill(Tile.HIGHLIGHT_COLORS[theme]);
+                graphics.fillRect(x, y, tileSize, tileSize);
+            }
+            if(square == check) {
+                graphics.setFill(Tile.CHECK_COLORS[theme]);
+                fillRing(x, y);
+            }
+            drawLabels(square, x, y, light);
+            if(pieces[square] != Position.EMPTY && square != dragFrom) {
+                graphics.drawImage(getImage(pieces[square]), x, y, tileSize, tileSize);
+            }
+        }
+        if(showsTargets()) {
+            for(int move : controller.getLegalMoves()) {
+                if(Moves.from(move) == selected) {
+                    drawTarget(move);
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws the file letters along the bottom of the Board and the rank numbers along its right side
+     */
+    private void drawLabels(int square, double x, double y, boolean light) {
+        graphics.setFill(light ? DARK_FONT : LIGHT_FONT);
+        if(y == (HEIGHT-1) * tileSize) {
+            graphics.setTextAlign(TextAlignment.LEFT);
+            graphics.setTextBaseline(VPos.BOTTOM);
+            graphics.fillText(Board.getCharacterNotation(Moves.col(square)), x + LABEL_PADDING, y + tileSize - LABEL_PADDING);
+        }
+        if(x == (WIDTH-1) * tileSize) {
+            graphics.setTextAlign(TextAlignment.RIGHT);
+            graphics.setTextBaseline(VPos.TOP);
+            graphics.fillText(Integer.toString(Moves.row(square)+1), x + tileSize - LABEL_PADDING, y + LABEL_PADDING);
+        }
+    }
+
+    /**
+     * Draws the target of a move as the Selectable would, a dot on an empty tile and a ring
+     * around a piece to be taken or the king's castling tile
+     */
+    private void drawTarget(int move) {
+        int to = Moves.to(move);
+        double x = squareX(to);
+        double y = squareY(to);
+        if(pieces[to] == Position.EMPTY && !Moves.isCastle(move)) {
+            double radius = 15*controller.getApp().getScale();
+            graphics.setFill(Selectable.GREY);
+            graphics.fillOval(x + tileSize/2 - radius, y + tileSize/2 - radius, radius*2, radius*2);
+        } else {
+            graphics.setFill(Selectable.LIGHT_GREY);
+            fillRing(x, y);
+        }
+    }
+
+    /**
+     * Fills a tile outside of its inscribed circle
+     */
+    private void fillRing(double x, double y) {
+        graphics.beginPath();
+        graphics.rect(x, y, tileSize, tileSize);
+        graphics.arc(x + tileSize/2, y + tileSize/2, tileSize/2, tileSize/2, 0, 360);
+        graphics.closePath();
+        graphics.fill();
+    }
+
+    /**
+     * Selects the piece pressed or plays the move to the tile pressed
+     */
+    private void onPressed(MouseEvent e) {
+        int square = squareAt(e.getX(), e.getY());
+        if(square == Position.NO_SQUARE) {
+            return;
+        }
+        int move = canPlay() ? targetMove(square) : Moves.NONE;
+        if(move != Moves.NONE) {
+            play(move);
+        } else if(pieces[square] != Position.EMPTY) {
+            reselected = square == selected;
+            controller.clearSelectable();
+            selected = square;
+            draw();
+        } else {
+            controller.clearSelectable();
+        }
+    }
+
+    /**
+     * Lifts the selected piece off the Canvas into the dragged node and moves it with the mouse
+     */
+    private void onDragged(MouseEvent e) {
+        if(dragFrom == Position.NO_SQUARE) {
+            if(!canPlay()) {
+                return;
+            }
+            reselected = false;
+            dragFrom = selected;
+            dragged.setImage(getImage(pieces[selected]));
+            boardGUI.getChildren().add(dragged);
+            draw();
+        }
+        dragged.relocate(e.getX() - tileSize/2, e.getY() - tileSize/2);
+    }
+
+    /**
+     * Drops the dragged piece, playing its move if dropped on a target, or closes a piece clicked twice
+     */
+    private void onReleased(MouseEvent e) {
+        if(dragFrom != Position.NO_SQUARE) {
+            int move = targetMove(squareAt(e.getX(), e.getY()));
+            if(move != Moves.NONE && canPlay()) {
+                play(move);
+            } else {
+                endDrag();
+                draw();
+            }
+        } else if(reselected) {
+            reselected = false;
+            controller.clearSelectable();
+        }
+    }
+
+    private void endDrag() {
+        if(dragFrom != Position.NO_SQUARE) {
+            dragFrom = Position.NO_SQUARE;
+            boardGUI.getChildren().remove(dragged);
+        }
+    }
+
+    /**
+     * Plays a move of the selected piece, a promotion first opens the promotion selection GUI
+     */
+    private void play(int move) {
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        reselected = false;
+        if(Moves.isPromotion(move)) {
+            boolean white = Position.isWhite(pieces[from]);
+            Selectable.promotionSelection(controller, white, controller.getApp(),
+                    (type) -> controller.makeMove(findPromotion(from, to, (byte) type.ordinal())),
+                    this::clearSelection);
+        } else {
+            controller.getApp().getClip().play();
+            controller.clearSelectable();
+            controller.makeMove(move);
+        }
+    }
+
+    /**
+     * Returns the legal promotion move to a piece code, PieceType ordinals are piece codes
+     */
+    private int findPromotion(int from, int to, byte promotion) {
+        for(int move : controller.getLegalMoves()) {
+            if(Moves.from(move) == from && Moves.to(move) == to && Moves.promotionPiece(move, Position.isWhite(promotion)) == promotion) {
+                return move;
+            }
+        }
+        throw new IllegalArgumentException("Illegal promotion " + Moves.squareName(from) + Moves.squareName(to));
+    }
+}
@@ -5,6 +5,7 @@
  */
 package gui;
 
+import engine.Position;
 import fxutil.AudioClipPlayer;
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -17,11 +18,13 @@ import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
@@ -46,10 +49,16 @@ public class ChessLite extends Application {
     public static final ObservableList<String> TIMER_OPTIONS = FXCollections.observableArrayList( //combobox options
             "Casual Untimed", "Classic 30+20", "Rapid 15+10", "Blitz 3+2", "Bullet 1+0");
     public static final int[][] TIMER_INFO = {{30*60,20},{15*60,10},{3*60,2},{60,0}};
+    public static final ObservableList<String> OPPONENT_OPTIONS = FXCollections.observableArrayList(
+            "Player vs Player", "Play White vs Computer", "Play Black vs Computer");
+    public static final int[] OPPONENT_ENGINE_SIDE = {Game.NO_ENGINE, Game.ENGINE_BLACK, Game.ENGINE_WHITE};
+    public static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
     public static final ObservableList<String> PIECES_OPTIONS = FXCollections.observableArrayList(
             "Classic", "Alpha", "Book", "Gothic");
     public static final ObservableList<String> COLORS_OPTIONS = FXCollections.observableArrayList(
             "Brown", "Blue", "Green", "Red");
+    public static final ObservableList<String> RENDERER_OPTIONS = FXCollections.observableArrayList(
+            "Nodes", "Canvas");
     public static final String CONFIG_NAME = "ChessLiteConfig"; //file and config info
     public static final String DEFAULT_CONFIG_PATH = "/resources/DefaultConfig.dat";
     public static final String FOLDER = System.getProperty("file.separator") + ".ChessLiteDat";
@@ -61,6 +70,8 @@ public class ChessLite extends Application {
     public static final int BLUE = 1;
     public static final int GREEN = 2;
     public static final int RED = 3;
+    public static final int NODE_RENDERER = 0; //a Tile and Piece node per square and piece
+    public static final int CANVAS_RENDERER = 1; //one Canvas, see CanvasBoard
 
     private final double height = GraphicsEnvironment.getLocalGraphicsEnvironment().
             getDefaultScreenDevice().getDisplayMode().getHeight()*0.80;
@@ -69,6 +80,8 @@ public class ChessLite extends Application {
     private final AudioClipPlayer clip = new AudioClipPlayer(SOUND_CLIP_PATH); //sound clip
     private String path = "alpha"; //path for piece package
     private int colorTheme = GREEN; //color theme
+    private int renderer = NODE_RENDERER; //how the board is drawn
+    private int engineThreads = Math.max(PROCESSORS / 2, 1); //threads the computer opponent searches with
 
     public AudioClipPlayer getClip() {
         return clip;
@@ -82,6 +95,18 @@ public class ChessLite extends Application {
         return colorTheme;
     }
 
+    public int getRenderer() {
+        return renderer;
+    }
+    
+    public boolean isCanvasRenderer() {
+        return renderer == CANVAS_RENDERER;
+    }
+
+    public int getEngineThreads() {
+        return engineThreads;
+    }
+
     public double getHeight() {
         return height;
     }
@@ -173,11 +198,11 @@ public class ChessLite extends Application {
                 copyToFile(defaultConfigReader,file);
             } else {
                 if(file.canRead()) {
-                    String[] data = new String[2];
+                    String[] data = new String[3];
                     try (BufferedReader br = new BufferedReader(new FileReader(file))) {
                         String line;
                         int i = 0;
-                        while ((line = br.readLine()) != null) {
+                        while ((line = br.readLine()) != null && i < data.length) {
                             data[i] = line;
                             i++;
                         }
@@ -190,6 +215,9 @@ public class ChessLite extends Application {
                     if(colorNum <= RED && colorNum >= BROWN) {
                         colorTheme = colorNum;
                     }
+                    if(data[2] != null && data[2].trim().equals(Integer.toString(CANVAS_RENDERER))) {
+                        renderer = CANVAS_RENDERER; //older configs have no renderer line
+                    }
                 }
             }
         } catch (IOException ex) {
@@ -206,10 +234,11 @@ public class ChessLite extends Application {
         primaryStage.setWidth(width);
         primaryStage.setResizable(false);
         primaryStage.setOnCloseRequest((WindowEvent event) -> {
+            Logger.getLogger(ChessLite.class.getName()).log(Level.FINE, SpriteCache.getStats());
             Platform.exit();
             System.exit(0);
         });
-        Pane root = createPlayPane(primaryStage);
+        Pane root = createPlayPane(primaryStage, Game.NO_ENGINE, Position.initial());
         Scene scene = new Scene(root, width, height);
         scene.getStylesheets().add(ChessLite.class.getResource("/resources/chess.css").toExternalForm());
         primaryStage.setScene(scene);
@@ -231,25 +260,66 @@ public class ChessLite extends Application {
         
         Label timerLabel = new Label("Time Control");
         timerLabel.setFont(new Font("Roboto",22*scale));
-        ComboBox timerBox = new ComboBox<>(TIMER_OPTIONS);
+        ComboBox<String> timerBox = new ComboBox<>(TIMER_OPTIONS);
         timerBox.setId("combobox");
         double size = 20*scale;
         timerBox.setStyle("-fx-font: " + size + "px \"Roboto\";");
         timerBox.getSelectionModel().select(0);
         content.setAlignment(Pos.CENTER);
         
-        content.getChildren().addAll(timerLabel, timerBox);
+        Label opponentLabel = new Label("Opponent");
+        opponentLabel.setFont(new Font("Roboto",22*scale));
+        ComboBox<String> opponentBox = new ComboBox<>(OPPONENT_OPTIONS);
+        opponentBox.setId("combobox");
+        opponentBox.setStyle("-fx-font: " + size + "px \"Roboto\";");
+        opponentBox.getSelectionModel().select(0);
+        ObservableList<String> threadOptions = FXCollections.observableArrayList();
+        for(int i = 1; i <= PROCESSORS; i++) {
+            threadOptions.add(i == 1 ? "1 Thread" : i + " Threads");
+        }
+        ComboBox<String> threadBox = new ComboBox<>(threadOptions);
+        threadBox.setId("combobox");
+        threadBox.setStyle("-fx-font: " + size + "px \"Roboto\";");
+        threadBox.getSelectionModel().select(engineThreads - 1);
+        HBox opponent = new HBox();
+        opponent.setSpacing(10);
+        opponent.setAlignment(Pos.CENTER);
+        opponent.getChildren().addAll(opponentBox, threadBox);
+        
+        Label positionLabel = new Label("Position (FEN)");
+        positionLabel.setFont(new Font("Roboto",22*scale));
+        TextField positionField = new TextField();
+        positionField.setPromptText("Standard starting position");
+        positionField.setStyle("-fx-font: " + size + "px \"Roboto\";");
+        positionField.setMaxWidth(stage.getWidth()/3.5);
+        Label positionError = new Label();
+        positionError.setFont(new Font("Roboto",16*scale));
+        positionError.setTextFill(Color.rgb(200, 40, 40));
+        positionError.setWrapText(true);
+        positionError.setMaxWidth(stage.getWidth()/3.5);
+        
+        content.getChildren().addAll(timerLabel, timerBox, opponentLabel, opponent, positionLabel, positionField, positionError);
         
         HBox horizontalButtons = new HBox();
         Button confirmButton = new Button("Start");
         confirmButton.setOnAction((ActionEvent event) -> {
             Stage theStage = (Stage) confirmButton.getScene().getWindow();
             int selected = timerBox.getSelectionModel().getSelectedIndex();
+            int engineSide = OPPONENT_ENGINE_SIDE[opponentBox.getSelectionModel().getSelectedIndex()];
+            engineThreads = threadBox.getSelectionModel().getSelectedIndex() + 1;
+            Position start;
+            try {
+                String fen = positionField.getText().trim();
+                start = fen.isEmpty() ? Position.initial() : Position.fromFEN(fen);
+            } catch(IllegalArgumentException ex) {
+                positionError.setText(ex.getMessage());
+                return; //the window stays open to correct the FEN
+            }
             Pane pane;
             if(selected == 0) {
-                pane = createPlayPane(stage);
+                pane = createPlayPane(stage, engineSide, start);
             } else {
-                pane = createPlayPaneTimed(stage, TIMER_INFO[selected-1][0], TIMER_INFO[selected-1][1],selected-1);
+                pane = createPlayPaneTimed(stage, TIMER_INFO[selected-1][0], TIMER_INFO[selected-1][1],selected-1, engineSide, start);
             }
             theStage.close();
             stage.getScene().setRoot(pane);
@@ -279,9 +349,9 @@ public class ChessLite extends Application {
         newWindow.setResizable(false);
 
         newWindow.setX(stage.getX() + stage.getWidth()/3);
-        newWindow.setY(stage.getY() + stage.getHeight()/3);
+        newWindow.setY(stage.getY() + stage.getHeight()/4);
         newWindow.setWidth(stage.getWidth()/3);
-        newWindow.setHeight(stage.getHeight()/2.3);
+        newWindow.setHeight(stage.getHeight()/1.6);
 
         newWindow.initOwner(stage);
         newWindow.initModality(Modality.APPLICATION_MODAL); 
@@ -306,7 +376,7 @@ public class ChessLite extends Application {
         styles.setSpacing(20);
         Label styleLabel = new Label("Pieces Style");
         styleLabel.setFont(new Font("Roboto",22*scale));
-        ComboBox pieceBox = new ComboBox<>(PIECES_OPTIONS);
+        ComboBox<String> pieceBox = new ComboBox<>(PIECES_OPTIONS);
         pieceBox.setPrefWidth(150*scale);
         pieceBox.setId("combobox");
         pieceBox.getSelectionModel().select(getPieceSelection(path));
@@ -320,7 +390,7 @@ public class ChessLite extends Application {
         colors.setSpacing(20);
         Label colorLabel = new Label("Board Color");
         colorLabel.setFont(new Font("Roboto",22*scale));
-        ComboBox colorBox = new ComboBox<>(COLORS_OPTIONS);
+        ComboBox<String> colorBox = new ComboBox<>(COLORS_OPTIONS);
         colorBox.setPrefWidth(130*scale);
         colorBox.setId("combobox");
         colorBox.getSelectionModel().select(colorTheme);
@@ -330,7 +400,19 @@ public class ChessLite extends Application {
         colors.setAlignment(Pos.CENTER);
         colors.getChildren().addAll(colorLabel, colorBox);
         
-        content.getChildren().addAll(styles,colors);
+        HBox renderers = new HBox();
+        renderers.setSpacing(20);
+        Label rendererLabel = new Label("Board Renderer");
+        rendererLabel.setFont(new Font("Roboto",22*scale));
+        ComboBox<String> rendererBox = new ComboBox<>(RENDERER_OPTIONS);
+        rendererBox.setPrefWidth(130*scale);
+        rendererBox.setId("combobox");
+        rendererBox.getSelectionModel().select(renderer);
+        rendererBox.setStyle("-fx-font: " + size1 + "px \"Roboto\";");
+        renderers.setAlignment(Pos.CENTER);
+        renderers.getChildren().addAll(rendererLabel, rendererBox);
+        
+        content.getChildren().addAll(styles,colors,renderers);
         
         HBox horizontalButtons = new HBox();
         Button confirmButton = new Button("Confirm");
@@ -339,8 +421,9 @@ public class ChessLite extends Application {
             int selected = pieceBox.getSelectionModel().getSelectedIndex();
             path = AVAILABLE_PATHS[selected];
             colorTheme = colorBox.getSelectionModel().getSelectedIndex();
+            renderer = rendererBox.getSelectionModel().getSelectedIndex();
             game.reRenderBoard();
-            changeConfigData(path + "\n" + colorTheme);
+            changeConfigData(path + "\n" + colorTheme + "\n" + renderer);
             theStage.close();
         });
         confirmButton.setId("appbutton");
@@ -370,7 +453,7 @@ public class ChessLite extends Application {
         newWindow.setX(stage.getX() + stage.getWidth()/3);
         newWindow.setY(stage.getY() + stage.getHeight()/3);
         newWindow.setWidth(stage.getWidth()/3);
-        newWindow.setHeight(stage.getHeight()/2.3);
+        newWindow.setHeight(stage.getHeight()/2.0);
 
         newWindow.initOwner(stage);
         newWindow.initModality(Modality.APPLICATION_MODAL); 
@@ -396,10 +479,12 @@ public class ChessLite extends Application {
     /**
      * Creates the game play pane for the player vs Player GUI
      * @param stage, the stage the game belongs to
+     * @param engineSide, the side played by the computer or Game.NO_ENGINE
+     * @param start, the Position the Game starts from
      * @return Play Pane for Game
      */
-    public Pane createPlayPane(Stage stage) {
-        Game controller = Game.constructGame(true, stage, this);
+    public Pane createPlayPane(Stage stage, int engineSide, Position start) {
+        Game controller = Game.constructGame(start, engineSide != Game.ENGINE_WHITE, stage, this, engineSide);
         return controller.getRoot();
     }
     
@@ -409,10 +494,12 @@ public class ChessLite extends Application {
      * @param time, the starting timer
      * @param inc, the timer to be incremented
      * @param timerType, the timer type to be used upon game reconstruction
+     * @param engineSide, the side played by the computer or Game.NO_ENGINE
+     * @param start, the Position the Game starts from
      * @return Play Pane for Border Pane
      */
-    public Pane createPlayPaneTimed(Stage stage, double time, double inc, int timerType) {
-        TimedGame controller = TimedGame.constructTimedGame(true, time, inc, stage, timerType, this);
+    public Pane createPlayPaneTimed(Stage stage, double time, double inc, int timerType, int engineSide, Position start) {
+        TimedGame controller = TimedGame.constructTimedGame(start, engineSide != Game.ENGINE_WHITE, time, inc, stage, timerType, this, engineSide);
         return controller.getRoot();
     }
     
@@ -1,10 +1,18 @@
 /*
  * A Controller class to manage the current Game's game flow and GUI
- * A core assumption is that the Board starts from the legal starting position
+ * The Board starts from the standard starting position or from any legal Position loaded from a FEN
  * 7/3/20
  */
 package gui;
 
+import engine.Evaluation;
+import engine.Moves;
+import engine.ParallelSearch;
+import engine.Position;
+import engine.Search;
+import engine.SearchInfo;
+import engine.TranspositionTable;
+import javafx.application.Platform;
 import javafx.animation.FadeTransition;
 import javafx.concurrent.Task;
 import javafx.concurrent.WorkerStateEvent;
@@ -56,7 +64,13 @@ public class Game {
     public static final int IN_PROGRESS = 0;
     public static final int CHECKMATE = 1;
     public static final int STALEMATE = 2;
+    public static final int REPETITION = 3;
+    public static final int FIFTY_MOVE_RULE = 4;
     public static final int NO_TIMER = -1;
+    public static final int NO_ENGINE = -1; //side the computer plays
+    public static final int ENGINE_WHITE = 0;
+    public static final int ENGINE_BLACK = 1;
+    public static final long ENGINE_MOVE_TIME = 2000; //milliseconds per move in untimed games
     
     private double boardSize;
     private double elementHeight;
@@ -68,8 +82,9 @@ public class Game {
     
     private ChessLite app; //dependency on application 
     
-    private final GameInfo gameInfo = new GameInfo(); //deals with previous moves and ByteBoard storage
+    private final GameInfo gameInfo; //deals with previous moves and the rules Position
     private final Board board = new Board(); //the current Board
+    private CanvasBoard canvasBoard; //draws the Board instead of its Tile and Piece nodes, null if they render it
     
     private VBox sideBar;
     private NotationBoard notationTable;
@@ -83,27 +98,39 @@ public class Game {
     private final ArrayList<Tile> highlightedTiles = new ArrayList<>();
     private boolean whiteBoardPosition;
     private boolean inCheck = false;
-    private boolean isWhiteTurn = true;
+    private boolean isWhiteTurn;
     private boolean moveReadyState = true;
     private boolean finished = false;
     private boolean canRender = true;
     private int gameResult = IN_PROGRESS;
     private int timerType = NO_TIMER;
+    private int engineSide = NO_ENGINE;
+    private ParallelSearch engineSearch; //the running search, null if the computer is not thinking
+    private TranspositionTable engineTable; //kept between the computer's moves
+    private int engineRequest = 0; //incremented to discard the result of a cancelled search
+    private Label engineInfo;
+    private Label evaluationInfo;
     public static final int[][] TIMER_INFO = {{30*60,20},{15*60,10},{3*60,2},{60,0}};
 
     /**
      * Constructs a new Game belonging to a stage
+     * @param start, the Position the Game starts from
      * @param whiteStart, the starting position of the Game Board object
      * @param stageIn, the stage game belongs to
      * @param app, the application object
      */
-    protected Game(boolean whiteStart, Stage stageIn, ChessLite app) {
+    protected Game(Position start, boolean whiteStart, Stage stageIn, ChessLite app) {
         setApp(app);
+        gameInfo = new GameInfo(start);
+        isWhiteTurn = start.isWhiteToMove();
         whiteCircle = new Circle();
         blackCircle = new Circle();
         whiteCircle.setRadius(8*app.getScale());
         blackCircle.setRadius(8*app.getScale());
         whiteBoardPosition = whiteStart;
+        if(app.isCanvasRenderer()) {
+            canvasBoard = new CanvasBoard(this);
+        }
         root = new AnchorPane();
         stage = stageIn;
     }
@@ -114,13 +141,16 @@ public class Game {
      * initializes Game GUI's root
      * calculates the Board avaliable moves
      * renders the current Side turn
+     * @param start, the Position the Game starts from, Position.initial() or one loaded from a FEN
      * @param whiteStart, the starting position of the Game Board object
      * @param stageIn, the stage game belongs to
      * @param app, the application object
+     * @param engineSide, the side played by the computer or NO_ENGINE
      * @return constructed game
      */
-    public static Game constructGame(boolean whiteStart, Stage stageIn, ChessLite app) {
-        Game game = new Game(whiteStart, stageIn, app);
+    public static Game constructGame(Position start, boolean whiteStart, Stage stageIn, ChessLite app, int engineSide) {
+        Game game = new Game(start, whiteStart, stageIn, app);
+        game.setEngineSide(engineSide);
         game.initBoard(whiteStart);
         game.initRoot();
         game.preGame();
@@ -132,10 +162,12 @@ public class Game {
      * @param whiteStart, position of Board from proper perspective
      */
     public final void initBoard(boolean whiteStart) {
-        if(whiteStart) {
-            board.initWhiteBoard(GameInfo.INITIAL_BOARD,this);
+        if(canvasBoard != null) {
+            canvasBoard.render(gameInfo.getPositionByNumber(-1), whiteStart);
+        } else if(whiteStart) {
+            board.initWhiteBoard(gameInfo.getPositionByNumber(-1),this);
         } else {
-            board.initBlackBoard(GameInfo.INITIAL_BOARD,this);
+            board.initBlackBoard(gameInfo.getPositionByNumber(-1),this);
         }
     }
     
@@ -150,8 +182,7 @@ public class Game {
         AnchorPane.setTopAnchor(topBar, 1.0);
         AnchorPane.setTopAnchor(getBoardGUI(), topBarHeight + 20.0);
         AnchorPane.setLeftAnchor(getBoardGUI(), 15.0);
-        AnchorPane.setTopAnchor(sideBar, ((stage.getHeight() - 
-                (elementHeight + scoreBoardHeight + elementHeight))/2)+10);
+        AnchorPane.setTopAnchor(sideBar, ((stage.getHeight() - sideBar.getMinHeight())/2)+10);
         AnchorPane.setLeftAnchor(sideBar, (10+boardSize)+(stage.getWidth()-10-boardSize-barWidth)/2);
         root.getChildren().addAll(topBorder,topBar,sideBar,getBoardGUI());
     }
@@ -199,14 +230,6 @@ public class Game {
         return app;
     }
     
-    public ArrayList<Tile> getAttackingKing() {
-        return board.getAttackingKing();
-    }
-
-    public ArrayList<Tile> getAttackWhiteListed() {
-        return board.getAttackWhiteListed();
-    }
-
     public Piece getBlackKing() {
         return board.getBlackKing();
     }
@@ -215,12 +238,16 @@ public class Game {
         return board.getWhiteKing();
     }
     
-    public ArrayList<Tile> kingMoves() {
-        return board.getKingCanMove();
+    public Pane getBoardGUI() {
+        return canvasBoard != null ? canvasBoard.getBoardGUI() : board.getBoardGUI();
     }
     
-    public Pane getBoardGUI() {
-        return board.getBoardGUI();
+    /**
+     * Returns the legal moves of the side to move in the rendered Position
+     * @return the packed moves
+     */
+    public int[] getLegalMoves() {
+        return board.getLegalMoves();
     }
 
     public int getTimerType() {
@@ -231,6 +258,26 @@ public class Game {
         this.timerType = timerType;
     }
 
+    public int getEngineSide() {
+        return engineSide;
+    }
+
+    public final void setEngineSide(int engineSide) {
+        this.engineSide = engineSide;
+    }
+    
+    public boolean isEngineEnabled() {
+        return engineSide != NO_ENGINE;
+    }
+    
+    /**
+     * Returns whether or not the side to move is played by the computer
+     * @return true if it is the computer's turn
+     */
+    public boolean isEngineTurn() {
+        return isEngineEnabled() && (engineSide == ENGINE_WHITE) == isWhiteTurn;
+    }
+
     public boolean canRender() {
         return canRender;
     }
@@ -252,7 +299,7 @@ public class Game {
     }
     
     public boolean isMoveReady() {
-        return moveReadyState;
+        return moveReadyState && !isEngineTurn();
     }
 
     public void setMoveReadyState(boolean moveReadyState) {
@@ -436,6 +483,9 @@ public class Game {
         }
         selectable.forEach((Selectable selectable) -> getBoardGUI().getChildren().remove(selectable));
         selectable.clear();
+        if(canvasBoard != null) {
+            canvasBoard.clearSelection();
+        }
     }
     
     /**
@@ -443,6 +493,10 @@ public class Game {
      * and the tile the piece was moved to
      */
     public void highlightRecentTiles() {
+        if(canvasBoard != null) {
+            canvasBoard.setHighlighted(gameInfo.getRecentlyMovedTileCoordinates());
+            return;
+        }
         highlightedTiles.forEach(Tile::setUnHighLighted);
         highlightedTiles.clear();
         ArrayList<int[]> coordinates = gameInfo.getRecentlyMovedTileCoordinates();
@@ -468,67 +522,252 @@ public class Game {
 
     /**
      * Performs pre Game initialization
-     * calculates the avaliable moves and renders turn
+     * calculates the avaliable moves and renders turn, a Game started from a FEN
+     * may start in check or already be finished by checkmate or stalemate
      */
     public final void preGame() {
-        board.calculateMoves(isWhiteTurn());
+        Position position = gameInfo.getPositionByNumber(gameInfo.getMoveNum());
+        board.calculateMoves(position);
+        if(position.inCheck()) {
+            inCheck = true;
+            renderCheck(position);
+            if(!board.hasLegalMoves()) {
+                gameResult = CHECKMATE;
+            }
+        } else if(!board.hasLegalMoves()) {
+            gameResult = STALEMATE;
+        }
+        renderEvaluation(position);
         renderTurn();
+        if(gameResult != IN_PROGRESS) {
+            onGameFinished(); //no move to mark in the notation
+            addResultMessage();
+        } else {
+            requestEngineMove();
+        }
     }
     
     /**
-     * Refer to Board::inCheck implementation of this algorithm for details
-     * @param king, the king to check for and perform evaluations on
-     * @param row, the row of the position
-     * @param col, the column of the position
-     * @return whether or not the position is in Check
+     * Marks the king of the side to move as in check on the Board GUI
+     * @param position, the rendered Position
      */
-    public boolean inCheck(Piece king, int row, int col) {
-        return board.inCheck(king, row, col);
+    private void renderCheck(Position position) {
+        if(canvasBoard != null) {
+            canvasBoard.setCheck(position.kingSquare(isWhiteTurn()));
+        } else {
+            board.getKing(isWhiteTurn()).getTile().setInCheck();
+        }
     }
     
     /**
      * Performs a pre-move initialization by using Game Board methods 
      * Uses information from Game Board to properly redirect Game flow
      * Called after every move with intention to be called before a new move can
-     * be made
+     * be made, and after the Board GUI shows another Position of the Game
+     * @param moved, whether or not a move was just played, only then is the last move
+     * noted and a repetition or fifty move draw decided, both draws may be played past
      */
-    private void preMove() {
-        board.calculateMoves(isWhiteTurn());
-        if(!board.getAttackingKing().isEmpty()) { 
+    private void preMove(boolean moved) {
+        Position position = gameInfo.getPositionByNumber(gameInfo.getMoveNum());
+        board.calculateMoves(position);
+        if(position.inCheck()) { 
             inCheck = true;
-            board.getKing(isWhiteTurn()).getTile().setInCheck();
-            if(board.getKingCanMove().isEmpty() && !board.hasLegalMoves(isWhiteTurn()))  {
-                gameInfo.setRecentCheckMate();
+            renderCheck(position);
+            if(!board.hasLegalMoves())  {
+                if(moved) {
+                    gameInfo.setRecentCheckMate();
+                }
                 gameResult = CHECKMATE;
                 onGameFinished();
-            } else {
+            } else if(moved) {
                 gameInfo.setRecentCheck();
             }
-        } else if(!board.hasLegalMoves(isWhiteTurn())) {
-            gameInfo.setRecentStaleMate();
+        } else if(!board.hasLegalMoves()) {
+            if(moved) {
+                gameInfo.setRecentStaleMate();
+            }
             gameResult = STALEMATE;
             onGameFinished();
         }
+        if(moved && gameResult == IN_PROGRESS && gameInfo.getMoveNum() == gameInfo.getMoveCount()-1) {
+            if(gameInfo.isThreefoldRepetition(gameInfo.getMoveNum())) {
+                gameResult = REPETITION;
+                onGameFinished();
+            } else if(gameInfo.isFiftyMoveRule(gameInfo.getMoveNum())) {
+                gameResult = FIFTY_MOVE_RULE;
+                onGameFinished();
+            }
+        }
+        renderEvaluation(position);
         renderTurn();
         highlightRecentTiles();
     }
     
     public void onGameFinished() {
         setFinished(true);
+        cancelEngineMove();
+    }
+    
+    public boolean isDraw() {
+        return gameResult == STALEMATE || gameResult == REPETITION || gameResult == FIFTY_MOVE_RULE;
     }
     
     /**
-     * Public method to perform a Standard move on Game
-     * @param tile to be moved to
+     * Adds a message for the result of the Game to the notationTable if the Game has ended
      */
-    public void makeMove(Tile tile) {
-        move(tile);
+    private void addResultMessage() {
         if(gameResult == CHECKMATE) {
             String msg = isWhiteTurn() ? "Checkmate : 0-1" : "Checkmate : 1-0";
             notationTable.addFinishedMessage(msg);
         } else if(gameResult == STALEMATE) {
             notationTable.addFinishedMessage("Stalemate : Draw");
+        } else if(gameResult == REPETITION) {
+            notationTable.addFinishedMessage("Repetition : Draw");
+        } else if(gameResult == FIFTY_MOVE_RULE) {
+            notationTable.addFinishedMessage("Fifty Move Rule : Draw");
+        }
+    }
+    
+    /**
+     * Returns the time the computer may think about its next move
+     * @return the time in milliseconds
+     */
+    public long getEngineMoveTime() {
+        return ENGINE_MOVE_TIME;
+    }
+    
+    /**
+     * Starts a search for the computer's move on a background thread if it is the
+     * computer's turn, the move is played on the FX thread once the search finishes
+     */
+    private void requestEngineMove() {
+        if(!isEngineTurn() || finished || engineSearch != null || gameInfo.getMoveNum() != gameInfo.getMoveCount() - 1) {
+            return;
         }
+        int count = gameInfo.getMoveCount();
+        long[] history = new long[count];
+        for(int i = 0; i < count; i++) {
+            history[i] = gameInfo.getHashByNumber(i - 1);
+        }
+        Position root = gameInfo.getLastPosition().copy();
+        if(engineTable == null) {
+            engineTable = new TranspositionTable();
+        }
+        ParallelSearch search = new ParallelSearch(engineTable, app.getEngineThreads());
+        search.setHistory(history);
+        engineSearch = search;
+        int request = ++engineRequest;
+        long time = getEngineMoveTime();
+        Task<SearchInfo> task = new Task<SearchInfo>() {
+            @Override
+            protected SearchInfo call() {
+                return search.search(root, Search.MAX_DEPTH, time, (info) -> Platform.runLater(() -> {
+                    if(request == engineRequest) {
+                        renderEngineInfo(info);
+                    }
+                }));
+            }
+        };
+        task.setOnSucceeded((WorkerStateEvent event) -> {
+            if(request == engineRequest) {
+                engineSearch = null;
+                playEngineMove(task.getValue().getBestMove(), count);
+            }
+        });
+        task.setOnFailed((WorkerStateEvent event) -> {
+            if(request == engineRequest) {
+                engineSearch = null; //a later request may search again
+                Logger.getLogger(Game.class.getName()).log(Level.SEVERE, null, task.getException());
+            }
+        });
+        task.setOnCancelled((WorkerStateEvent event) -> {
+            if(request == engineRequest) {
+                engineSearch = null;
+            }
+        });
+        Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * Stops the running search of the computer and discards its result
+     */
+    private void cancelEngineMove() {
+        if(engineSearch != null) {
+            engineSearch.stop();
+            engineSearch = null;
+        }
+        engineRequest++;
+    }
+    
+    /**
+     * Plays a move found by the computer through the same paths as a move made on the GUI
+     * @param move, the packed move
+     * @param count, the number of moves in the game when the search was started
+     */
+    private void playEngineMove(int move, int count) {
+        if(move == Moves.NONE || finished || gameInfo.getMoveCount() != count) {
+            return;
+        }
+        if(gameInfo.getMoveNum() != count - 1) {
+            goFarRight(); //the user was looking at an earlier position
+        }
+        clearSelectable();
+        if(canvasBoard != null) {
+            app.getClip().play();
+            makeMove(move);
+            return;
+        }
+        Tile from = board.getTiles()[Moves.row(Moves.from(move))][Moves.col(Moves.from(move))];
+        Tile to = board.getTiles()[Moves.row(Moves.to(move))][Moves.col(Moves.to(move))];
+        app.getClip().play();
+        if(Moves.isCastle(move)) {
+            makeMoveCastle(isWhiteTurn, Moves.flag(move) == Moves.KING_CASTLE);
+        } else {
+            from.getPiece().toFront();
+            selectedTile = from;
+            if(Moves.isEnPassant(move)) {
+                makeMoveEnPassant(to, isWhiteTurn ? -1 : 1);
+            } else if(Moves.isPromotion(move)) {
+                byte promotion = Moves.promotionPiece(move, isWhiteTurn);
+                makeMovePromotion(to, Board.NOTATION_TO_CONSTRUCTOR_TABLE[promotion].createPiece(to, app.getPath()));
+            } else {
+                makeMove(to);
+            }
+        }
+        clearSelectable();
+    }
+    
+    /**
+     * Renders the result of a completed search iteration of the computer
+     * @param info, the iteration result
+     */
+    private void renderEngineInfo(SearchInfo info) {
+        if(engineInfo != null) {
+            engineInfo.setText(String.format("Depth %d  %s  %,d nodes/s  hash %.0f%% full%n%s", info.getDepth(),
+                    info.getScoreString(), info.getNodesPerSecond(), engineTable.getFill(), info.getPVString()));
+        }
+    }
+    
+    /**
+     * Public method to perform any legal move on Game drawn by a CanvasBoard
+     * @param move, the packed move
+     */
+    public void makeMove(int move) {
+        movePacked(move);
+        addResultMessage();
+        requestEngineMove();
+    }
+    
+    /**
+     * Public method to perform a Standard move on Game
+     * @param tile to be moved to
+     */
+    public void makeMove(Tile tile) {
+        move(tile);
+        addResultMessage();
+        requestEngineMove();
     }
     
     /**
@@ -538,12 +777,8 @@ public class Game {
      */
     public void makeMoveEnPassant(Tile tile, int offset) {
         moveEnPassant(tile,offset);
-        if(gameResult == CHECKMATE) {
-            String msg = isWhiteTurn() ? "Checkmate : 0-1" : "Checkmate : 1-0";
-            notationTable.addFinishedMessage(msg);
-        } else if(gameResult == STALEMATE) {
-            notationTable.addFinishedMessage("Stalemate : Draw");
-        }
+        addResultMessage();
+        requestEngineMove();
     }
     
     /**
@@ -553,12 +788,8 @@ public class Game {
      */
     public void makeMovePromotion(Tile tile, Piece piece) {
         movePromotion(tile, piece);
-        if(gameResult == CHECKMATE) {
-            String msg = isWhiteTurn() ? "Checkmate : 0-1" : "Checkmate : 1-0";
-            notationTable.addFinishedMessage(msg);
-        } else if(gameResult == STALEMATE) {
-            notationTable.addFinishedMessage("Stalemate : Draw");
-        }
+        addResultMessage();
+        requestEngineMove();
     }
     
     /**
@@ -568,12 +799,8 @@ public class Game {
      */
     public void makeMoveCastle(boolean forWhite, boolean kingSide) {
         moveCastle(forWhite, kingSide);
-        if(gameResult == CHECKMATE) {
-            String msg = isWhiteTurn() ? "Checkmate : 0-1" : "Checkmate : 1-0";
-            notationTable.addFinishedMessage(msg);
-        } else if(gameResult == STALEMATE) {
-            notationTable.addFinishedMessage("Stalemate : Draw");
-        }
+        addResultMessage();
+        requestEngineMove();
     }
     
     /**
@@ -595,14 +822,14 @@ public class Game {
         inCheck = false;
         Tile selected = selectedTile;
         Piece taken = tile.getPiece();
-        gameInfo.makeMove(selected,tile);
+        gameInfo.makeMove(selected.getSquare(), tile.getSquare());
         selected.movePiece(tile);
         if(taken != null) {
             removeTaken(taken);
             gameInfo.setRecentCapture();
         }   
         isWhiteTurn = !isWhiteTurn;
-        preMove();
+        preMove(true);
         notationTable.addLastToGUI();
         notationTable.selectEntry(gameInfo.getMoveNum(), oldNot);
     }
@@ -627,12 +854,12 @@ public class Game {
         inCheck = false;
         Tile selected = selectedTile;
         Piece taken = board.getTiles()[tile.getRow()+offset][tile.getCol()].getPiece();
-        gameInfo.makeMoveEnPassant(selected,tile,taken);
+        gameInfo.makeMoveEnPassant(selected.getSquare(), tile.getSquare());
         selected.movePieceEnPassant(tile,board.getTiles()[tile.getRow()+offset][tile.getCol()]);   
         removeTaken(taken);
         isWhiteTurn = !isWhiteTurn;
         gameInfo.setRecentEnPassant();
-        preMove();
+        preMove(true);
         notationTable.addLastToGUI();
         notationTable.selectEntry(gameInfo.getMoveNum(), oldNot);
     }
@@ -657,7 +884,7 @@ public class Game {
         inCheck = false;
         Tile selected = selectedTile;
         Piece taken = tile.getPiece();
-        gameInfo.makeMovePromotion(selected,tile,promotionTo);
+        gameInfo.makeMovePromotion(selected.getSquare(), tile.getSquare(), promotionTo.getInfoCode());
         selected.movePiece(tile);
         if(taken != null) {
             removeTaken(taken);
@@ -673,8 +900,8 @@ public class Game {
             board.getBlackNotKing().add(promotionTo);
         }
         isWhiteTurn = !isWhiteTurn;
-        gameInfo.setRecentPromotion(promotionTo);
-        preMove();
+        gameInfo.setRecentPromotion(promotionTo.getInfoCode());
+        preMove(true);
         notationTable.addLastToGUI();
         notationTable.selectEntry(gameInfo.getMoveNum(), oldNot);
     }
@@ -702,13 +929,13 @@ public class Game {
             if(kingSide) {
                 //king side white castle
                 board.getTiles()[LOWER_BOUNDARY][UPPER_BOUNDARY].getPiece().toFront(); //rook to front
-                gameInfo.makeMoveCastleKingSide(board.getWhiteKing(), board.getTiles()[LOWER_BOUNDARY][UPPER_BOUNDARY].getPiece());
+                gameInfo.makeMoveCastle(true);
                 board.getWhiteKing().getTile().movePiece(board.getTiles()[LOWER_BOUNDARY][UPPER_BOUNDARY-1]);
                 board.getTiles()[LOWER_BOUNDARY][UPPER_BOUNDARY].movePiece(board.getTiles()[LOWER_BOUNDARY][UPPER_BOUNDARY-2]);
             } else {
                 //queen side white castle
                 board.getTiles()[LOWER_BOUNDARY][LOWER_BOUNDARY].getPiece().toFront(); //rook to front
-                gameInfo.makeMoveCastleQueenSide(board.getWhiteKing(), board.getTiles()[LOWER_BOUNDARY][LOWER_BOUNDARY].getPiece());
+                gameInfo.makeMoveCastle(false);
                 board.getWhiteKing().getTile().movePiece(board.getTiles()[LOWER_BOUNDARY][LOWER_BOUNDARY+2]);
                 board.getTiles()[LOWER_BOUNDARY][LOWER_BOUNDARY].movePiece(board.getTiles()[LOWER_BOUNDARY][LOWER_BOUNDARY+3]);
             }
@@ -716,19 +943,49 @@ public class Game {
             if(kingSide) {
                 //king side black castle
                 board.getTiles()[UPPER_BOUNDARY][UPPER_BOUNDARY].getPiece().toFront(); //rook to front
-                gameInfo.makeMoveCastleKingSide(board.getBlackKing(), board.getTiles()[UPPER_BOUNDARY][UPPER_BOUNDARY].getPiece());
+                gameInfo.makeMoveCastle(true);
                 board.getBlackKing().getTile().movePiece(board.getTiles()[UPPER_BOUNDARY][UPPER_BOUNDARY-1]);
                 board.getTiles()[UPPER_BOUNDARY][UPPER_BOUNDARY].movePiece(board.getTiles()[UPPER_BOUNDARY][UPPER_BOUNDARY-2]);
             } else {
                 //queen side black castle
                 board.getTiles()[UPPER_BOUNDARY][LOWER_BOUNDARY].getPiece().toFront(); //rook to front
-                gameInfo.makeMoveCastleQueenSide(board.getBlackKing(), board.getTiles()[UPPER_BOUNDARY][LOWER_BOUNDARY].getPiece());
+                gameInfo.makeMoveCastle(false);
                 board.getBlackKing().getTile().movePiece(board.getTiles()[UPPER_BOUNDARY][LOWER_BOUNDARY+2]);
                 board.getTiles()[UPPER_BOUNDARY][LOWER_BOUNDARY].movePiece(board.getTiles()[UPPER_BOUNDARY][LOWER_BOUNDARY+3]);
             }
         }
         isWhiteTurn = !isWhiteTurn;
-        preMove();
+        preMove(true);
+        notationTable.addLastToGUI();
+        notationTable.selectEntry(gameInfo.getMoveNum(), oldNot);
+    }
+    
+    /**
+     * Private method to perform a packed move on a Game drawn by a CanvasBoard and redirect
+     * Game flow back to GUI listening
+     * 
+     * Add move and its notation to gameInfo 
+     * Redraw the Board from the new Position
+     * Redirect flow to opposing Turn and perform pre-move 
+     * Add the most recently added move to notationTable
+     * 
+     * @param move, the packed move
+     */
+    private void movePacked(int move) {
+        int oldNot = gameInfo.getMoveNum();
+        inCheck = false;
+        gameInfo.makeMove(move);
+        if(Moves.isEnPassant(move)) {
+            gameInfo.setRecentEnPassant();
+        } else if(Moves.isCapture(move)) {
+            gameInfo.setRecentCapture();
+        }
+        if(Moves.isPromotion(move)) {
+            gameInfo.setRecentPromotion(Moves.promotionPiece(move, isWhiteTurn));
+        }
+        canvasBoard.render(gameInfo.getLastPosition(), whiteBoardPosition);
+        isWhiteTurn = !isWhiteTurn;
+        preMove(true);
         notationTable.addLastToGUI();
         notationTable.selectEntry(gameInfo.getMoveNum(), oldNot);
     }
@@ -779,21 +1036,13 @@ public class Game {
         };
         sleeper.setOnSucceeded((WorkerStateEvent event) -> {
             getBoardGUI().getChildren().remove(oldPiece);
-            getBoardGUI().getChildren().add(newPiece);
+            if(newPiece.getTile().getPiece() == newPiece) { //not navigated away from in the meantime
+                getBoardGUI().getChildren().add(newPiece);
+            }
         });
         new Thread(sleeper).start();
     }
 
-    /**
-     * Refer to GameInfo::canCastle for more details
-     * @param king the king to check for
-     * @param kingSide, the side of the rook to check for
-     * @return canCastle
-     */
-    public boolean canCastle(Piece king, boolean kingSide) {
-        return gameInfo.canCastle(king.isWhite(), kingSide);
-    }
-    
     /**
      * Copy the current position FEN to clipboard
      */
@@ -812,13 +1061,15 @@ public class Game {
     public void savePGNAsFile() {
         String result;
         if(finished) {
-            if(isWhiteTurn()) {
-                result = "[Result 0-1]";
+            if(isDraw()) {
+                result = "1/2-1/2";
+            } else if(isWhiteTurn()) {
+                result = "0-1";
             } else {
-                result = "[Result 1-0]";
+                result = "1-0";
             }
         } else {
-            result = "[Result *]";
+            result = "*";
         }
         String PGN = gameInfo.getGamePGN(result);
         FileChooser fileChooser = new FileChooser();
@@ -867,33 +1118,67 @@ public class Game {
      * Re-render the Game board GUI
      */
     public void reRenderBoard() {
-        root.getChildren().remove(getBoardGUI());
-        if(whiteBoardPosition) {
-            board.initWhiteBoard(gameInfo.getBoardByNumber(gameInfo.getMoveNum()),this);
-        } else {
-            board.initBlackBoard(gameInfo.getBoardByNumber(gameInfo.getMoveNum()),this);
+        if(app.isCanvasRenderer() != (canvasBoard != null)) {
+            //the renderer was changed in the appearance settings
+            clearSelectable();
+            root.getChildren().remove(getBoardGUI());
+            if(app.isCanvasRenderer()) {
+                board.clear();
+                canvasBoard = new CanvasBoard(this);
+            } else {
+                canvasBoard = null;
+            }
         }
-        AnchorPane.setTopAnchor(getBoardGUI(), topBarHeight + 20.0);
-        AnchorPane.setLeftAnchor(getBoardGUI(), 15.0);
-        root.getChildren().add(getBoardGUI());
-        preMove();
+        renderBoard(gameInfo.getPositionByNumber(gameInfo.getMoveNum()));
+        preMove(false);
     }
 
     /**
      * Flips the Game Board GUI
      */
     public void flipBoardGUI() {
-        root.getChildren().remove(getBoardGUI());
-        if(whiteBoardPosition) {
-            board.initBlackBoard(gameInfo.getBoardByNumber(gameInfo.getMoveNum()),this);
+        whiteBoardPosition = !whiteBoardPosition;
+        renderBoard(gameInfo.getPositionByNumber(gameInfo.getMoveNum()));
+        preMove(false);
+    }
+    
+    /**
+     * Renders a Position to the Board GUI from the current perspective
+     * The nodes of a Board are rebuilt and replace the old Board GUI, a CanvasBoard is only redrawn
+     * @param position, the Position to be rendered
+     */
+    private void renderBoard(Position position) {
+        Pane old = getBoardGUI();
+        if(canvasBoard != null) {
+            canvasBoard.render(position, whiteBoardPosition);
+        } else if(whiteBoardPosition) {
+            board.initWhiteBoard(position,this);
         } else {
-            board.initWhiteBoard(gameInfo.getBoardByNumber(gameInfo.getMoveNum()),this);
+            board.initBlackBoard(position,this);
         }
-        AnchorPane.setTopAnchor(getBoardGUI(), topBarHeight + 20.0);
-        AnchorPane.setLeftAnchor(getBoardGUI(), 15.0);
-        root.getChildren().add(getBoardGUI());
-        whiteBoardPosition = !whiteBoardPosition;
-        preMove();
+        if(!root.getChildren().contains(getBoardGUI())) {
+            root.getChildren().remove(old);
+            AnchorPane.setTopAnchor(getBoardGUI(), topBarHeight + 20.0);
+            AnchorPane.setLeftAnchor(getBoardGUI(), 15.0);
+            root.getChildren().add(getBoardGUI());
+        }
+    }
+    
+    /**
+     * Updates the Board GUI to a Position of the Game being navigated
+     * Only the pieces that differ from the rendered Position are moved, added or removed, a CanvasBoard is redrawn
+     * @param position, the Position to be rendered
+     * @param animate, whether or not moved pieces slide, only when stepping a single move
+     */
+    private void updateBoard(Position position, boolean animate) {
+        if(canvasBoard != null) {
+            canvasBoard.render(position, whiteBoardPosition);
+            return;
+        }
+        clearSelectable();
+        board.getWhiteKing().getTile().setOffCheck();
+        board.getBlackKing().getTile().setOffCheck();
+        board.update(position, this, animate);
     }
     
     /**
@@ -903,18 +1188,11 @@ public class Game {
     public void takeBackMove() {
         int oldNum = gameInfo.getMoveNum();
         if(gameInfo.canTakeBack()) {
-            root.getChildren().remove(getBoardGUI());
-            if(whiteBoardPosition) {
-                board.initWhiteBoard(gameInfo.getBeforeLastBoard(),this);
-            } else {
-                board.initBlackBoard(gameInfo.getBeforeLastBoard(),this);
-            }
-            AnchorPane.setTopAnchor(getBoardGUI(), topBarHeight + 20.0);
-            AnchorPane.setLeftAnchor(getBoardGUI(), 15.0);
-            root.getChildren().add(getBoardGUI());
+            cancelEngineMove();
+            updateBoard(gameInfo.getBeforeLastPosition(), true);
             gameInfo.takeBackMove();
-            isWhiteTurn = gameInfo.getMoveNum() % 2 != 0;
-            preMove();
+            isWhiteTurn = gameInfo.isWhiteToMoveByNumber(gameInfo.getMoveNum());
+            preMove(false);
             notationTable.removeLastFromGUI();
             if(oldNum < gameInfo.getMoveNum()) {
                 notationTable.selectEntry(gameInfo.getMoveNum(),oldNum);
@@ -925,6 +1203,11 @@ public class Game {
             finished = false;
             notationTable.removeFinishedMessage();
             gameResult = IN_PROGRESS;
+            if(isEngineTurn() && gameInfo.canTakeBack()) {
+                takeBackMove(); //take back the computer's reply as well
+            } else {
+                requestEngineMove();
+            }
         }      
     }
     
@@ -933,18 +1216,10 @@ public class Game {
      */
     public void goLeft() {
         if(gameInfo.canGoLeft()) {
-            root.getChildren().remove(getBoardGUI());
-            if (whiteBoardPosition) {
-                board.initWhiteBoard(gameInfo.getBoardByNumber(gameInfo.getMoveNum()-1),this);
-            } else {
-                board.initBlackBoard(gameInfo.getBoardByNumber(gameInfo.getMoveNum()-1),this);
-            }
-            AnchorPane.setTopAnchor(getBoardGUI(), topBarHeight + 20.0);
-            AnchorPane.setLeftAnchor(getBoardGUI(), 15.0);
-            root.getChildren().add(getBoardGUI());
+            updateBoard(gameInfo.getPositionByNumber(gameInfo.getMoveNum()-1), true);
             gameInfo.goLeft();
-            isWhiteTurn = gameInfo.getMoveNum() % 2 != 0;
-            preMove();
+            isWhiteTurn = gameInfo.isWhiteToMoveByNumber(gameInfo.getMoveNum());
+            preMove(false);
             notationTable.selectEntry(gameInfo.getMoveNum(), gameInfo.getMoveNum()+1);
             moveReadyState = false;
         }
@@ -955,18 +1230,10 @@ public class Game {
      */
     public void goRight() {
         if(gameInfo.canGoRight()) {
-            root.getChildren().remove(getBoardGUI());
-            if (whiteBoardPosition) {
-                board.initWhiteBoard(gameInfo.getBoardByNumber(gameInfo.getMoveNum()+1),this);
-            } else {
-                board.initBlackBoard(gameInfo.getBoardByNumber(gameInfo.getMoveNum()+1),this);
-            }
-            AnchorPane.setTopAnchor(getBoardGUI(), topBarHeight + 20.0);
-            AnchorPane.setLeftAnchor(getBoardGUI(), 15.0);
-            root.getChildren().add(getBoardGUI());
+            updateBoard(gameInfo.getPositionByNumber(gameInfo.getMoveNum()+1), true);
             gameInfo.goRight();            
-            isWhiteTurn = gameInfo.getMoveNum() % 2 != 0;
-            preMove();
+            isWhiteTurn = gameInfo.isWhiteToMoveByNumber(gameInfo.getMoveNum());
+            preMove(false);
             notationTable.selectEntry(gameInfo.getMoveNum(), gameInfo.getMoveNum()-1);
             moveReadyState = gameInfo.getMoveNum() == gameInfo.getMoveCount()-1;
         }
@@ -978,18 +1245,10 @@ public class Game {
     public void goFarLeft() {
         if(gameInfo.canGoLeft()) {
             int oldNum = gameInfo.getMoveNum();
-            root.getChildren().remove(getBoardGUI());
-            if (whiteBoardPosition) {
-                board.initWhiteBoard(GameInfo.INITIAL_BOARD,this);
-            } else {
-                board.initBlackBoard(GameInfo.INITIAL_BOARD,this);
-            }
-            AnchorPane.setTopAnchor(getBoardGUI(), topBarHeight + 20.0);
-            AnchorPane.setLeftAnchor(getBoardGUI(), 15.0);
-            root.getChildren().add(getBoardGUI());
+            updateBoard(gameInfo.getPositionByNumber(-1), oldNum == 0);
             gameInfo.goFarLeft();
-            isWhiteTurn = gameInfo.getMoveNum() % 2 != 0;
-            preMove();
+            isWhiteTurn = gameInfo.isWhiteToMoveByNumber(gameInfo.getMoveNum());
+            preMove(false);
             notationTable.selectEntry(-1, oldNum);
             moveReadyState = false;
         }
@@ -1001,18 +1260,10 @@ public class Game {
     public void goFarRight() {
         if(gameInfo.canGoRight()) {
             int oldNum = gameInfo.getMoveNum();
-            root.getChildren().remove(getBoardGUI());
-            if (whiteBoardPosition) {
-                board.initWhiteBoard(gameInfo.getLastBoard(),this);
-            } else {
-                board.initBlackBoard(gameInfo.getLastBoard(),this);
-            }
-            AnchorPane.setTopAnchor(getBoardGUI(), topBarHeight + 20.0);
-            AnchorPane.setLeftAnchor(getBoardGUI(), 15.0);
-            root.getChildren().add(getBoardGUI());
+            updateBoard(gameInfo.getLastPosition(), oldNum == gameInfo.getMoveCount()-2);
             gameInfo.goFarRight();            
-            isWhiteTurn = gameInfo.getMoveNum() % 2 != 0;
-            preMove();
+            isWhiteTurn = gameInfo.isWhiteToMoveByNumber(gameInfo.getMoveNum());
+            preMove(false);
             notationTable.selectEntry(gameInfo.getMoveCount()-1, oldNum);
             moveReadyState = gameInfo.getMoveNum() == gameInfo.getMoveCount()-1;
         }
@@ -1025,18 +1276,10 @@ public class Game {
     public void goTo(int num) {
         if(num != gameInfo.getMoveNum()) {
             int oldNum = gameInfo.getMoveNum();
-            root.getChildren().remove(getBoardGUI());
-            if (whiteBoardPosition) {
-                board.initWhiteBoard(gameInfo.getBoardByNumber(num),this);
-            } else {
-               board.initBlackBoard(gameInfo.getBoardByNumber(num),this);
-            }
-            AnchorPane.setTopAnchor(getBoardGUI(), topBarHeight + 20.0);
-            AnchorPane.setLeftAnchor(getBoardGUI(), 15.0);
-            root.getChildren().add(getBoardGUI());
+            updateBoard(gameInfo.getPositionByNumber(num), Math.abs(num - oldNum) == 1);
             gameInfo.goTo(num); 
-            isWhiteTurn = gameInfo.getMoveNum() % 2 != 0;
-            preMove();
+            isWhiteTurn = gameInfo.isWhiteToMoveByNumber(gameInfo.getMoveNum());
+            preMove(false);
             notationTable.selectEntry(gameInfo.getMoveNum(), oldNum);
             moveReadyState = gameInfo.getMoveNum() == gameInfo.getMoveCount()-1;
         }
@@ -1046,11 +1289,12 @@ public class Game {
      * Reset the game by constructing a new game of the same parameters 
      */
     public void resetGame() {
+        cancelEngineMove();
         if(timerType == NO_TIMER) {
-            stage.getScene().setRoot(app.createPlayPane(stage));
+            stage.getScene().setRoot(app.createPlayPane(stage, engineSide, gameInfo.getStartPosition()));
         } else {
             stage.getScene().setRoot(app.createPlayPaneTimed(stage, TIMER_INFO[timerType][0], 
-                    TIMER_INFO[timerType][1],timerType));
+                    TIMER_INFO[timerType][1],timerType, engineSide, gameInfo.getStartPosition()));
         }
     }
     
@@ -1304,8 +1548,12 @@ public class Game {
     public VBox constructScoreBoard() {
         VBox sidebar = new VBox();
         sidebar.setId("scoreoutsets");
-        sidebar.setMinSize(barWidth, elementHeight + scoreBoardHeight + elementHeight);
-        sidebar.setMaxSize(barWidth, elementHeight + scoreBoardHeight + elementHeight);
+        double height = elementHeight + scoreBoardHeight + elementHeight + elementHeight;
+        if(isEngineEnabled()) {
+            height += elementHeight;
+        }
+        sidebar.setMinSize(barWidth, height);
+        sidebar.setMaxSize(barWidth, height);
         sidebar.setAlignment(Pos.CENTER);
         HBox titles = constructTitles();
         HBox bottomButtons = constructButtonPanel();
@@ -1313,10 +1561,55 @@ public class Game {
         HBox notationHBox = new HBox();
         notationHBox.getChildren().add(notationTable);
         notationHBox.setPadding(new Insets(0,barWidth*0.1,0,barWidth*0.1));
-        sidebar.getChildren().addAll(titles,notationHBox, bottomButtons);
+        sidebar.getChildren().addAll(titles,notationHBox, bottomButtons, constructEvaluationInfo());
+        if(isEngineEnabled()) {
+            sidebar.getChildren().add(constructEngineInfo());
+        }
         return sidebar;
     }
     
+    /**
+     * Construction of the Label displaying the static evaluation of the shown position
+     * @return Label to be constructed and returned
+     */
+    public final Label constructEvaluationInfo() {
+        evaluationInfo = new Label();
+        evaluationInfo.setFont(new Font("Roboto", 20*app.getScale()));
+        evaluationInfo.setId("topborder");
+        evaluationInfo.setAlignment(Pos.CENTER);
+        evaluationInfo.setMinSize(barWidth, elementHeight);
+        evaluationInfo.setMaxSize(barWidth, elementHeight);
+        return evaluationInfo;
+    }
+
+    /**
+     * Displays the static evaluation of a position from white's point of view
+     * @param position, the position shown on the Board
+     */
+    private void renderEvaluation(Position position) {
+        if(evaluationInfo != null) {
+            double score = Evaluation.evaluateWhite(position) / 100.0;
+            evaluationInfo.setText(String.format("Evaluation %+.2f", score));
+        }
+    }
+
+    /**
+     * Construction of the Label displaying the depth, speed and principal variation
+     * of the computer's search
+     * @return Label to be constructed and returned
+     */
+    public final Label constructEngineInfo() {
+        engineInfo = new Label(isEngineTurn() ? "Thinking..." : "");
+        engineInfo.setFont(new Font("Roboto", 15*app.getScale()));
+        engineInfo.setId("topborder");
+        engineInfo.setWrapText(true);
+        engineInfo.setAlignment(Pos.CENTER_LEFT);
+        engineInfo.setPadding(new Insets(0,10*app.getScale(),0,10*app.getScale()));
+        engineInfo.setMinSize(barWidth, elementHeight);
+        engineInfo.setMaxSize(barWidth, elementHeight);
+        return engineInfo;
+    }
+    
     public final void setUpNotationGUI() {
         notationTable = constructNotationTable();
     }
@@ -1328,6 +1621,8 @@ public class Game {
     public final NotationBoard constructNotationTable() {
         VBox vertical = new VBox();
         NotationBoard table = new NotationBoard(gameInfo.getMoves(), vertical, this, app);
+        Position start = gameInfo.getStartPosition();
+        table.setStart(start.getFullmoveNumber(), start.isWhiteToMove());
         table.setId("scrollborder");
         table.setFocusTraversable(false);
         double width = barWidth*0.8;
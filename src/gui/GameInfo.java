@@ -4,9 +4,12 @@
  * 7/3/20
  */
 package gui;
+import engine.Moves;
+import engine.Position;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 /**
  *
@@ -15,40 +18,37 @@ import java.util.ArrayList;
 public class GameInfo {
     
     
-    public static final byte EMPTY = 0; //Bytes used to represent pieces in ByteBoard
-    public static final byte WHITE_PAWN = 1;
-    public static final byte WHITE_BISHOP = 2;
-    public static final byte WHITE_KNIGHT = 3;
-    public static final byte WHITE_ROOK = 4;
-    public static final byte WHITE_QUEEN = 5;
-    public static final byte WHITE_KING = 6;
-    public static final byte BLACK_PAWN = 7;
-    public static final byte BLACK_BISHOP = 8;
-    public static final byte BLACK_KNIGHT = 9;
-    public static final byte BLACK_ROOK = 10;
-    public static final byte BLACK_QUEEN = 11;
-    public static final byte BLACK_KING = 12;
+    public static final byte EMPTY = Position.EMPTY; //Bytes used to represent pieces in ByteBoard
+    public static final byte WHITE_PAWN = Position.WHITE_PAWN;
+    public static final byte WHITE_BISHOP = Position.WHITE_BISHOP;
+    public static final byte WHITE_KNIGHT = Position.WHITE_KNIGHT;
+    public static final byte WHITE_ROOK = Position.WHITE_ROOK;
+    public static final byte WHITE_QUEEN = Position.WHITE_QUEEN;
+    public static final byte WHITE_KING = Position.WHITE_KING;
+    public static final byte BLACK_PAWN = Position.BLACK_PAWN;
+    public static final byte BLACK_BISHOP = Position.BLACK_BISHOP;
+    public static final byte BLACK_KNIGHT = Position.BLACK_KNIGHT;
+    public static final byte BLACK_ROOK = Position.BLACK_ROOK;
+    public static final byte BLACK_QUEEN = Position.BLACK_QUEEN;
+    public static final byte BLACK_KING = Position.BLACK_KING;
     
     public static final String[] NUMBER_TO_LETTER_TABLE = {"a","b","c","d","e","f","g","h"}; //convert number to readable format
     public static final String[] NUMBER_TO_FEN = {"","P","B","N","R","Q","K","p","b","n","r","q","k"}; //convert number to FEN format
-    public static final String INITIAL_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq -";
-    
-    public static final byte[][] INITIAL_BOARD = 
-                {{WHITE_ROOK,WHITE_KNIGHT,WHITE_BISHOP,WHITE_QUEEN,WHITE_KING,WHITE_BISHOP,WHITE_KNIGHT,WHITE_ROOK},
-                 {WHITE_PAWN,WHITE_PAWN,WHITE_PAWN,WHITE_PAWN,WHITE_PAWN,WHITE_PAWN,WHITE_PAWN,WHITE_PAWN},
-                 {EMPTY,EMPTY,EMPTY,EMPTY,EMPTY,EMPTY,EMPTY,EMPTY},
-                 {EMPTY,EMPTY,EMPTY,EMPTY,EMPTY,EMPTY,EMPTY,EMPTY},
-                 {EMPTY,EMPTY,EMPTY,EMPTY,EMPTY,EMPTY,EMPTY,EMPTY},
-                 {EMPTY,EMPTY,EMPTY,EMPTY,EMPTY,EMPTY,EMPTY,EMPTY},
-                 {BLACK_PAWN,BLACK_PAWN,BLACK_PAWN,BLACK_PAWN,BLACK_PAWN,BLACK_PAWN,BLACK_PAWN,BLACK_PAWN},
-                 {BLACK_ROOK,BLACK_KNIGHT,BLACK_BISHOP,BLACK_QUEEN,BLACK_KING,BLACK_BISHOP,BLACK_KNIGHT,BLACK_ROOK}};
+    public static final String INITIAL_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
     
     public static final byte WIDTH = 8;
     public static final byte HEIGHT = 8;
     
     private final ArrayList<Move> moves = new ArrayList<>(); //all moves
-    private byte[][] currentBoard; //the current board to perform actions on
+    private final Position start; //the Position before the first move, not modified
+    private final String startFEN;
+    private final Position position; //rules state, moved along the moves by make/unmake
+    private int positionNum = -1; //the move the position is currently on
     private int moveNum = -1; //the current move
+    private long[] hashHistory = new long[128]; //Zobrist key after each move, index 0 is the initial Position
+    private short[] halfmoveHistory = new short[128]; //halfmove clock after each move, same indexing
+    private byte[] castlingHistory = new byte[128]; //castling rights bits after each move, same indexing
+    private byte[] enPassantHistory = new byte[128]; //en passant square after each move or NO_SQUARE, same indexing
 
     public int getMoveNum() {
         return moveNum;
@@ -57,74 +57,68 @@ public class GameInfo {
     public ArrayList<Move> getMoves() {
         return moves;
     }
-
-    public byte[][] getCurrentBoard() {
-        return currentBoard;
+    
+    public GameInfo() {
+        this(Position.initial());
     }
-
-    public void setCurrentBoard(byte[][] currentBoard) {
-        this.currentBoard = currentBoard;
+    
+    /**
+     * Constructs a GameInfo whose moves are played from a given Position, such as one loaded from a FEN
+     * @param start, the Position before the first move, copied
+     */
+    public GameInfo(Position start) {
+        this.start = start.copy();
+        startFEN = start.toFEN();
+        position = start.copy();
+        hashHistory[0] = start.getHash();
+        halfmoveHistory[0] = (short) Math.min(start.getHalfmoveClock(), Short.MAX_VALUE);
+        castlingHistory[0] = (byte) start.getCastlingRights();
+        enPassantHistory[0] = (byte) start.getEnPassantSquare();
     }
     
-    public GameInfo() {
-        currentBoard = cloneArray(INITIAL_BOARD);
+    /**
+     * Returns a copy of the Position before the first move
+     * @return the starting Position
+     */
+    public Position getStartPosition() {
+        return start.copy();
     }
     
-    public boolean hasKingMoved(boolean forWhiteKing) {
-        int i = forWhiteKing ? 0 : 1;
-        while(i < moveNum+1) {
-            Move move = moves.get(i);
-            if(move.isCastle() || (move.hasPieceMoved() && move.getPieceMoved().isKing())) {
-                return false;
-            }
-            i=i+2;
-        }
-        return true;
+    public String getStartFEN() {
+        return startFEN;
     }
     
     /**
-     * Returns whether or not the move at the current moveNum can castle
-     * @param forWhiteKing is kingWhite
-     * @param kingSide, the side of the rook to check for
-     * @return canCastle
+     * Returns whether or not the Game started from the standard starting position
+     * @return true for a standard start
      */
-    public boolean canCastle(boolean forWhiteKing, boolean kingSide) {
-        int i = forWhiteKing ? 0 : 1;
-        while(i < moveNum) {
-            Move move = moves.get(i);
-            if(move.isCastle() || (move.hasPieceMoved() && move.getPieceMoved().isKing() 
-                    && move.getPieceMoved().isWhite() == forWhiteKing)) {
-                return false;
-            }
-            i=i+2;
-        }
-        if(kingSide && !canKingSideCastle(-1)) {
-            return false;
-        } else return kingSide || canQueenSideCastle(-1);
+    public boolean isStandardStart() {
+        return startFEN.equals(INITIAL_FEN);
+    }
+    
+    /**
+     * Returns whether or not white is to move after a given move number, from the side to move at the start
+     * @param num, the move number, -1 being the initial Position
+     * @return true if white is to move
+     */
+    public boolean isWhiteToMoveByNumber(int num) {
+        return (num % 2 != 0) == start.isWhiteToMove();
     }
 
     /**
-     * Returns whether or not the move at the current moveNum can castle
+     * Returns whether or not a side still has the right to castle at the current moveNum
+     * The rights are read from the state recorded after the move, not by scanning the moves
      * @param forWhiteKing is kingWhite
-     * @param rookToCastle, the rook to castle for (cannot have moved)
+     * @param kingSide, the side of the rook to check for
      * @return canCastle
-     * @deprecated method will not work if board has been reconstructed 
-     * the Rook needs the be the exact same memory reference to work
      */
-    @Deprecated
-    public boolean canCastle(boolean forWhiteKing, Piece rookToCastle) {
-        int i = forWhiteKing ? 0 : 1;
-        while(i < moveNum+1) {
-            Move move = moves.get(i);
-            if(move.isCastle() || (move.hasPieceMoved() && (move.getPieceMoved().isKing() 
-                    || move.getPieceMoved() == rookToCastle))) {
-                return false;
-            }
-            i=i+2;
-        }
-        return true;
+    public boolean canCastle(boolean forWhiteKing, boolean kingSide) {
+        int right = forWhiteKing 
+                ? (kingSide ? Position.WHITE_KING_SIDE : Position.WHITE_QUEEN_SIDE) 
+                : (kingSide ? Position.BLACK_KING_SIDE : Position.BLACK_QUEEN_SIDE);
+        return (getCastlingRightsByNumber(moveNum) & right) != 0;
     }
-    
+
     public boolean canGoLeft() {
         return moveNum > -1;
     }
@@ -157,33 +151,116 @@ public class GameInfo {
         return moves.size();
     }
     
-    private byte[][] getBoardByIndex(int num) {
-        return moves.get(num).getBoard();
+    /**
+     * Moves the Position to a move number by making or taking back the moves in between
+     * @param num, the move number, -1 being the initial Position
+     */
+    private void seek(int num) {
+        while(positionNum > num) {
+            Move move = moves.get(positionNum);
+            position.unmakeMove(move.getPackedMove(), move.getUndo());
+            positionNum--;
+        }
+        while(positionNum < num) {
+            positionNum++;
+            position.makeMove(moves.get(positionNum).getPackedMove());
+        }
     }
     
-    public byte[][] getBoardByNumber(int num) {
-        if(num != -1) {
-            return moves.get(num).getBoard();
-        } 
-        return GameInfo.INITIAL_BOARD;
+    /**
+     * Returns the Position after a given move number, -1 being the initial Position
+     * The Position is shared and only valid until the next call that moves it, copy it to keep it
+     * @param num, the move number
+     * @return the Position
+     */
+    public Position getPositionByNumber(int num) {
+        seek(num);
+        return position;
     }
 
-    public byte[][] getBeforeLastBoard() {
-        if(getMoveCount() > 1) {
-            return getBoardByIndex(getMoveCount()-2);
-        }
-        return GameInfo.INITIAL_BOARD;
+    /**
+     * Returns the Zobrist key of the Position after a given move number without moving the Position
+     * @param num, the move number, -1 being the initial Position
+     * @return the Zobrist key
+     */
+    public long getHashByNumber(int num) {
+        return hashHistory[num+1];
+    }
+    
+    /**
+     * Returns the Zobrist key of the Position at the current moveNum
+     * @return the Zobrist key
+     */
+    public long getMoveHash() {
+        return getHashByNumber(moveNum);
+    }
+    
+    /**
+     * Returns the halfmove clock (plies since the last capture or pawn move) after a given move number
+     * @param num, the move number, -1 being the initial Position
+     * @return the halfmove clock
+     */
+    public int getHalfmoveClockByNumber(int num) {
+        return halfmoveHistory[num+1];
+    }
+    
+    /**
+     * Returns the castling rights after a given move number without moving the Position
+     * @param num, the move number, -1 being the initial Position
+     * @return the castling rights bits, see Position.WHITE_KING_SIDE
+     */
+    public int getCastlingRightsByNumber(int num) {
+        return castlingHistory[num+1];
     }
     
-    public byte[][] getLastBoard() {
-        if(getMoveCount() > 0) {
-            return getBoardByIndex(getMoveCount()-1);
+    /**
+     * Returns the square a pawn can be taken en passant on after a given move number without moving the Position
+     * @param num, the move number, -1 being the initial Position
+     * @return the square, or Position.NO_SQUARE
+     */
+    public int getEnPassantSquareByNumber(int num) {
+        return enPassantHistory[num+1];
+    }
+    
+    /**
+     * Returns whether or not the Position after a given move number has occurred three times
+     * Only the Positions since the last capture or pawn move with the same side to move can
+     * repeat, so only those hashes are compared
+     * @param num, the move number, -1 being the initial Position
+     * @return true if the Position has been repeated three times
+     */
+    public boolean isThreefoldRepetition(int num) {
+        int index = num+1;
+        long hash = hashHistory[index];
+        int limit = Math.max(index - halfmoveHistory[index], 0);
+        int count = 1;
+        for(int i = index-2; i >= limit; i -= 2) {
+            if(hashHistory[i] == hash && ++count == 3) {
+                return true;
+            }
         }
-        return GameInfo.INITIAL_BOARD;
+        return false;
+    }
+    
+    /**
+     * Returns whether or not fifty moves by each side have been made without a capture or pawn move
+     * @param num, the move number, -1 being the initial Position
+     * @return true if the fifty move rule applies
+     */
+    public boolean isFiftyMoveRule(int num) {
+        return halfmoveHistory[num+1] >= 100;
+    }
+    
+    public Position getBeforeLastPosition() {
+        return getPositionByNumber(Math.max(getMoveCount()-2, -1));
+    }
+    
+    public Position getLastPosition() {
+        return getPositionByNumber(getMoveCount()-1);
     }
     
     public boolean isLastTurnWhite() {
-        return ((getMoveCount()-1) % 2) != 0;
+        return isWhiteToMoveByNumber(getMoveCount()-1);
     }
     
     public boolean isOnLastTurn() {
@@ -194,13 +271,9 @@ public class GameInfo {
      * Takes back a move by removing move from list and shifting moveNum back
      */
     public void takeBackMove() {
+        seek(getMoveCount()-2);
         moves.remove(getMoveCount()-1);
         moveNum = getMoveCount()-1;
-        if(getMoveCount()>0) {
-            currentBoard = cloneArray(getBoardByIndex(getMoveCount()-1));
-        } else {
-            currentBoard = cloneArray(INITIAL_BOARD);
-        }  
     }
     
     public boolean canTakeBack() {
@@ -208,142 +281,93 @@ public class GameInfo {
     }
     
     /**
-     * Checks moves to check if king can castle, if on initial position can always castle
-     * @param offset, the number of moves to go back to
-     * @return anKingSideCastle
+     * Finds the legal move between two squares in the current Position
+     * @param from, square moved from
+     * @param to, square moved to
+     * @param promotion, piece code promoted to or EMPTY
+     * @return the packed move
+     * @throws IllegalArgumentException if there is no such legal move
      */
-    public boolean canKingSideCastle(int offset) {
-        int num = moveNum - offset;
-        if((num < moves.size()) && num > -1) {
-            return moves.get(num).canKingSideCastle();
-        } else {
-            return true;
+    private int findLegalMove(int from, int to, byte promotion) {
+        int move = getLastPosition().findMove(from, to, promotion);
+        if(move == Moves.NONE) {
+            throw new IllegalArgumentException("Illegal move " + Moves.squareName(from) + Moves.squareName(to));
         }
+        return move;
     }
     
     /**
-     * Checks moves to check if king can castle, if on initial position can always castle
-     * @param offset, the number of moves to go back to
-     * @return anKingSideCastle
-     */
-    public boolean canQueenSideCastle(int offset) {
-        int num = moveNum - offset;
-        if((num < moves.size()) && num > -1) {
-            return moves.get(num).canQueenSideCastle();
-        } else {
-            return true;
-        }
-    }
-    
-    /**
-     * Performs a standard chess move on the gameInfo
+     * Performs a packed move on the gameInfo without any GUI objects
      * 
-     * Modifies currentBoard
+     * Makes the move on the Position, only the undo information is stored with the move
      * Increases the moveNum by one
-     * adds move with copy of currentBoard as ByteBoard to move list
      * 
-     * @param oldTile, tile to move from
-     * @param newTile, tile to move to 
+     * @param packedMove, a legal move in the Position after the last move
      */
-    public void makeMove(Tile oldTile, Tile newTile) {
-        boolean taken = newTile.hasPiece();
-        currentBoard[newTile.getRow()][newTile.getCol()] = currentBoard[oldTile.getRow()][oldTile.getCol()];
-        currentBoard[oldTile.getRow()][oldTile.getCol()] = EMPTY;
+    public void makeMove(int packedMove) {
+        Position before = getLastPosition();
         moveNum++;
-        Move move = new Move(oldTile.getRow(), oldTile.getCol(), newTile.getRow(), 
-                newTile.getCol(), oldTile.getPiece(), cloneArray(currentBoard),
-                canKingSideCastle(-2), canQueenSideCastle(-2), moveNum % 2 == 0, taken);
+        int from = Moves.from(packedMove);
+        int to = Moves.to(packedMove);
+        Move move;
+        if(Moves.isCastle(packedMove)) {
+            int castleType = Moves.flag(packedMove) == Moves.KING_CASTLE ? Move.KING_SIDE_CASTLE : Move.QUEEN_SIDE_CASTLE;
+            move = new Move(Moves.row(from), Moves.col(from), Moves.row(to), Moves.col(to), castleType, packedMove);
+        } else {
+            boolean taken = Moves.isCapture(packedMove) && !Moves.isEnPassant(packedMove); //en passant is noted with e.p.
+            move = new Move(Moves.row(from), Moves.col(from), Moves.row(to), Moves.col(to), 
+                    before.pieceAt(from), before, packedMove, taken);
+        }
+        move.setUndo(before.makeMove(packedMove));
         moves.add(move);
+        positionNum = moves.size()-1;
+        if(moves.size() == hashHistory.length) {
+            hashHistory = Arrays.copyOf(hashHistory, hashHistory.length*2);
+            halfmoveHistory = Arrays.copyOf(halfmoveHistory, halfmoveHistory.length*2);
+            castlingHistory = Arrays.copyOf(castlingHistory, castlingHistory.length*2);
+            enPassantHistory = Arrays.copyOf(enPassantHistory, enPassantHistory.length*2);
+        }
+        hashHistory[moves.size()] = before.getHash();
+        halfmoveHistory[moves.size()] = (short) Math.min(before.getHalfmoveClock(), Short.MAX_VALUE);
+        castlingHistory[moves.size()] = (byte) before.getCastlingRights();
+        enPassantHistory[moves.size()] = (byte) before.getEnPassantSquare();
     }
     
     /**
-     * Performs an en passant chess move on the gameInfo
-     * 
-     * Modifies currentBoard
-     * Increases the moveNum by one
-     * adds move with copy of currentBoard as ByteBoard to move list
-     * 
-     * @param oldTile, tile to move from
-     * @param newTile, tile to move to 
-     * @param taken the piece taken en passant
+     * Performs a standard chess move on the gameInfo
+     * @param from, square moved from
+     * @param to, square moved to 
      */
-    public void makeMoveEnPassant(Tile oldTile, Tile newTile, Piece taken) {
-        currentBoard[newTile.getRow()][newTile.getCol()] = currentBoard[oldTile.getRow()][oldTile.getCol()];
-        currentBoard[oldTile.getRow()][oldTile.getCol()] = EMPTY;
-        currentBoard[taken.getTile().getRow()][taken.getTile().getCol()] = EMPTY;
-        moveNum++;
-        Move move = new Move(oldTile.getRow(), oldTile.getCol(), newTile.getRow(), 
-                newTile.getCol(), oldTile.getPiece(), cloneArray(currentBoard), 
-                canKingSideCastle(-2), canQueenSideCastle(-2), moveNum % 2 == 0, false);
-        moves.add(move);
+    public void makeMove(int from, int to) {
+        makeMove(findLegalMove(from, to, EMPTY));
     }
     
     /**
-     * Performs a promotion chess move on the gameInfo
-     * 
-     * Modifies currentBoard
-     * Increases the moveNum by one
-     * adds move with copy of currentBoard as ByteBoard to move list
-     * 
-     * @param oldTile, tile to move from
-     * @param newTile, tile to move to 
-     * @param promotionTo piece to be promoted to
+     * Performs an en passant chess move on the gameInfo
+     * @param from, square moved from
+     * @param to, square moved to, behind the pawn taken
      */
-    public void makeMovePromotion(Tile oldTile, Tile newTile, Piece promotionTo) {
-        boolean taken = newTile.hasPiece();
-        currentBoard[newTile.getRow()][newTile.getCol()] = promotionTo.getInfoCode();
-        currentBoard[oldTile.getRow()][oldTile.getCol()] = EMPTY;
-        moveNum++;
-        Move move = new Move(oldTile.getRow(), oldTile.getCol(), newTile.getRow(), 
-                newTile.getCol(), oldTile.getPiece(), cloneArray(currentBoard), 
-                canKingSideCastle(-2), canQueenSideCastle(-2), moveNum % 2 == 0,taken);
-        moves.add(move);
+    public void makeMoveEnPassant(int from, int to) {
+        makeMove(findLegalMove(from, to, EMPTY));
     }
     
     /**
-     * Performs a castle QueenSide on the gameInfo
-     * 
-     * Modifies currentBoard
-     * Increases the moveNum by one
-     * adds move with copy of currentBoard as ByteBoard to move list
-     * 
-     * @param king the king to perform castling on
-     * @param rook the rook to perform castling with
+     * Performs a promotion chess move on the gameInfo
+     * @param from, square moved from
+     * @param to, square moved to 
+     * @param promotion, piece code to be promoted to
      */
-    public void makeMoveCastleQueenSide(Piece king, Piece rook) {
-        Tile kingTile = king.getTile();
-        Tile rookTile = rook.getTile();
-        currentBoard[kingTile.getRow()][kingTile.getCol()-2] = currentBoard[kingTile.getRow()][kingTile.getCol()];
-        currentBoard[rookTile.getRow()][rookTile.getCol()+3] = currentBoard[rook.getTile().getRow()][rook.getTile().getCol()];
-        currentBoard[kingTile.getRow()][kingTile.getCol()] = EMPTY;
-        currentBoard[rookTile.getRow()][rookTile.getCol()] = EMPTY;
-        moveNum++;
-        Move move = new Move(kingTile.getRow(), kingTile.getCol(), kingTile.getRow(), kingTile.getCol()-2,
-                Move.QUEEN_SIDE_CASTLE, cloneArray(currentBoard));
-        moves.add(move);  
+    public void makeMovePromotion(int from, int to, byte promotion) {
+        makeMove(findLegalMove(from, to, promotion));
     }
     
     /**
-     * Performs a castle KingSide on the gameInfo
-     * 
-     * Modifies currentBoard
-     * Increases the moveNum by one
-     * adds move with copy of currentBoard as ByteBoard to move list
-     * 
-     * @param king the king to perform castling on
-     * @param rook the rook to perform castling with
+     * Performs a castle for the side to move on the gameInfo
+     * @param kingSide, whether to castle with the king side or queen side rook
      */
-    public void makeMoveCastleKingSide(Piece king, Piece rook) {
-        Tile kingTile = king.getTile();
-        Tile rookTile = rook.getTile();
-        currentBoard[kingTile.getRow()][kingTile.getCol()+2] = currentBoard[kingTile.getRow()][kingTile.getCol()];
-        currentBoard[rookTile.getRow()][rookTile.getCol()-2] = currentBoard[rook.getTile().getRow()][rook.getTile().getCol()];
-        currentBoard[kingTile.getRow()][kingTile.getCol()] = EMPTY;
-        currentBoard[rookTile.getRow()][rookTile.getCol()] = EMPTY;
-        moveNum++;
-        Move move = new Move(kingTile.getRow(), kingTile.getCol(), kingTile.getRow(), kingTile.getCol()+2,
-                Move.KING_SIDE_CASTLE, cloneArray(currentBoard));
-        moves.add(move); 
+    public void makeMoveCastle(boolean kingSide) {
+        int kingSquare = getLastPosition().kingSquare(isLastTurnWhite());
+        makeMove(findLegalMove(kingSquare, kingSide ? kingSquare+2 : kingSquare-2, EMPTY));
     }
 
     /**
@@ -360,8 +384,8 @@ public class GameInfo {
         return recentlyMoved;
     }
     
-    public void setRecentPromotion(Piece promotionTo) {
-        moves.get(moves.size()-1).setPromotionNot(promotionTo);
+    public void setRecentPromotion(byte promotion) {
+        moves.get(moves.size()-1).setPromotionNot(promotion);
     }
     
     public void setRecentEnPassant() {
@@ -384,115 +408,48 @@ public class GameInfo {
         moves.get(moves.size()-1).setCapture(true);
     }
     
-    @Deprecated
-    public void setRecentNotation() {
-        moves.get(moves.size()-1).setNotation();
-    }
-    
     /**
      * Calculates the FEN for the current moveNum move
      * @return FEN as a string
      */
     public String getMoveFEN() {
-        if(moveNum < 0) {
-            return INITIAL_FEN;
-        }
-        Move move = moves.get(moveNum);
-        byte[][] board = move.getBoard();
-        StringBuilder FEN = new StringBuilder();
-        int spaceCount = 0;
-        for(int i = Game.HEIGHT-1; i >= 0; i--) {
-            for(int j = 0; j < Game.WIDTH; j++) {
-                if(board[i][j] != EMPTY) {
-                    if(spaceCount != 0) {
-                        FEN.append(spaceCount);
-                    } 
-                    FEN.append(NUMBER_TO_FEN[board[i][j]]);
-                    spaceCount = 0;
-                } else {
-                    spaceCount++;
-                }
-            }
-            if(i != 0) {
-                if (spaceCount != 0) {
-                    FEN.append(spaceCount);
-                }
-                spaceCount = 0;
-                FEN.append("/");
-            }
-        }
-        boolean boolIsWhite = moveNum % 2 == 0;
-        String isWhite = boolIsWhite ? " b" : " w";
-        FEN.append(isWhite);
-        boolean whiteQueenSide = true;
-        boolean whiteKingSide = true;
-        boolean blackQueenSide = true;
-        boolean blackKingSide = true;
-        boolean whiteKingMoved = hasKingMoved(true);
-        boolean blackKingMoved = hasKingMoved(false);
-        Move checkWhite;
-        Move checkBlack;
-        if(moveNum > 0) {
-            checkWhite = boolIsWhite ? moves.get(moveNum) : moves.get(moveNum - 1);
-            checkBlack = boolIsWhite ? moves.get(moveNum - 1) : moves.get(moveNum);
-            whiteKingSide = checkWhite.canKingSideCastle() && whiteKingMoved;
-            whiteQueenSide = checkWhite.canQueenSideCastle() && whiteKingMoved;
-            blackKingSide = checkBlack.canKingSideCastle() && blackKingMoved;
-            blackQueenSide = checkBlack.canQueenSideCastle() && blackKingMoved;
-        } 
-        if(whiteQueenSide || whiteKingSide || blackQueenSide || blackKingSide) {
-            String K = whiteKingSide ? "K" : "";
-            String Q = whiteQueenSide ? "Q" : "";
-            String k = blackKingSide ? "k" : "";
-            String q = blackQueenSide ? "q" : "";
-            FEN.append(" ").append(K).append(Q).append(k).append(q);
-        } else {
-            FEN.append(" -");
-        }
-        if(moveNum != -1) {
-            if(move.canEnPassant(boolIsWhite)) {
-                int row = move.getNewPos()[0]+1;
-                int col = move.getNewPos()[1];
-                if(boolIsWhite) {
-                    int passantRow = row-1;
-                    FEN.append(" ").append(NUMBER_TO_LETTER_TABLE[col]).append(passantRow);
-                } else {
-                    int passantRow = row+1;
-                    FEN.append(" ").append(NUMBER_TO_LETTER_TABLE[col]).append(passantRow);
-                }
-            } else {
-                FEN.append(" -");
-            }
-        } else {
-            FEN.append(" -");
-        }
-        return FEN.toString();
+        return getPositionByNumber(moveNum).toFEN();
     }
     
     /**
      * Return game PGN for file export by adding each Move notation
-     * @param result, the result of the game to get headers for
+     * @param result, the result of the game, 1-0, 0-1, 1/2-1/2 or *, written as the Result tag
+     * and as the termination marker so the game reads back through PGNReader
      * @return PGN as a string
      */
     public String getGamePGN(String result) {
         StringBuilder PGN = new StringBuilder(getPGNHeaders(result));
+        int number = start.getFullmoveNumber();
+        boolean white = start.isWhiteToMove();
         int i = 0;
         for(Move move : moves) {
             if(i % 10 == 0) {
                 PGN.append("\n");
             }
-            if(i % 2 == 0) {
-                PGN.append(" ").append(((i / 2) + 1)).append(".");
+            if(white) {
+                PGN.append(" ").append(number).append(".");
+            } else if(i == 0) {
+                PGN.append(" ").append(number).append("..."); //black moves first
             }
             PGN.append(" ").append(move.getNotation());
+            if(!white) {
+                number++;
+            }
+            white = !white;
             i++;
         } 
+        PGN.append(" ").append(result).append("\n");
         return PGN.toString();
     }
     
     /**
      * Return PGN headers for file export
-     * @param result, the result of the game to return headers for
+     * @param result, the result of the game, 1-0, 0-1, 1/2-1/2 or *
      * @return headers as a string
      */
     public String getPGNHeaders(String result) {
@@ -501,7 +458,8 @@ public class GameInfo {
                 + "[Date \"" + getDate() + "\"]\n"
                 + "[White \"Player1\"]\n"
                 + "[Black \"Player2\"]\n"
-                + result + "\n";
+                + (isStandardStart() ? "" : "[SetUp \"1\"]\n[FEN \"" + startFEN + "\"]\n")
+                + "[Result \"" + result + "\"]\n";
     }
     
     /**
@@ -514,19 +472,5 @@ public class GameInfo {
         return dtf.format(now);
     }
     
-    /**
-     * Clones the array
-     * @param src ByteBoard to be copied
-     * @return return copy as ByteBoard
-     */
-    public static byte[][] cloneArray(byte[][] src) {
-        int length = src.length;
-        byte[][] target = new byte[length][src[0].length];
-        for (int i = 0; i < length; i++) {
-            System.arraycopy(src[i], 0, target[i], 0, src[i].length);
-        }
-        return target;
-    }
-    
 }
 
@@ -0,0 +1,80 @@
+/*
+ * Cache of the legal moves of the Positions rendered by a Board, keyed by Zobrist hash
+ * Navigating back and forth through a Game or flipping the Board reuses already calculated moves
+ * 10/17/26
+ */
+package gui;
+
+import engine.MoveList;
+import engine.Position;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ *
+ * @author Joseph
+ */
+public final class LegalMoveCache {
+
+    public static final int DEFAULT_CAPACITY = 1024; //positions kept, the least recently used is dropped first
+
+    private final int capacity;
+    private final LinkedHashMap<Long, int[]> moves;
+    private final MoveList scratch = new MoveList(); //generation buffer, copied into an exact size array
+    private long hits;
+    private long misses;
+
+    public LegalMoveCache(int capacity) {
+        this.capacity = capacity;
+        moves = new LinkedHashMap<Long, int[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+                return size() > LegalMoveCache.this.capacity;
+            }
+        };
+    }
+
+    public LegalMoveCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Returns the legal moves of a Position, generating them only the first time the Position is seen
+     * @param position, the Position
+     * @return the packed legal moves, shared with the cache and not to be modified
+     */
+    public int[] getMoves(Position position) {
+        int[] legal = moves.get(position.getHash());
+        if(legal != null) {
+            hits++;
+            return legal;
+        }
+        misses++;
+        position.generateMoves(scratch);
+        legal = new int[scratch.size()];
+        for(int i = 0; i < legal.length; i++) {
+            legal[i] = scratch.get(i);
+        }
+        moves.put(position.getHash(), legal);
+        return legal;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public int size() {
+        return moves.size();
+    }
+
+    public void clear() {
+        moves.clear();
+        hits = 0;
+        misses = 0;
+    }
+}
@@ -4,6 +4,10 @@
  */
 package gui;
 
+import engine.MoveList;
+import engine.Moves;
+import engine.Position;
+
 import java.util.ArrayList;
 
 /**
@@ -13,31 +17,30 @@ import java.util.ArrayList;
 public class Move {
     
     public static final String[] NUMBER_TO_LETTER_TABLE = {"a","b","c","d","e","f","g","h"}; //used in conversion to notation
+    public static final String[] TYPE_TO_NOTATION = {"","","B","N","R","Q","K"}; //piece type to notation prefix
     public static final int NO_CASTLE = 0;
     public static final int KING_SIDE_CASTLE = 1;
     public static final int QUEEN_SIDE_CASTLE = 2;
      
-    private final byte[][] board; //byte board to be stored
+    private final int packedMove; //the move as played on the GameInfo Position
+    private int undo; //state the move destroyed, used to take the move back
     private final int[] oldPos = new int[2];
     private final int[] newPos = new int[2];
-    private Piece pieceMoved;
+    private byte pieceMoved = Position.EMPTY; //piece code of the piece moved, EMPTY for castles
     private final int castleStatus;
     private String notation;
     private boolean capture = false;
-    
-    private boolean canKingSideCastle;
-    private boolean canQueenSideCastle;
 
-    public void setCanKingSideCastle(boolean canKingSideCastle) {
-        this.canKingSideCastle = canKingSideCastle;
+    public int getPackedMove() {
+        return packedMove;
     }
 
-    public void setCanQueenSideCastle(boolean canQueenSideCastle) {
-        this.canQueenSideCastle = canQueenSideCastle;
+    public int getUndo() {
+        return undo;
     }
 
-    public byte[][] getBoard() {
-        return board;
+    public void setUndo(int undo) {
+        this.undo = undo;
     }
 
     public int[] getOldPos() {
@@ -48,16 +51,16 @@ public class Move {
         return newPos;
     }
     
-    public Piece getPieceMoved() {
+    public byte getPieceMoved() {
         return pieceMoved;
     }
-
-    public void setPieceMoved(Piece pieceMoved) {
-        this.pieceMoved = pieceMoved;
-    }
     
     public boolean hasPieceMoved() {
-        return pieceMoved != null;
+        return pieceMoved != Position.EMPTY;
+    }
+    
+    public boolean isKingMoved() {
+        return Position.typeOf(pieceMoved) == Position.KING;
     }
     
     public boolean isCastle() {
@@ -78,41 +81,24 @@ public class Move {
      * @param oldCol to be moved from
      * @param newRow to be moved to
      * @param newCol to be moved to
-     * @param moved, piece moved on turn
-     * @param boardIn, ByteBoard to be stored
-     * @param canKingSideCastleIn, whether or not king could castle last Move
-     * @param canQueenSideCastleIn, whether or not queen could castle last Move
-     * @param forWhite, side move is for
+     * @param moved, piece code of the piece moved on turn
+     * @param before, Position before the move (used for notation)
+     * @param packedMoveIn, the move as a packed move
      * @param taken whether a piece was taken this turn
      */
-    public Move(int oldRow, int oldCol, int newRow, int newCol, Piece moved, byte[][] boardIn,
-                boolean canKingSideCastleIn, boolean canQueenSideCastleIn, boolean forWhite, boolean taken) {
+    public Move(int oldRow, int oldCol, int newRow, int newCol, byte moved,
+                Position before, int packedMoveIn, boolean taken) {
         oldPos[0] = oldRow;
         oldPos[1] = oldCol;
         newPos[0] = newRow;
         newPos[1] = newCol;
 	pieceMoved = moved;
         castleStatus = NO_CASTLE;
-        board = boardIn;   
-        canKingSideCastle = canKingSideCastleIn;
-        canQueenSideCastle = canQueenSideCastleIn;
+        packedMove = packedMoveIn;
         if(!taken) {
-            notation = calcPiecePrefix(pieceMoved,oldPos,newPos) + getCharacterNotation(newPos[1]) + (newPos[0]+1);
+            notation = calcPiecePrefix(before,oldPos,newPos) + getCharacterNotation(newPos[1]) + (newPos[0]+1);
         } else {
-            notation = calcPiecePrefix(pieceMoved,oldPos,newPos) + "x" + getCharacterNotation(newPos[1]) + (newPos[0]+1);
-        }
-        if(forWhite) {
-            if(moved.getTile().getCol() == Game.LOWER_BOUNDARY && moved.getTile().getRow() == Game.LOWER_BOUNDARY) {
-                canQueenSideCastle = false;
-            } else if(moved.getTile().getCol() == Game.UPPER_BOUNDARY && moved.getTile().getRow() == Game.LOWER_BOUNDARY) {
-                canKingSideCastle = false;
-            }
-        } else {
-            if(moved.getTile().getCol() == Game.LOWER_BOUNDARY && moved.getTile().getRow() == Game.UPPER_BOUNDARY) {
-                canQueenSideCastle = false;
-            } else if(moved.getTile().getCol() == Game.UPPER_BOUNDARY && moved.getTile().getRow() == Game.UPPER_BOUNDARY) {
-                canKingSideCastle = false;
-            }
+            notation = calcPiecePrefix(before,oldPos,newPos) + "x" + getCharacterNotation(newPos[1]) + (newPos[0]+1);
         }
     }
     
@@ -123,40 +109,18 @@ public class Move {
      * @param newRow to be moved to
      * @param newCol to be moved to
      * @param castleType KING_SIDE_CASTLE or QUEEN_SIDE_CASTLE
-     * @param boardIn, ByteBoard to be stored
+     * @param packedMoveIn, the move as a packed move
      */
-    public Move(int oldRow, int oldCol, int newRow, int newCol, int castleType, byte[][] boardIn) {
+    public Move(int oldRow, int oldCol, int newRow, int newCol, int castleType, int packedMoveIn) {
         oldPos[0] = oldRow;
         oldPos[1] = oldCol;
         newPos[0] = newRow;
         newPos[1] = newCol;
         castleStatus = castleType;
-        board = boardIn;
-        canKingSideCastle = false;
-        canQueenSideCastle = false;
+        packedMove = packedMoveIn;
         notation = isQueenSide(castleStatus) ? "0-0-0" : "0-0";
     }
     
-    /**
-     * Can be used to set the notation of a move
-     * @deprecated because notation is already set in construction, re-setting notation
-     * could lead to the WRONG information being set if called at the wrong time
-     */
-    @Deprecated
-    public void setNotation() {
-        if(castleStatus == NO_CASTLE) {
-            String notationToAdd;
-            if(!capture) {
-                notationToAdd = calcPiecePrefix(pieceMoved,oldPos,newPos) + getCharacterNotation(newPos[1]) + (newPos[0]+1);
-            } else {
-                notationToAdd = calcPiecePrefix(pieceMoved,oldPos,newPos) + "x" + getCharacterNotation(newPos[1]) + (newPos[0]+1);
-            }
-            notation = notationToAdd;
-        } else {
-            notation = isQueenSide(castleStatus) ? "0-0-0" : "0-0";
-        }
-    }
-    
     /**
      * Calculates the piece prefix to be used
      * 
@@ -164,22 +128,22 @@ public class Move {
      * the same location, the piece moved needs a position specifier
      * Follows preference of 1.Col 2.Row 3.Col+Row
      * 
-     * @param piece, piece to find notation for
+     * @param before, Position before the move is made
      * @param old, old position of the move
      * @param loc, new location the piece is moved to
      * @return the piece prefix as string (including position specifier if needed)
      */
-    public final String calcPiecePrefix(Piece piece, int[] old, int[] loc) {
-        String str = pieceMoved.getNotation();
+    public final String calcPiecePrefix(Position before, int[] old, int[] loc) {
+        String str = TYPE_TO_NOTATION[Position.typeOf(pieceMoved)];
         boolean matchingCol = false;
         boolean matchingRow = false;
-        ArrayList<int[]> commonPieceLocations = piece.calcCommonPieceLocations(loc);
+        ArrayList<int[]> commonPieceLocations = calcCommonPieceLocations(before, old, loc);
         if(!commonPieceLocations.isEmpty()) {
             for (int[] location : commonPieceLocations) {
-                if (location[0] == piece.getTile().getRow()) {
+                if (location[0] == old[0]) {
                     matchingRow = true;
                 }
-                if (location[1] == piece.getTile().getCol()) {
+                if (location[1] == old[1]) {
                     matchingCol = true;
                 }
             }
@@ -196,6 +160,33 @@ public class Move {
         return str;
     }
     
+    /**
+     * Calculates and returns a list of any other pieces of the same 
+     * type that can legally move to the same location on the board
+     * @param before, Position before the move is made
+     * @param old, the location of the piece to be moved
+     * @param loc the location the piece is to be moved to
+     * @return ArrayList of locations other pieces {row,column}
+     */
+    public static ArrayList<int[]> calcCommonPieceLocations(Position before, int[] old, int[] loc) {
+        ArrayList<int[]> locations = new ArrayList<>();
+        int from = Moves.square(old[0], old[1]);
+        int to = Moves.square(loc[0], loc[1]);
+        byte piece = before.pieceAt(from);
+        MoveList legal = new MoveList();
+        before.generateMoves(legal);
+        for(int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            int other = Moves.from(move);
+            boolean duplicatePromotion = Moves.isPromotion(move) 
+                    && Moves.promotionPiece(move, true) != GameInfo.WHITE_QUEEN; //count each pawn once
+            if(Moves.to(move) == to && other != from && before.pieceAt(other) == piece && !duplicatePromotion) {
+                locations.add(new int[]{Moves.row(other), Moves.col(other)});
+            }
+        }
+        return locations;
+    }
+    
     /**
      * Returns the character notation for a given number 
      * @param num, the number (typically a Column)
@@ -226,8 +217,8 @@ public class Move {
         notation = notation + "#";
     }
     
-    public void setPromotionNot(Piece promotionTo) {
-        notation = notation + promotionTo.getNotation();
+    public void setPromotionNot(byte promotion) {
+        notation = notation + TYPE_TO_NOTATION[Position.typeOf(promotion)];
     }
     
     public void setStaleMateNot() {
@@ -237,27 +228,5 @@ public class Move {
     public void setCapture(boolean captureIn) {
         capture = captureIn;
     }
-    
-    public boolean canKingSideCastle() {
-        return canKingSideCastle;
-    }
-    
-    public boolean canQueenSideCastle() {
-        return canQueenSideCastle;
-    }
-    
-    /**
-     * Calculates whether enPassant can be performed from a move
-     * @param forWhite, whether the enPassant is for white
-     * @return whether or not enPassant can be performed
-     */
-    public boolean canEnPassant(boolean forWhite) {
-        if(pieceMoved != null) {
-            return pieceMoved.isPawn() && ((forWhite && oldPos[0] == 1 && newPos[0] == 3) || 
-                    (!forWhite && oldPos[0] == 6 && newPos[0] == 4));
-        } else {
-            return false;
-        }
-    }
 
 }
@@ -5,6 +5,7 @@ package gui;
 
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.HBox;
@@ -26,6 +27,8 @@ public class NotationBoard extends ScrollPane{
     private final VBox moveGui;
     private final ArrayList<HBox> moves;
     private Label msgLbl;
+    private int firstNumber = 1; //move number of the first row
+    private int offset = 0; //1 when black moved first, shifting every move one entry to the right
         
     /**
      * Constructs a NotationBoard liked to a VBox GUI, controller class, and moveList
@@ -68,47 +71,66 @@ public class NotationBoard extends ScrollPane{
         }
     }
     
+    /**
+     * Sets the move number and side of the first move when the Game does not start from the standard position
+     * When black moves first the first row starts with an empty white entry
+     * @param fullmoveNumber, the number of the first row
+     * @param whiteFirst, whether or not white makes the first move
+     */
+    public void setStart(int fullmoveNumber, boolean whiteFirst) {
+        firstNumber = fullmoveNumber;
+        offset = whiteFirst ? 0 : 1;
+    }
+    
     /**
      * Add the most recent move on the moveList to VBox GUI
      */
     public void addLastToGUI() {
         int lastIndex = moveData.size() - 1;
         String ply = moveData.get(lastIndex).getNotation();
-        if (lastIndex % 2 == 0) {
+        if ((lastIndex + offset) % 2 == 0 || moves.isEmpty()) {
             HBox move = new HBox();
-            Label numLbl = new Label((moves.size() + 1) + ". ");
+            Label numLbl = new Label((moves.size() + firstNumber) + ". ");
             numLbl.setAlignment(Pos.CENTER);
             numLbl.setFont(new Font("Roboto", 22*app.getScale()));
             numLbl.setMinSize((50*app.getScale()), 38*app.getScale());
             numLbl.setMaxSize((50*app.getScale()), 38*app.getScale());
-            Label plyLbl = new Label(ply);
-            plyLbl.setFont(new Font("Roboto", 22*app.getScale()));
-            plyLbl.setId("ply");
-            plyLbl.setPadding(new Insets(0,0,0,10*app.getScale()));
-            plyLbl.setMinSize((90*app.getScale()), 38*app.getScale());
-            plyLbl.setMaxSize((90*app.getScale()), 38*app.getScale());
-            plyLbl.setOnMouseClicked((event)-> game.goTo(lastIndex));
-            move.getChildren().addAll(numLbl, plyLbl);
+            move.getChildren().add(numLbl);
+            if ((lastIndex + offset) % 2 != 0) {
+                move.getChildren().add(constructPly("...", -1)); //black moved first
+            }
             moveGui.getChildren().add(move);
             moves.add(move);
-        } else {
-            Label plyLbl = new Label(ply);
-            plyLbl.setFont(new Font("Roboto", 22*app.getScale()));
-            plyLbl.setId("ply");
-            plyLbl.setPadding(new Insets(0,0,0,10));
-            plyLbl.setMinSize((90*app.getScale()), 38*app.getScale());
-            plyLbl.setMaxSize((90*app.getScale()), 38*app.getScale());
-            plyLbl.setOnMouseClicked((event)-> game.goTo(lastIndex));
-            moves.get(moves.size() - 1).getChildren().add(plyLbl);
         }
+        moves.get(moves.size() - 1).getChildren().add(constructPly(ply, lastIndex));
+    }
+    
+    /**
+     * Construction of a ply Label that jumps to its move when clicked
+     * @param ply, the notation of the move
+     * @param index, the move number, -1 for a placeholder that is not clickable
+     * @return Label to be returned
+     */
+    private Label constructPly(String ply, int index) {
+        Label plyLbl = new Label(ply);
+        plyLbl.setFont(new Font("Roboto", 22*app.getScale()));
+        plyLbl.setId("ply");
+        plyLbl.setPadding(new Insets(0,0,0,10*app.getScale()));
+        plyLbl.setMinSize((90*app.getScale()), 38*app.getScale());
+        plyLbl.setMaxSize((90*app.getScale()), 38*app.getScale());
+        if(index > -1) {
+            plyLbl.setOnMouseClicked((event)-> game.goTo(index));
+        }
+        return plyLbl;
     }
     
     /**
      * Remove the most recent move on the moveList to VBox GUI
+     * Called after the move is removed from the moveList
      */
     public void removeLastFromGUI() {
-        int lastIndex = moveData.size() - 1;
-        if (lastIndex % 2 != 0) {
+        int removedIndex = moveData.size();
+        if ((removedIndex + offset) % 2 == 0 || removedIndex == 0) {
             moveGui.getChildren().remove(moves.get(moves.size() - 1));
             moves.remove(moves.size() - 1);
         } else {
@@ -124,19 +146,9 @@ public class NotationBoard extends ScrollPane{
      */
     public void selectEntry(int newNum, int oldNum) {
         if(oldNum > -1) {
-            if(oldNum % 2 == 0) {
-                moves.get(oldNum/2).getChildren().get(1).setId("ply");
-            } else {
-                moves.get(oldNum/2).getChildren().get(2).setId("ply");
-            }
-        }
-        if(newNum > -1) {
-            if(newNum % 2 == 0) {
-                moves.get(newNum/2).getChildren().get(1).setId("plyhighlighted");
-            } else {
-                moves.get(newNum/2).getChildren().get(2).setId("plyhighlighted");
-            }
+            getEntry(oldNum).setId("ply");
         }
+        selectEntry(newNum);
     }
     
     /**
@@ -145,13 +157,12 @@ public class NotationBoard extends ScrollPane{
      */
     public void selectEntry(int newNum) {
         if(newNum > -1) {
-            if(newNum % 2 == 0) {
-                moves.get(newNum/2).getChildren().get(1).setId("plyhighlighted");
-            } else {
-                moves.get(newNum/2).getChildren().get(2).setId("plyhighlighted");
-            }
+            getEntry(newNum).setId("plyhighlighted");
         }
     }
-
     
+    private Node getEntry(int num) {
+        int slot = num + offset;
+        return moves.get(slot/2).getChildren().get(slot % 2 == 0 ? 1 : 2);
+    }
 }
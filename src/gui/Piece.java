@@ -4,13 +4,12 @@
  */
 package gui;
 
+import engine.Moves;
 import javafx.animation.TranslateTransition;
 import javafx.geometry.Bounds;
 import javafx.scene.layout.StackPane;
 import javafx.util.Duration;
 
-import java.util.ArrayList;
-
 /**
  *
  * @author Joseph
@@ -32,7 +31,10 @@ public abstract class Piece extends StackPane {
     private double initialX, initialY; //initial position when mouse is clicked
     private final boolean isWhite;
     private Tile tile; //tile piece is on
-    private final ArrayList<Tile> available = new ArrayList<>(); //available tiles of piece used for render
+    public static final int MAX_MOVES = 27; //a queen in the center of an empty board
+    private final int[] available = new int[MAX_MOVES]; //packed legal moves of piece used for render
+    private int availableCount;
+    private TranslateTransition transition; //slide to a tile, null when not moving
 
     public double getTileSize() {
         return tileSize;
@@ -50,8 +52,12 @@ public abstract class Piece extends StackPane {
         this.closeable = closeable;
     }
 
-    public ArrayList<Tile> getAvailable() {
-        return available;
+    public int getAvailableCount() {
+        return availableCount;
+    }
+
+    public int getAvailable(int index) {
+        return available[index];
     }
     
     public Tile getTile() {
@@ -215,6 +221,7 @@ public abstract class Piece extends StackPane {
      * @param tile to move to
      */
     public final void moveTo(Tile tile) {
+        stopTransition();
         oldX = tile.getXReal();
         oldY = tile.getYReal();
         setTranslateX(oldX);
@@ -232,14 +239,26 @@ public abstract class Piece extends StackPane {
         if(distance(x,y) < (tile.getTileSize())/2) {
             time = 5;
         }
-        TranslateTransition tt = new TranslateTransition(Duration.millis(time), this);
-        tt.setByX(x);
-        tt.setByY(y);
-        tt.play();
+        stopTransition();
+        transition = new TranslateTransition(Duration.millis(time), this);
+        transition.setToX(tile.getXReal());
+        transition.setToY(tile.getYReal());
+        transition.play();
         oldX = tile.getXReal();
         oldY = tile.getYReal();
     }
     
+    /**
+     * Stops the piece sliding to a tile, a piece moved again before its slide ends
+     * (stepping quickly through a Game) then starts from where it is shown
+     */
+    private void stopTransition() {
+        if(transition != null) {
+            transition.stop();
+            transition = null;
+        }
+    }
+    
     /**
      * Calculates the distance between 0 and a position
      * @param x of position
@@ -250,16 +269,6 @@ public abstract class Piece extends StackPane {
         return Math.sqrt(Math.pow(x,2) + Math.pow(y,2));
     }
     
-    /**
-     * Returns whether a given location is within bounds
-     * @param row of position
-     * @param col of position
-     * @return true if in bounds
-     */
-    public final boolean withinBounds(int row, int col) {
-        return (row < 8 && row > -1) && (col < 8 && col > -1);
-    }
-    
     /**
      * Performs rendering of Selectable to the Game GUI the piece belongs to
      * 
@@ -289,187 +298,48 @@ public abstract class Piece extends StackPane {
     /**
      * Render a list of selectable
      */
-    protected void renderSelectable() {
-        available.forEach((availableTile) -> getController().addSelectable(availableTile));
-    }
-    
-    /**
-     * Render a list of visuals
-     */
-    protected void renderVisualize() {
-        available.forEach((availableTile) -> getController().addVisualize(availableTile));
+    protected final void renderSelectable() {
+        for(int i = 0; i < availableCount; i++) {
+            renderSelectable(available[i], targetTile(available[i]));
+        }
     }
     
     /**
-     * Calculates and returns a list of any other pieces of the same 
-     * type that can move to the same location on the board
-     * @param location the location (the piece is to be moved to later)
-     * @return ArrayList of locations other pieces {row,column}
-     */
-    public abstract ArrayList<int[]> calcCommonPieceLocations(int[] location);
-    
-    /**
-     * Calculates the available moves a piece can make on its Game
-     * Board and adds them to attributes
-     */
-    public abstract void pieceAvailableMoves();
-    
-    /**
-     * Calculates the available moves a piece can make on its Game
-     * Board and adds them to attributes
-     * Adds the additional functionality over Piece::pieceAvailableMoves by checking
-     * if the tiles are within the whiteList
-     * @param whiteListed, whiteList used to filter out moves
-     */
-    public abstract void pieceAvailableMoves(ArrayList<Tile> whiteListed);
-    
-    /**
-     * Calculates the available moves for a piece (utilizes access to board through
-     * tile game attribute)
-     * 
-     * Clear available moves
-     * Calculate pinned whiteList 
-     * Access whiteLists from Board through Game 
-     * If not King and piece is Pinned and tiles attacking king less than 1 
-     * calculate moves with pinned whiteList 
-     * else If not King and tiles attacking king equals 1 and piece is not Pinned 
-     * calculate moves with attacking king whiteList 
-     * else If tiles attacking king is empty or is piece is King 
-     * calculate moves without whiteList 
+     * Render a selectable for one move, overridden by pieces with special moves
+     * @param move, the packed move
+     * @param tile, the tile the move goes to
      */
-    public void calcAvailableMoves() {
-        available.clear();
-        ArrayList<Tile> attackingKing = getController().getAttackingKing();
-        ArrayList<Tile> pinnedWhiteList = new ArrayList<>();
-        ArrayList<Tile> attackWhiteListed = getController().getAttackWhiteListed();
-        Piece king = getController().isWhiteTurn()
-                ? getController().getWhiteKing() : getController().getBlackKing();
-        boolean isPinned = isPinned(pinnedWhiteList, king);
-        if (!isKing() && isPinned && attackingKing.size() < 1) { 
-            pieceAvailableMoves(pinnedWhiteList);
-        } else if (!isKing() && attackingKing.size() == 1 && !isPinned) { 
-            pieceAvailableMoves(attackWhiteListed);
-        } else if (attackingKing.isEmpty() || isKing()) {
-            pieceAvailableMoves();
-        }
+    protected void renderSelectable(int move, Tile tile) {
+        getController().addSelectable(tile);
     }
     
     /**
-     * Calculates the whiteListed tiles if a piece is pinned to ally King to
-     * an ArrayList, and returns whether the piece is pinned
-     * 
-     * Algorithm is terminated upon 3 conditions:
-     * This piece is a king (returns false as  King cannot be pinned to itself)
-     * The vector between the king and this piece cannot be normalized 
-     * (there is no diagonal or horizontal trajectory)
-     * If Neither is true, King loops through each tile following the normalized trajectory
-     * between itself and this piece until it reaches a potential pinning piece or the bounds
-     * of the board while add adding each tile to the WhiteList (a pinned piece may move between 
-     * pinning piece and King and remain pinned) If a potential pinning piece is reached the piece 
-     * pins if only 2 pieces (itself and this piece) are found from the King to itself
-     * and it has attacking trajectory to the King (such as horizontal for a Rook)
-     * Algorithm terminates and returns whether or not a pin was found
-     * 
-     * @param whiteList, the whiteList to write to
-     * @param king to compare pin
-     * @return whether or not piece is pinned
+     * Render a list of visuals
      */
-    public boolean isPinned(ArrayList<Tile> whiteList, Piece king) {
-        if(isKing()) {
-            return false;
+    protected final void renderVisualize() {
+        for(int i = 0; i < availableCount; i++) {
+            getController().addVisualize(targetTile(available[i]));
         }
-        Tile[][] tiles = getController().getTiles();
-        int row = king.getTile().getRow(); //starts at king
-        int col = king.getTile().getCol();
-        if(!canNormalize(getTile().getRow() - king.getTile().getRow(), getTile().getCol() - king.getTile().getCol())) {
-            return false;
-        }
-        int r = normalize(getTile().getRow() - king.getTile().getRow()); //normalized trajectory
-        int c = normalize(getTile().getCol() - king.getTile().getCol());
-        boolean atOppositePiece = false; //has the algorithm reached an opposite pinning piece
-        boolean isPinned = false;
-        boolean reachedThisPiece = false; //has the algorithm reached this piece
-        int pieceCounter = 0;
-        while (!atOppositePiece) { 
-            if(withinBounds(row+r, col+c)) {
-                Tile t = tiles[row+r][col+c];
-                whiteList.add(t);
-                if (t.hasPiece()) {
-                    pieceCounter++;
-                    if(t.getPiece() == this) {
-                        reachedThisPiece = true;
-                    }
-                    if(t.getPiece().isWhite() != isWhite()) {
-                        atOppositePiece = true; //algorithm can terminate, a potential pinning piece has been found
-                        if(reachedThisPiece && (t.getPiece().isBishop() || t.getPiece().isQueen()) //check if piece can pin
-                                && (r != 0) && (c != 0)) {
-                            if(pieceCounter == 2) {
-                                isPinned = true;
-                            }    
-                        }
-                        if(reachedThisPiece && (t.getPiece().isRook() || t.getPiece().isQueen()) 
-                                && (r == 0 || c == 0)) {
-                            if(pieceCounter == 2) {
-                                isPinned = true;
-                            }
-                        }
-                    }
-                } 
-            } else {
-                atOppositePiece = true;
-            }
-            if (r > 0) { //travel in the direction of normalized trajectory
-                r++;
-            } else if (r < 0) {
-                r--;
-            }
-            if (c > 0) {
-                c++;
-            } else if (c < 0) {
-                c--;
-            }
-        }
-        return isPinned;
     }
     
-    /**
-     * Returns whether or not a value can be normalized with Piece::normalize
-     * @param row to be normalized
-     * @param col to be normalized
-     * @return true if can be normalized
-     */
-    public boolean canNormalize(int row, int col) {
-        return Math.abs(row) == Math.abs(col) || row == 0 || col == 0;
+    private Tile targetTile(int move) {
+        int to = Moves.to(move);
+        return getController().getTiles()[Moves.row(to)][Moves.col(to)];
     }
     
     /**
-     * Normalizes a value direction within the context of Chess to be quantifiable into
-     * the basic system of Rows and Columns. If the number is equal to 0, the 
-     * normalized value is 0. Otherwise it is the number divided by its absolute 
-     * value, which would retain the sign, specifying the direction of movement.
-     * @param num, the number to be normalized
-     * @return the normalized value
+     * Adds a legal move of this piece calculated by the Position to be rendered
+     * @param move, the packed move
      */
-    public int normalize(int num) {
-        return num == 0 ? 0 : num/Math.abs(num);
+    public void addAvailable(int move) {
+        available[availableCount++] = move;
     }
     
     /**
-     * Checks if a tile is WhiteListed
-     * @param whitelist to determine available
-     * @param tile to check
-     * @return if a tile is whiteListed, returns true
-     */
-    protected boolean whiteListed(ArrayList<Tile> whitelist, Tile tile) {
-        return whitelist.contains(tile);
-    }
-
-    /**
-     * Checks if a piece has any legal moves
-     * @return true if available move list is not empty
+     * Clears the available moves of the piece before they are recalculated
      */
-    protected boolean hasLegalMoves() {
-        return !available.isEmpty();
+    public void clearAvailable() {
+        availableCount = 0;
     }
     
 }
\ No newline at end of file
@@ -12,88 +12,103 @@ import gui.pieces.*;
  */
 public enum PieceType {
     
-    NoPiece {
+    NoPiece("") {
         @Override
         public Piece createPiece(Tile tile, String path) {
             return null;
         }   
     },
-    WhitePawn {
+    WhitePawn("whitepawn") {
         @Override
         public Piece createPiece(Tile tile, String path) {
-            return new Pawn(true, tile, path);
+            return new Pawn(true, tile, SpriteCache.get(this, path, tile.getTileSize()));
         }        
     },
-    WhiteBishop {
+    WhiteBishop("whitebishop") {
         @Override
         public Piece createPiece(Tile tile, String path) {
-            return new Bishop(true, tile, path);        
+            return new Bishop(true, tile, SpriteCache.get(this, path, tile.getTileSize()));        
         }
         
     },
-    WhiteKnight {
+    WhiteKnight("whiteknight") {
         @Override
         public Piece createPiece(Tile tile, String path) {
-            return new Knight(true, tile, path);
+            return new Knight(true, tile, SpriteCache.get(this, path, tile.getTileSize()));
         }        
     },
-    WhiteRook {
+    WhiteRook("whiterook") {
         @Override
         public Piece createPiece(Tile tile, String path) {
-            return new Rook(true, tile, path);
+            return new Rook(true, tile, SpriteCache.get(this, path, tile.getTileSize()));
         }        
     },
-    WhiteQueen {
+    WhiteQueen("whitequeen") {
         @Override
         public Piece createPiece(Tile tile, String path) {
-            return new Queen(true, tile, path);
+            return new Queen(true, tile, SpriteCache.get(this, path, tile.getTileSize()));
         }     
     },
-    WhiteKing {
+    WhiteKing("whiteking") {
         @Override
         public Piece createPiece(Tile tile, String path) {
-            return new King(true, tile, path);
+            return new King(true, tile, SpriteCache.get(this, path, tile.getTileSize()));
         }
     },
-    BlackPawn {
+    BlackPawn("blackpawn") {
         @Override
         public Piece createPiece(Tile tile, String path) {
-            return new Pawn(false, tile, path);
+            return new Pawn(false, tile, SpriteCache.get(this, path, tile.getTileSize()));
         }
     },
-    BlackBishop {
+    BlackBishop("blackbishop") {
         @Override
         public Piece createPiece(Tile tile, String path) {
-            return new Bishop(false, tile, path);
+            return new Bishop(false, tile, SpriteCache.get(this, path, tile.getTileSize()));
         }
     },
-    BlackKnight {
+    BlackKnight("blackknight") {
         @Override
         public Piece createPiece(Tile tile, String path) {
-            return new Knight(false, tile, path);
+            return new Knight(false, tile, SpriteCache.get(this, path, tile.getTileSize()));
         }
     },
-    BlackRook {
+    BlackRook("blackrook") {
         @Override
         public Piece createPiece(Tile tile, String path) {
-            return new Rook(false, tile, path);
+            return new Rook(false, tile, SpriteCache.get(this, path, tile.getTileSize()));
         }
     },
-    BlackQueen {
+    BlackQueen("blackqueen") {
         @Override
         public Piece createPiece(Tile tile, String path) {
-            return new Queen(false, tile, path);
+            return new Queen(false, tile, SpriteCache.get(this, path, tile.getTileSize()));
         } 
     },
-    BlackKing {
+    BlackKing("blackking") {
         @Override
         public Piece createPiece(Tile tile, String path) {
-            return new King(false, tile, path);
+            return new King(false, tile, SpriteCache.get(this, path, tile.getTileSize()));
         }      
     };
     
+    private final String imageName; //file name of the piece image in each style directory
+    
+    PieceType(String imageName) {
+        this.imageName = imageName;
+    }
+    
+    /**
+     * Returns the resource path of the piece image
+     * @param path subdirectory package path for image of the piece
+     * @return the resource path
+     */
+    public String getImagePath(String path) {
+        return "/resources/" + path + "/" + imageName + ".png";
+    }
+    
     /**
-     * Abstract: Returns the proper piece to be constructed
+     * Abstract: Returns the proper piece to be constructed, its image is shared through the SpriteCache
      * @param tile to be used in piece construction
      * @param path subdirectory package path for image of the piece
      * @return the piece
@@ -4,10 +4,6 @@
  */
 package gui;
 
-import gui.pieces.Bishop;
-import gui.pieces.Knight;
-import gui.pieces.Queen;
-import gui.pieces.Rook;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -26,20 +22,14 @@ import javafx.scene.text.Font;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 
+import java.util.function.Consumer;
+
 /**
  *
  * @author Joseph
  */
 public class Selectable extends Pane {
     
-    public String whiteQueen;
-    public String blackQueen;
-    public String whiteKnight;
-    public String blackKnight;
-    public String whiteBishop;
-    public String blackBishop;
-    public String whiteRook;
-    public String blackRook;
     public double tileSize;
     public double selectableSize;
     public double tileCircleSize;
@@ -61,17 +51,6 @@ public class Selectable extends Pane {
         return controller;
     }
     
-    public final void setPaths(String path) {
-        whiteQueen = "/resources/" + path + "/whitequeen.png";
-        blackQueen = "/resources/" + path + "/blackqueen.png";
-        whiteKnight = "/resources/" + path + "/whiteknight.png";
-        blackKnight = "/resources/" + path + "/blackknight.png";
-        whiteBishop = "/resources/" + path + "/whitebishop.png";
-        blackBishop = "/resources/" + path + "/blackbishop.png";
-        whiteRook = "/resources/" + path + "/whiterook.png";
-        blackRook = "/resources/" + path + "/blackrook.png";
-    }
-    
     public final void setSizes(double scale) {
         tileSize = 100*scale;
         selectableSize = 15*scale;
@@ -90,7 +69,6 @@ public class Selectable extends Pane {
      * @param app, object of application
      */
     public Selectable(Tile tile, Game controller, Color hover, Color ring, Color solid, Color castle, ChessLite app) {
-        setPaths(app.getPath());
         setSizes(app.getScale());
         this.setStyle("-fx-cursor: hand;");
         this.controller = controller;
@@ -202,6 +180,22 @@ public class Selectable extends Pane {
      * @param app, object for application
      */
     public void promotionSelection(boolean isWhite, ChessLite app) {
+        promotionSelection(controller, isWhite, app, 
+                (type) -> controller.makeMovePromotion(tile, type.createPiece(tile, app.getPath())),
+                () -> controller.getSelectedTile().getPiece().moveTo(controller.getSelectedTile()));
+    }
+    
+    /**
+     * Opens the promotion selection GUI to choose the piece to promote to
+     * @param controller, the Game the promotion is made in
+     * @param isWhite whether or not the promotion to is White
+     * @param app, object for application
+     * @param onChosen, performs the promotion to the chosen PieceType
+     * @param onClosed, puts the pawn back when the window is closed without a choice
+     */
+    public static void promotionSelection(Game controller, boolean isWhite, ChessLite app, 
+            Consumer<PieceType> onChosen, Runnable onClosed) {
+        double tileSize = 100*app.getScale();
         Pane pane = new Pane();
         pane.setMinSize(tileSize, tileSize);
         VBox elements = new VBox();
@@ -220,74 +214,33 @@ public class Selectable extends Pane {
         selectLabel.setFont(new Font("Roboto",20*app.getScale()));
         selectLabel.setAlignment(Pos.CENTER);
         selectLabel.setId("smallfont");
-        Button queen = new Button();
-        queen.setId("promotionbutton");
-        queen.setFocusTraversable(false);
-        queen.setOnAction((event) -> {
-            Stage theStage = (Stage) queen.getScene().getWindow();
-            app.getClip().play();
-            controller.makeMovePromotion(tile, new Queen(isWhite, tile, app.getPath()));
-            controller.clearSelectable();
-            theStage.close();
-        });
-        ImageView queenImg = new ImageView(new Image(getClass().getResourceAsStream(isWhite ?
-                whiteQueen : blackQueen)));
-        queenImg.setFitHeight(80*app.getScale());
-        queenImg.setFitWidth(80*app.getScale());
-        queen.setGraphic(queenImg);
-        Button knight = new Button();
-        knight.setId("promotionbutton");
-        knight.setFocusTraversable(false);
-        knight.setOnAction((event) -> {
-            Stage theStage = (Stage) knight.getScene().getWindow();
-            app.getClip().play();
-            controller.makeMovePromotion(tile, new Knight(isWhite, tile, app.getPath()));
-            controller.clearSelectable();
-            theStage.close();
-        });
-        ImageView knightImg = new ImageView(new Image(getClass().getResourceAsStream(isWhite ?
-                whiteKnight : blackKnight)));
-        knightImg.setFitHeight(80*app.getScale());
-        knightImg.setFitWidth(80*app.getScale());
-        knight.setGraphic(knightImg);
-        Button rook = new Button();
-        rook.setId("promotionbutton");
-        rook.setFocusTraversable(false);
-        rook.setOnAction((event) -> {
-            Stage theStage = (Stage)rook.getScene().getWindow();
-            app.getClip().play();
-            controller.makeMovePromotion(tile, new Rook(isWhite, tile, app.getPath()));
-            controller.clearSelectable();
-            theStage.close();
-        });
-        ImageView rookImg = new ImageView(new Image(getClass().getResourceAsStream(isWhite ?
-                whiteRook : blackRook)));
-        rookImg.setFitHeight(80*app.getScale());
-        rookImg.setFitWidth(80*app.getScale());
-        rook.setGraphic(rookImg);
-        Button bishop = new Button();
-        bishop.setId("promotionbutton");
-        bishop.setFocusTraversable(false);
-        bishop.setOnAction((event) -> {
-            Stage theStage = (Stage) bishop.getScene().getWindow();
-            app.getClip().play();
-            controller.makeMovePromotion(tile, new Bishop(isWhite, tile, app.getPath()));
-            controller.clearSelectable();
-            theStage.close();
-        });
-        ImageView bishopImg = new ImageView(new Image(getClass().getResourceAsStream(isWhite ?
-                whiteBishop : blackBishop)));
-        bishopImg.setFitHeight(80*app.getScale());
-        bishopImg.setFitWidth(80*app.getScale());
-        bishop.setGraphic(bishopImg);
         
-        buttons.getChildren().addAll(queen,knight);
-        buttons1.getChildren().addAll(rook,bishop);
+        PieceType[] types = isWhite 
+                ? new PieceType[]{PieceType.WhiteQueen, PieceType.WhiteKnight, PieceType.WhiteRook, PieceType.WhiteBishop} 
+                : new PieceType[]{PieceType.BlackQueen, PieceType.BlackKnight, PieceType.BlackRook, PieceType.BlackBishop};
+        for(int i = 0; i < types.length; i++) {
+            PieceType type = types[i];
+            Button button = new Button();
+            button.setId("promotionbutton");
+            button.setFocusTraversable(false);
+            button.setOnAction((event) -> {
+                Stage theStage = (Stage) button.getScene().getWindow();
+                app.getClip().play();
+                onChosen.accept(type);
+                controller.clearSelectable();
+                theStage.close();
+            });
+            ImageView img = new ImageView(SpriteCache.get(type, app.getPath(), 100*app.getScale()));
+            img.setFitHeight(80*app.getScale());
+            img.setFitWidth(80*app.getScale());
+            button.setGraphic(img);
+            (i < 2 ? buttons : buttons1).getChildren().add(button); //queen and knight above rook and bishop
+        }
         
         elements.getChildren().addAll(selectLabel, buttons, buttons1);
         pane.getChildren().add(elements);
         
-        Scene scene = getController().getRoot().getScene();
+        Scene scene = controller.getRoot().getScene();
         Scene secondScene = new Scene(pane, scene.getWidth()/2.3, scene.getHeight()/3);
         secondScene.getStylesheets().add(Selectable.class.getResource("/resources/chess.css").toExternalForm());
         Stage newWindow = new Stage();
@@ -297,7 +250,7 @@ public class Selectable extends Pane {
         newWindow.setScene(secondScene);
         newWindow.setResizable(false);
         newWindow.setOnCloseRequest((event)->{
-            controller.getSelectedTile().getPiece().moveTo(controller.getSelectedTile());
+            onClosed.run();
             controller.clearSelectable();
         });
 
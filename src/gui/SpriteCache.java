@@ -0,0 +1,102 @@
+/*
+ * Process wide cache of the piece images shared by every Piece, the CanvasBoard and the promotion selection GUI
+ * Each image is decoded once per style, piece type and tile size, already scaled to the tile size
+ * 10/17/26
+ */
+package gui;
+
+import javafx.scene.image.Image;
+
+import java.util.HashMap;
+
+/**
+ * Only used on the JavaFX application thread
+ *
+ * @author Joseph
+ */
+public final class SpriteCache {
+
+    private static final HashMap<String, Image[]> SPRITES = new HashMap<>(); //keyed by style and tile size, indexed by piece code
+
+    //the style and tile size looked up last, they only change in the settings
+    private static String lastPath;
+    private static double lastTileSize;
+    private static Image[] lastSprites;
+
+    private static long hits;
+    private static long misses;
+
+    private SpriteCache() {}
+
+    /**
+     * Returns the image of a piece, decoding it on the first request
+     * @param type, the piece
+     * @param path, subdirectory package path of the style
+     * @param tileSize, the width and height the image is scaled to
+     * @return the image
+     * @throws IllegalArgumentException if the type is NoPiece
+     */
+    public static Image get(PieceType type, String path, double tileSize) {
+        if(type == PieceType.NoPiece) {
+            throw new IllegalArgumentException("NoPiece has no image");
+        }
+        if(!path.equals(lastPath) || tileSize != lastTileSize) {
+            lastSprites = SPRITES.computeIfAbsent(path + "@" + tileSize, (key) -> new Image[PieceType.values().length]);
+            lastPath = path;
+            lastTileSize = tileSize;
+        }
+        Image image = lastSprites[type.ordinal()];
+        if(image == null) {
+            misses++;
+            image = new Image(type.getImagePath(path), tileSize, tileSize, true, true);
+            lastSprites[type.ordinal()] = image;
+        } else {
+            hits++;
+        }
+        return image;
+    }
+
+    /**
+     * Returns the image of a piece by its piece code
+     * @param piece, the piece code, PieceType ordinals are piece codes
+     * @param path, subdirectory package path of the style
+     * @param tileSize, the width and height the image is scaled to
+     * @return the image
+     */
+    public static Image get(byte piece, String path, double tileSize) {
+        return get(Board.NOTATION_TO_CONSTRUCTOR_TABLE[piece], path, tileSize);
+    }
+
+    public static long getHits() {
+        return hits;
+    }
+
+    public static long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of images decoded and held
+     * @return the number of images
+     */
+    public static int size() {
+        int size = 0;
+        for(Image[] sprites : SPRITES.values()) {
+            for(Image image : sprites) {
+                if(image != null) {
+                    size++;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the hit and miss counters for logging
+     * @return the counters
+     */
+    public static String getStats() {
+        long total = Math.max(hits + misses, 1);
+        return String.format("sprites %d, hits %d, misses %d (%.1f%% hit rate)", size(), hits, misses, 100.0 * hits / total);
+    }
+}
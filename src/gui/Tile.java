@@ -4,6 +4,7 @@
  */
 package gui;
 
+import engine.Moves;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
 import javafx.scene.layout.StackPane;
@@ -40,6 +41,12 @@ public final class Tile extends StackPane {
     public static final Color LIGHTER = Color.rgb(223,223,211);
     public static final Color HIGHLIGHT = Color.rgb(233,217,100,0.5);
     public static final Color BLUE_HIGHLIGHT = Color.rgb(85,156,185,0.7);
+    public static final Color[] HIGHLIGHT_COLORS = {HIGHLIGHT, BLUE_HIGHLIGHT, HIGHLIGHT, HIGHLIGHT}; //indexed by color theme
+    public static final Color[] DARK_COLORS = {DARK_BROWN, DARK_BLUE, DARK_GREEN, DARK_RED};
+    public static final Color[] LIGHT_COLORS = {LIGHT, LIGHTER, LIGHTER, LIGHTER};
+    public static final Color[] DARK_SELECTED_COLORS = {SELECTED_DARK_0,SELECTED_DARK_1,SELECTED_DARK_2,SELECTED_DARK_3};
+    public static final Color[] LIGHT_SELECTED_COLORS = {SELECTED_LIGHT_0,SELECTED_LIGHT_1,SELECTED_LIGHT_2,SELECTED_LIGHT_3};
+    public static final Color[] CHECK_COLORS = {CHECK,CHECK,CHECK,CHECK_ORANGE};
     
     public double tileSize;
     private int rowBoard; //position relative to board
@@ -109,6 +116,14 @@ public final class Tile extends StackPane {
     public int getCol() {
         return colBoard;
     }
+    
+    /**
+     * Returns the square of the Tile as numbered by Position
+     * @return the square, row*8+col
+     */
+    public int getSquare() {
+        return Moves.square(rowBoard, colBoard);
+    }
 
     public double getXReal() {
         return xReal;
@@ -145,8 +160,7 @@ public final class Tile extends StackPane {
     }
     
     public Color getHighlight() {
-        Color[] colors = {HIGHLIGHT, BLUE_HIGHLIGHT, HIGHLIGHT, HIGHLIGHT};
-        return colors[controller.getApp().getColorTheme()];
+        return HIGHLIGHT_COLORS[controller.getApp().getColorTheme()];
     }
     
     public void setHighLighted() {
@@ -158,27 +172,22 @@ public final class Tile extends StackPane {
     }
     
     public Color getDarkColor() {
-        Color[] colors = {DARK_BROWN, DARK_BLUE, DARK_GREEN, DARK_RED};
-        return colors[controller.getApp().getColorTheme()];
+        return DARK_COLORS[controller.getApp().getColorTheme()];
     }
     
     public Color getLightColor() {
-        Color[] colors = {LIGHT, LIGHTER, LIGHTER, LIGHTER};
-        return colors[controller.getApp().getColorTheme()];
+        return LIGHT_COLORS[controller.getApp().getColorTheme()];
     }
     
     public Color getDarkSelectedColor() {
-        Color[] colors = {SELECTED_DARK_0,SELECTED_DARK_1,SELECTED_DARK_2,SELECTED_DARK_3};
-        return colors[controller.getApp().getColorTheme()];
+        return DARK_SELECTED_COLORS[controller.getApp().getColorTheme()];
     }
     
     public Color getLightSelectedColor() {
-        Color[] colors = {SELECTED_LIGHT_0,SELECTED_LIGHT_1,SELECTED_LIGHT_2,SELECTED_LIGHT_3};
-        return colors[controller.getApp().getColorTheme()];
+        return LIGHT_SELECTED_COLORS[controller.getApp().getColorTheme()];
     }
     public Color getCheckColor() {
-        Color[] colors = {CHECK,CHECK,CHECK,CHECK_ORANGE};
-        return colors[controller.getApp().getColorTheme()];
+        return CHECK_COLORS[controller.getApp().getColorTheme()];
     }
     
     public void setUnselectedNoReset() {
@@ -1,10 +1,11 @@
 /*
  * A version of the Game class that has a timer
- * Just like the Game class, a core assumption is that the Board starts from the legal starting position
+ * Just like the Game class, the Board starts from the standard starting position or a Position loaded from a FEN
  * 7/3/20
  */
 package gui;
 
+import engine.Position;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.geometry.Insets;
@@ -38,6 +39,7 @@ public class TimedGame extends Game {
 
     /**
      * Constructs a new Game belonging to a stage
+     * @param start, the Position the Game starts from
      * @param whiteStart, the starting position of the Game Board object
      * @param timeInSeconds, the total time for each side
      * @param incrementInSeconds, the increment in seconds after a move
@@ -45,8 +47,8 @@ public class TimedGame extends Game {
      * @param timerType, the type of timer used in game re construction
      * @param app, the application object
      */
-    public TimedGame(boolean whiteStart, double timeInSeconds, double incrementInSeconds, Stage stage, int timerType, ChessLite app) {
-        super(whiteStart, stage, app);
+    public TimedGame(Position start, boolean whiteStart, double timeInSeconds, double incrementInSeconds, Stage stage, int timerType, ChessLite app) {
+        super(start, whiteStart, stage, app);
         setTimerType(timerType);
         blackValue = timeInSeconds;
         whiteValue = timeInSeconds;
@@ -99,17 +101,20 @@ public class TimedGame extends Game {
 
     /**
      * Performs initialization similar to Game::constructGame
+     * @param start, the Position the Game starts from
      * @param whiteStart, the starting position of the Game Board object
      * @param timeInSeconds, the total time for each side
      * @param incrementInSeconds, the increment in seconds after a move
      * @param stage, the stage game belongs to
      * @param timerType, the type of timer used in game re construction
      * @param app, application object
+     * @param engineSide, the side played by the computer or NO_ENGINE
      * @return a constructed Timed Game
      */
-    public static TimedGame constructTimedGame(boolean whiteStart, double timeInSeconds,
-                                               double incrementInSeconds, Stage stage, int timerType, ChessLite app) {
-        TimedGame game = new TimedGame(whiteStart, timeInSeconds, incrementInSeconds, stage, timerType, app);
+    public static TimedGame constructTimedGame(Position start, boolean whiteStart, double timeInSeconds,
+                                               double incrementInSeconds, Stage stage, int timerType, ChessLite app, int engineSide) {
+        TimedGame game = new TimedGame(start, whiteStart, timeInSeconds, incrementInSeconds, stage, timerType, app);
+        game.setEngineSide(engineSide);
         game.initBoard(whiteStart);
         game.initRoot();
         game.preGame();
@@ -124,12 +129,22 @@ public class TimedGame extends Game {
         AnchorPane.setTopAnchor(topBar, 1.0);
         AnchorPane.setTopAnchor(getBoardGUI(), getTopBarHeight() + 20.0);
         AnchorPane.setLeftAnchor(getBoardGUI(), 15.0);
-        AnchorPane.setTopAnchor(getSideBar(), ((getStage().getHeight() - 
-                (getElementHeight() + getElementHeight() + getScoreBoardHeight() + getElementHeight()))/2)+10);
+        AnchorPane.setTopAnchor(getSideBar(), ((getStage().getHeight() - getSideBar().getMinHeight())/2)+10);
         AnchorPane.setLeftAnchor(getSideBar(), (10 + getBoardSize()) + (getStage().getWidth() - 10 - getBoardSize() - getBarWidth()) / 2);
         getRoot().getChildren().addAll(topBorder,topBar,getBoardGUI(), getSideBar());
     }
 
+    /**
+     * Budgets the computer's thinking time from its remaining time and the increment
+     * @return the time in milliseconds
+     */
+    @Override
+    public long getEngineMoveTime() {
+        double remaining = getEngineSide() == ENGINE_WHITE ? whiteValue : blackValue;
+        double seconds = Math.min(remaining / 30 + increment / 2, remaining / 4);
+        return Math.max((long) (seconds * 1000), 100);
+    }
+
     /**
      * Adds time to timers after a move has been made
      */
@@ -180,8 +195,20 @@ public class TimedGame extends Game {
     @Override
     public void makeMove(Tile tile) {
         super.makeMove(tile);
-        //after both black and white have made one move, the timer starts
-        //time is not added for the first 2 turns
+        startOrAddTime();
+    }
+    
+    @Override
+    public void makeMove(int move) {
+        super.makeMove(move);
+        startOrAddTime();
+    }
+    
+    /**
+     * After both black and white have made one move, the timer starts
+     * Time is not added for the first 2 turns
+     */
+    private void startOrAddTime() {
         int size = getGameInfo().getMoves().size();
         if (size == 2) {
             whiteTimer.play();
@@ -213,8 +240,12 @@ public class TimedGame extends Game {
     public VBox constructScoreBoard() {
         VBox sidebar = new VBox();
         sidebar.setId("scoreoutsets");
-        sidebar.setMinSize(getBarWidth(), getElementHeight() + getElementHeight() + getScoreBoardHeight() + getElementHeight());
-        sidebar.setMaxSize(getBarWidth(), getElementHeight() + getElementHeight() + getScoreBoardHeight() + getElementHeight());
+        double height = getElementHeight() + getElementHeight() + getScoreBoardHeight() + getElementHeight() + getElementHeight();
+        if(isEngineEnabled()) {
+            height += getElementHeight();
+        }
+        sidebar.setMinSize(getBarWidth(), height);
+        sidebar.setMaxSize(getBarWidth(), height);
         HBox titles = constructTitles();
         HBox timers = constructTimers();
         HBox bottomButtons = constructButtonPanel();
@@ -222,7 +253,10 @@ public class TimedGame extends Game {
         HBox notationHBox = new HBox();
         notationHBox.getChildren().add(getNotationTable());
         notationHBox.setPadding(new Insets(0, getBarWidth() * 0.1, 0, getBarWidth() * 0.1));
-        sidebar.getChildren().addAll(titles, timers, notationHBox, bottomButtons);
+        sidebar.getChildren().addAll(titles, timers, notationHBox, bottomButtons, constructEvaluationInfo());
+        if(isEngineEnabled()) {
+            sidebar.getChildren().add(constructEngineInfo());
+        }
         return sidebar;
     }
 